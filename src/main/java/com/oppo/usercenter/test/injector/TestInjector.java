@@ -2,18 +2,48 @@ package com.oppo.usercenter.test.injector;
 
 import com.oppo.usercenter.test.injector.exception.CircularDependencyException;
 import com.oppo.usercenter.test.injector.exception.InjectionException;
+import com.oppo.usercenter.test.injector.fault.FaultAnswer;
+import com.oppo.usercenter.test.injector.fault.FaultProfile;
+import com.oppo.usercenter.test.injector.fixture.FixtureRecorder;
+import com.oppo.usercenter.test.injector.fixture.FixtureStore;
+import com.oppo.usercenter.test.injector.graph.DependencyGraph;
+import com.oppo.usercenter.test.injector.graph.DependencyNode;
+import com.oppo.usercenter.test.injector.graph.NodeKind;
+import com.oppo.usercenter.test.injector.mock.ConcurrentMocks;
+import com.oppo.usercenter.test.injector.mock.MethodMatcher;
 import com.oppo.usercenter.test.injector.mock.SmartAnswer;
+import com.oppo.usercenter.test.injector.mock.StubRules;
+import com.oppo.usercenter.test.injector.perf.ConstructionBudget;
+import com.oppo.usercenter.test.injector.perf.InteractionProfiler;
+import com.oppo.usercenter.test.injector.perf.LatencyModel;
+import com.oppo.usercenter.test.injector.perf.LatencySimulator;
+import com.oppo.usercenter.test.injector.perf.LoadHarness;
+import com.oppo.usercenter.test.injector.policy.MockPolicy;
+import com.oppo.usercenter.test.injector.time.VirtualClock;
+import com.oppo.usercenter.test.injector.util.ClassKeyedMap;
 import com.oppo.usercenter.test.injector.util.ReflectionUtils;
+import org.mockito.AdditionalAnswers;
 import org.mockito.MockSettings;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * 测试依赖注入器。
@@ -26,8 +56,17 @@ public class TestInjector {
 
     private static final Logger logger = LoggerFactory.getLogger(TestInjector.class);
 
+    /**
+     * 按延迟句柄注入的 Provider 接口（按类名匹配，不依赖具体 jar）。
+     */
+    private static final Set<String> PROVIDER_TYPES = new HashSet<>(Arrays.asList(
+            "javax.inject.Provider", "jakarta.inject.Provider"));
+
     /**
      * 类型到实例的缓存。
+     * 实例本身引用其类型，弱键也无法释放，因此使用普通 Map，由 {@link #release()} / {@link #reset()} 清空；
+     * 只保存键类型自身元数据的缓存使用 {@link ClassKeyedMap}，不阻止类卸载；
+     * 依赖图节点与反向依赖边的值引用其他类型，放进键类型的 ClassValue 会反过来钉住这些类型，同样使用普通 Map。
      */
     private final Map<Class<?>, Object> instanceCache = new ConcurrentHashMap<>();
 
@@ -51,6 +90,41 @@ public class TestInjector {
      */
     private boolean smartMockEnabled = false;
 
+    /**
+     * 作用于所有自动创建 Mock 的批量 Stub 规则。
+     */
+    private final List<StubRules> stubRules = new CopyOnWriteArrayList<>();
+
+    /**
+     * 录制模式的类型及其录制器。
+     */
+    private final Map<Class<?>, FixtureRecorder> recorders = new ConcurrentHashMap<>();
+
+    /**
+     * 按包名/类名后缀/注解的 Mock 决策策略。
+     */
+    private MockPolicy mockPolicy = MockPolicy.create();
+
+    /**
+     * 真实对象构造耗时预算，为 null 表示不计时。
+     */
+    private ConstructionBudget constructionBudget;
+
+    /**
+     * Mock 交互统计，为 null 表示不统计。
+     */
+    private InteractionProfiler interactionProfiler;
+
+    /**
+     * Mock 调用延迟模拟，为 null 表示不模拟。
+     */
+    private LatencySimulator latencySimulator;
+
+    /**
+     * 虚拟时钟，为 null 表示使用真实时间。
+     */
+    private VirtualClock virtualClock;
+
     /**
      * 是否启用调试日志。
      */
@@ -68,8 +142,34 @@ public class TestInjector {
 
     /**
      * Mock 决策缓存（性能优化）。
+     * 构造耗时预算只作用于依赖，且慢类型在运行中不断增加，因此不缓存在决策中，见 {@link MockDecision}。
+     */
+    private final ClassKeyedMap<MockDecision> mockDecisionCache = new ClassKeyedMap<>();
+
+    /**
+     * 正在创建中的类型（保证并发场景下每个类型只创建一次）。
+     */
+    private final Map<Class<?>, PendingInstance> pendingInstances = new ConcurrentHashMap<>();
+
+    /**
+     * 正在等待其他线程创建结果的线程（用于跨线程循环依赖检测）。
+     */
+    private final Map<Thread, PendingInstance> waitingThreads = new ConcurrentHashMap<>();
+
+    /**
+     * 注入器创建的类型对应的依赖图节点（创建方式、耗时与直接依赖）。
+     */
+    private final Map<Class<?>, DependencyNode> graphNodes = new ConcurrentHashMap<>();
+
+    /**
+     * 反向依赖边：类型 → 构造时直接依赖它的类型（用于增量失效）。
      */
-    private final Map<Class<?>, Boolean> mockDecisionCache = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<Class<?>>> dependents = new ConcurrentHashMap<>();
+
+    /**
+     * 冻结后的只读快照，为 null 表示未冻结。
+     */
+    private volatile FrozenInstances frozen;
 
     /**
      * 静态方法：快速创建实例。
@@ -91,6 +191,29 @@ public class TestInjector {
         return new Builder();
     }
 
+    /**
+     * 静态方法：预热给定类型的对象图。
+     * 在一次性注入器中按默认策略解析每个类型，生成所需的 Mock 类并缓存构造器选择结果；这两类缓存 JVM 级共享、
+     * 不可变且线程安全，之后各测试（包括并行执行的测试）的注入器解析同一对象图时不再承担这部分开销。
+     * 预热失败的类型只记录日志，不影响其他类型。可在多个线程中同时调用。
+     *
+     * @param roots 根类型
+     */
+    public static void warmUp(Class<?>... roots) {
+        TestInjector injector = new TestInjector();
+        try {
+            for (Class<?> root : roots) {
+                try {
+                    injector.getInstance(root);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to warm up {}: {}", root.getName(), e.toString());
+                }
+            }
+        } finally {
+            injector.release();
+        }
+    }
+
     /**
      * 静态方法：初始化 Mockito 注解（用于 JUnit 5 扩展）。
      *
@@ -103,96 +226,257 @@ public class TestInjector {
 
     /**
      * 获取实例（如果不存在则创建）。
-     * 线程安全的获取或创建实例方法。
+     * 线程安全的获取或创建实例方法；缓存命中与冻结后的查找不分配对象。
      *
      * @param clazz 目标类
      * @param <T> 类型参数
      * @return 实例
      */
     public <T> T getInstance(Class<T> clazz) {
+        return (T) lookup(clazz, true);
+    }
+
+    /**
+     * 获取依赖实例（延迟句柄调用 get 时使用），与 {@link #getInstance} 的区别只在于构造耗时预算对其生效。
+     *
+     * @param clazz 依赖类型
+     * @return 实例
+     */
+    private Object getDependency(Class<?> clazz) {
+        return lookup(clazz, false);
+    }
+
+    /**
+     * 查找或创建实例。
+     *
+     * @param clazz 目标类
+     * @param requested true 表示调用方直接请求的类型（getInstance、@InjectMocks、autoCreate 的目标），
+     *                  构造耗时预算不会把它替换为 Mock
+     * @return 实例
+     */
+    private Object lookup(Class<?> clazz, boolean requested) {
         if (clazz == null) {
             throw new IllegalArgumentException("Class cannot be null");
         }
 
-        // 先检查缓存（避免 computeIfAbsent 嵌套调用问题）
+        // 已冻结：直接查只读快照
+        FrozenInstances snapshot = frozen;
+        if (snapshot != null) {
+            return snapshot.lookup(clazz);
+        }
+
+        // 先检查缓存
         Object cached = instanceCache.get(clazz);
         if (cached != null) {
-            debugLog("Return cached instance for: {}", clazz.getName());
-            return (T) cached;
+            debugLog("Return cached instance for: {}", clazz);
+            return cached;
         }
 
         // 检查用户注册的实例
         Object userInstance = userInstances.get(clazz);
         if (userInstance != null) {
             instanceCache.put(clazz, userInstance);
-            debugLog("Return user registered instance for: {}", clazz.getName());
-            return (T) userInstance;
+            debugLog("Return user registered instance for: {}", clazz);
+            return userInstance;
         }
 
-        // 使用 computeIfAbsent 原子地创建实例
-        return (T) instanceCache.computeIfAbsent(clazz, k -> {
-            debugLog("Creating new instance for: {}", k.getName());
-            return createNewInstance((Class<?>) k);
-        });
+        return resolveOnce(clazz, requested);
     }
 
     /**
-     * 创建新实例。
+     * 在锁外创建实例，并保证并发场景下每个类型只创建一次。
+     * <p>
+     * computeIfAbsent 会在整个子图构造期间持有 bin 锁，嵌套调用会抛出 "Recursive update"，
+     * 因此改为登记"创建中"标记：第一个线程负责创建，其余线程等待其结果。
+     * 子图中的依赖由 {@link #resolveDependencies} 以同样的方式逐个登记。
+     * 等待前沿"等待线程 → 创建线程"链检查是否回到当前线程，跨线程的循环依赖会抛出
+     * CircularDependencyException 而不是死锁。
      *
      * @param clazz 目标类
-     * @param <T> 类型参数
-     * @return 新实例
+     * @param requested 是否为调用方直接请求的类型
+     * @return 实例
      */
-    private <T> T createNewInstance(Class<T> clazz) {
-        // 循环依赖检测
-        if (creatingTypes.get().contains(clazz)) {
-            dependencyPath.get().add(clazz);
-            throw new CircularDependencyException(
-                    "Circular dependency detected",
-                    new ArrayList<>(dependencyPath.get())
-            );
+    private Object resolveOnce(Class<?> clazz, boolean requested) {
+        Thread current = Thread.currentThread();
+        PendingInstance pending = new PendingInstance(current);
+        PendingInstance existing = pendingInstances.putIfAbsent(clazz, pending);
+        if (existing == null) {
+            try {
+                // 再次检查：其他线程可能在本线程未命中缓存后刚完成创建
+                Object instance = instanceCache.get(clazz);
+                if (instance == null) {
+                    debugLog("Creating new instance for: {}", clazz);
+                    Object created = createNewInstance(clazz, requested);
+                    Object registered = instanceCache.putIfAbsent(clazz, created);
+                    instance = registered != null ? registered : created;
+                }
+                pending.result.complete(instance);
+                return instance;
+            } catch (RuntimeException | Error e) {
+                pending.result.completeExceptionally(e);
+                throw e;
+            } finally {
+                pendingInstances.remove(clazz, pending);
+            }
         }
 
-        creatingTypes.get().add(clazz);
-        dependencyPath.get().add(clazz);
+        if (existing.owner == current) {
+            // 同一线程重入：由 createNewInstance 的循环依赖检测报告完整路径
+            return createNewInstance(clazz, requested);
+        }
+        return awaitPending(clazz, existing);
+    }
+
+    /**
+     * 等待其他线程创建实例。
+     *
+     * @param clazz 目标类
+     * @param pending 创建中标记
+     * @return 实例
+     */
+    private Object awaitPending(Class<?> clazz, PendingInstance pending) {
+        Thread current = Thread.currentThread();
+        waitingThreads.put(current, pending);
+        try {
+            Thread owner = pending.owner;
+            for (int hops = 0; owner != null && hops <= waitingThreads.size(); hops++) {
+                if (owner == current) {
+                    List<Class<?>> path = new ArrayList<>(dependencyPath.get());
+                    path.add(clazz);
+                    throw new CircularDependencyException("Circular dependency detected across threads", path);
+                }
+                // 已完成的等待项可能尚未从表中移除，视为不在等待
+                PendingInstance next = waitingThreads.get(owner);
+                owner = next != null && !next.result.isDone() ? next.owner : null;
+            }
+
+            try {
+                return pending.result.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new InjectionException("Failed to create instance of " + clazz.getName(), cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InjectionException("Interrupted while waiting for " + clazz.getName(), e);
+            }
+        } finally {
+            waitingThreads.remove(current);
+        }
+    }
 
+    /**
+     * 创建新实例。
+     *
+     * @param clazz 目标类
+     * @param requested 是否为调用方直接请求的类型
+     * @param <T> 类型参数
+     * @return 新实例
+     */
+    private <T> T createNewInstance(Class<T> clazz, boolean requested) {
+        enterCreation(clazz);
         try {
+            // 录制模式：创建真实对象并包装录制
+            FixtureRecorder recorder = recorders.get(clazz);
+            if (recorder != null) {
+                debugLog("Creating recorded real instance for: {}", clazz);
+                return recorder.wrap(clazz, createRealInstance(clazz, NodeKind.RECORDED));
+            }
+
             // 决策：Mock 还是真实对象
-            if (shouldMock(clazz)) {
-                debugLog("Creating mock for: {}", clazz.getName());
+            if (shouldMock(clazz, requested)) {
+                debugLog("Creating mock for: {}", clazz);
                 return createMock(clazz);
             } else {
-                debugLog("Creating real instance for: {}", clazz.getName());
-                return createRealInstance(clazz);
+                debugLog("Creating real instance for: {}", clazz);
+                return createRealInstance(clazz, NodeKind.REAL);
             }
         } finally {
-            creatingTypes.get().remove(clazz);
-            dependencyPath.get().remove(dependencyPath.get().size() - 1);
+            exitCreation();
+        }
+    }
+
+    /**
+     * 进入类型的创建过程，检测循环依赖。
+     *
+     * @param clazz 目标类
+     */
+    private void enterCreation(Class<?> clazz) {
+        if (creatingTypes.get().contains(clazz)) {
+            // 只在异常中附加重复类型，路径本身保持与已进入的创建过程一致，便于调用方逐层退出
+            List<Class<?>> path = new ArrayList<>(dependencyPath.get());
+            path.add(clazz);
+            throw new CircularDependencyException("Circular dependency detected", path);
         }
+        creatingTypes.get().add(clazz);
+        dependencyPath.get().add(clazz);
+    }
+
+    /**
+     * 退出当前类型的创建过程。
+     */
+    private void exitCreation() {
+        List<Class<?>> path = dependencyPath.get();
+        creatingTypes.get().remove(path.remove(path.size() - 1));
     }
 
     /**
      * 判断是否应该 Mock。
-     * 使用缓存提高性能。
+     * 使用缓存提高性能；策略规则与构造耗时预算只替换依赖，调用方直接请求的类型（被测对象）不受影响，
+     * 只有显式的强制 Mock 会替换它。
      *
      * @param clazz 目标类
+     * @param requested 是否为调用方直接请求的类型
      * @return true 如果应该 Mock
      */
-    private boolean shouldMock(Class<?> clazz) {
-        return mockDecisionCache.computeIfAbsent(clazz, k -> {
-            // 强制 Mock
-            if (forceMockTypes.contains(k)) {
-                return true;
-            }
+    private boolean shouldMock(Class<?> clazz, boolean requested) {
+        // 先查缓存，命中时不创建捕获 this 的 lambda
+        MockDecision decision = mockDecisionCache.get(clazz);
+        if (decision == null) {
+            decision = mockDecisionCache.computeIfAbsent(clazz, this::decide);
+        }
+        if (decision == MockDecision.POLICY_MOCK) {
+            return !requested;
+        }
+        if (decision != MockDecision.REAL_UNLESS_SLOW) {
+            return decision == MockDecision.MOCK;
+        }
+        // 构造超出预算的慢类型
+        if (!requested && constructionBudget != null && constructionBudget.shouldMock(clazz)) {
+            debugLog("Mocking slow constructor type: {}", clazz);
+            return true;
+        }
+        return false;
+    }
+
+    private MockDecision decide(Class<?> clazz) {
+        // 强制 Mock
+        if (forceMockTypes.contains(clazz)) {
+            return MockDecision.MOCK;
+        }
+
+        // 强制真实对象
+        if (forceRealTypes.contains(clazz)) {
+            return MockDecision.REAL;
+        }
 
-            // 强制真实对象
-            if (forceRealTypes.contains(k)) {
-                return false;
+        // 策略规则（包名前缀、类名后缀、注解）
+        Boolean decision = mockPolicy.decide(clazz);
+        boolean abstractType = clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers());
+        if (decision != null) {
+            if (!decision) {
+                return MockDecision.REAL;
             }
+            return abstractType ? MockDecision.MOCK : MockDecision.POLICY_MOCK;
+        }
 
-            // 默认策略：接口或抽象类 → Mock，具体类 → 真实对象
-            return k.isInterface() || Modifier.isAbstract(k.getModifiers());
-        });
+        // 默认策略：接口或抽象类 → Mock，具体类 → 真实对象（慢类型作为依赖时除外）
+        return abstractType ? MockDecision.MOCK : MockDecision.REAL_UNLESS_SLOW;
     }
 
     /**
@@ -203,184 +487,1155 @@ public class TestInjector {
      * @return Mock 对象
      */
     private <T> T createMock(Class<T> clazz) {
-        if (smartMockEnabled) {
-            MockSettings settings = Mockito.withSettings().defaultAnswer(SmartAnswer.INSTANCE);
-            return Mockito.mock(clazz, settings);
-        } else {
-            return Mockito.mock(clazz);
-        }
+        return createMock(clazz, Collections.<StubRules>emptyList());
     }
 
     /**
-     * 创建真实对象实例。
+     * 创建 Mock 对象，附加类型专属规则。
      *
      * @param clazz 目标类
+     * @param typeRules 类型专属规则（优先于全局规则）
      * @param <T> 类型参数
-     * @return 真实对象实例
+     * @return Mock 对象
      */
-    private <T> T createRealInstance(Class<T> clazz) {
-        if (!ReflectionUtils.isInstantiable(clazz)) {
-            throw new InjectionException("Cannot instantiate abstract class or interface: " + clazz.getName());
-        }
-
-        Constructor<T> constructor = ReflectionUtils.selectBestConstructor(clazz);
-        Class<?>[] parameterTypes = constructor.getParameterTypes();
-
-        if (parameterTypes.length == 0) {
-            // 无参构造器
-            try {
-                return constructor.newInstance();
-            } catch (Exception e) {
-                throw new InjectionException("Failed to create instance of " + clazz.getName(), e);
-            }
+    private <T> T createMock(Class<T> clazz, List<StubRules> typeRules) {
+        long start = System.nanoTime();
+        T mock;
+        if (!smartMockEnabled && typeRules.isEmpty() && stubRules.isEmpty()
+                && interactionProfiler == null && latencySimulator == null) {
+            mock = Mockito.mock(clazz);
         } else {
-            // 有参构造器：递归创建依赖
-            Object[] args = new Object[parameterTypes.length];
-            for (int i = 0; i < parameterTypes.length; i++) {
-                args[i] = getInstance(parameterTypes[i]);
-            }
-
-            try {
-                return constructor.newInstance(args);
-            } catch (Exception e) {
-                throw new InjectionException("Failed to create instance of " + clazz.getName(), e);
-            }
+            mock = Mockito.mock(clazz, mockSettings().defaultAnswer(defaultAnswerFor(clazz, typeRules)));
         }
+        recordNode(new DependencyNode(clazz, NodeKind.MOCK, 0L, System.nanoTime() - start,
+                Collections.<Class<?>>emptyList(), Collections.<Class<?>>emptyList()));
+        return mock;
     }
 
     /**
-     * 输出调试日志。
+     * 创建 Mock 配置，附加注入器级别的设置（如交互统计监听器）。
+     * 所有由注入器及 AnnotationProcessor 创建的 Mock 都应从这里获取配置。
      *
-     * @param format 日志格式
-     * @param args 参数
+     * @return Mock 配置
      */
-    private void debugLog(String format, Object... args) {
-        if (debugEnabled) {
-            logger.debug(format, args);
+    public MockSettings mockSettings() {
+        MockSettings settings = Mockito.withSettings();
+        InteractionProfiler profiler = interactionProfiler;
+        if (profiler != null) {
+            settings.invocationListeners(profiler);
         }
+        LatencySimulator latency = latencySimulator;
+        if (latency != null) {
+            settings.invocationListeners(latency);
+        }
+        return settings;
     }
 
     /**
-     * 清理 ThreadLocal 数据，防止内存泄漏。
-     * 应在测试结束后调用。
+     * Mock 交互统计。
+     *
+     * @return 交互统计，未开启时返回 null
      */
-    public void clearThreadLocalData() {
-        creatingTypes.remove();
-        dependencyPath.remove();
+    public InteractionProfiler getInteractionProfiler() {
+        return interactionProfiler;
     }
 
     /**
-     * 重置所有缓存和配置。
-     * 用于测试隔离或重新初始化。
+     * Mock 调用延迟模拟。
+     *
+     * @return 延迟模拟，未配置延迟时返回 null
      */
-    public void reset() {
-        instanceCache.clear();
-        userInstances.clear();
-        forceMockTypes.clear();
-        forceRealTypes.clear();
-        mockDecisionCache.clear();
-        clearThreadLocalData();
+    public LatencySimulator getLatencySimulator() {
+        return latencySimulator;
     }
 
     /**
-     * 公开方法：注册实例到缓存。
-     * 用于 AnnotationProcessor 避免反射访问。
+     * 虚拟时钟。
      *
-     * @param clazz 类型
-     * @param instance 实例
+     * @return 虚拟时钟，未开启虚拟时间时返回 null
      */
-    public void registerInstanceInternal(Class<?> clazz, Object instance) {
-        instanceCache.put(clazz, instance);
+    public VirtualClock getVirtualClock() {
+        return virtualClock;
     }
 
     /**
-     * Builder 类。
-     * 提供流畅的 API 用于配置 TestInjector。
+     * 以注入器构建的实例为目标创建压测，复用与 {@link #getInstance(Class)} 相同的依赖装配。
+     *
+     * @param clazz 目标类
+     * @param <T> 类型参数
+     * @return 压测
      */
-    public static class Builder {
+    public <T> LoadHarness<T> loadHarness(Class<T> clazz) {
+        return LoadHarness.of(getInstance(clazz));
+    }
 
-        private final TestInjector injector = new TestInjector();
-        private Class<?> targetClass;
+    /**
+     * 导出从根类型出发的依赖图，根类型尚未解析时先解析。
+     * 节点记录创建方式、构造器耗时与 Mock 创建耗时；用户注册的实例没有耗时，
+     * 只被 Supplier/Provider/Optional 引用而尚未创建的类型标记为 {@link NodeKind#UNRESOLVED}。
+     *
+     * @param root 根类型
+     * @return 依赖图
+     */
+    public DependencyGraph dependencyGraph(Class<?> root) {
+        getInstance(root);
+        return DependencyGraph.of(root, this::graphNodeOf);
+    }
 
-        /**
-         * 指定要自动创建的目标类。
-         *
-         * @param clazz 目标类
-         * @param <T> 类型参数
-         * @return TypedBuilder
-         */
-        public <T> TypedBuilder<T> autoCreate(Class<T> clazz) {
-            this.targetClass = clazz;
-            return new TypedBuilder<>(this, clazz);
+    /**
+     * 记录依赖图节点与反向依赖边。
+     * 延迟依赖每次 get 都重新从注入器解析，不需要反向边。
+     *
+     * @param node 节点
+     */
+    private void recordNode(DependencyNode node) {
+        graphNodes.put(node.getType(), node);
+        for (Class<?> dependency : node.getDependencies()) {
+            dependents.computeIfAbsent(dependency, k -> ConcurrentHashMap.newKeySet()).add(node.getType());
         }
+    }
 
-        /**
-         * 强制 Mock 指定类型。
-         *
-         * @param classes 类型数组
-         * @return Builder
-         */
-        public Builder mock(Class<?>... classes) {
-            injector.forceMockTypes.addAll(Arrays.asList(classes));
-            return this;
+    private DependencyNode graphNodeOf(Class<?> type) {
+        DependencyNode node = graphNodes.get(type);
+        if (node != null) {
+            return node;
         }
-
-        /**
-         * 强制创建真实对象。
-         *
-         * @param classes 类型数组
-         * @return Builder
-         */
-        public Builder real(Class<?>... classes) {
-            injector.forceRealTypes.addAll(Arrays.asList(classes));
-            return this;
+        if (userInstances.containsKey(type) || instanceCache.containsKey(type)) {
+            return DependencyNode.leaf(type, NodeKind.USER_INSTANCE);
         }
+        return DependencyNode.leaf(type, NodeKind.UNRESOLVED);
+    }
 
-        /**
-         * 注册用户实例。
-         *
-         * @param clazz 类型
-         * @param instance 实例
-         * @param <T> 类型参数
-         * @return Builder
-         */
-        public <T> Builder instance(Class<T> clazz, T instance) {
-            injector.userInstances.put(clazz, instance);
-            return this;
+    /**
+     * 计算 Mock 的默认 Answer：规则分发表 → 智能默认值 / Mockito 默认值。
+     *
+     * @param clazz 目标类
+     * @param typeRules 类型专属规则
+     * @return 默认 Answer
+     */
+    private Answer<?> defaultAnswerFor(Class<?> clazz, List<StubRules> typeRules) {
+        Answer<?> fallback = smartMockEnabled ? SmartAnswer.INSTANCE : Mockito.RETURNS_DEFAULTS;
+        if (typeRules.isEmpty() && stubRules.isEmpty()) {
+            return fallback;
         }
+        List<StubRules> ruleSets = new ArrayList<>(typeRules);
+        ruleSets.addAll(stubRules);
+        return StubRules.toAnswer(clazz, ruleSets, fallback);
+    }
 
-        /**
-         * 创建 Mock 对象并配置。
-         *
-         * @param clazz 类型
-         * @param configurator 配置器
-         * @param <T> 类型参数
-         * @return Builder
-         */
-        public <T> Builder mockWith(Class<T> clazz, MockConfigurator<T> configurator) {
-            injector.forceMockTypes.add(clazz);
-            T mockInstance = injector.createMock(clazz);
-            configurator.configure(mockInstance);
-            injector.userInstances.put(clazz, mockInstance);
-            return this;
+    /**
+     * 一步创建 Spy：用选定的构造器与注入器解析的参数直接构造 Spy 子类，构造器只执行一次，
+     * 缓存中只保留 Spy，不再先创建真实对象再复制字段。
+     * <p>
+     * 类型已被解析（或已注册）时 spy 已有实例，并用 Spy 替换缓存中的实例、使依赖它的类型失效（与 {@link #rebind} 一致），
+     * 之后解析的对象拿到的都是同一个 Spy；final 类、private 构造器或参数无法唯一匹配构造器时同样先解析真实对象再替换。
+     * 与 {@link #resolveOnce} 一样登记创建中标记，并发的 getInstance 等待并得到同一个 Spy，不会另建真实对象。
+     *
+     * @param clazz 目标类
+     * @param <T> 类型参数
+     * @return Spy 对象
+     */
+    public <T> T createSpy(Class<T> clazz) {
+        checkNotFrozen();
+        Object existing = instanceCache.get(clazz);
+        if (existing == null) {
+            existing = userInstances.get(clazz);
         }
-
-        /**
-         * 启用智能 Mock。
-         *
-         * @return Builder
-         */
-        public Builder enableSmartMock() {
-            injector.smartMockEnabled = true;
-            return this;
+        if (existing != null) {
+            return replaceWithSpy(clazz, existing);
+        }
+        if (!ReflectionUtils.isInstantiable(clazz) || Modifier.isFinal(clazz.getModifiers())) {
+            return replaceWithSpy(clazz, getInstance(clazz));
         }
 
-        /**
-         * 启用调试日志。
-         *
+        Thread current = Thread.currentThread();
+        PendingInstance pending = new PendingInstance(current);
+        PendingInstance other = pendingInstances.putIfAbsent(clazz, pending);
+        if (other != null) {
+            // 同一线程重入由 resolveOnce 报告循环依赖，其他线程正在创建时 spy 其结果
+            return spyOf(clazz, other.owner == current ? resolveOnce(clazz, true) : awaitPending(clazz, other));
+        }
+        try {
+            Object instance = instanceCache.get(clazz);
+            if (instance == null) {
+                Object created = constructSpy(clazz);
+                Object registered = instanceCache.putIfAbsent(clazz, created);
+                instance = registered != null ? registered : created;
+            }
+            pending.result.complete(instance);
+            return spyOf(clazz, instance);
+        } catch (RuntimeException | Error e) {
+            pending.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingInstances.remove(clazz, pending);
+        }
+    }
+
+    /**
+     * 用 Spy 替换已交出的实例：缓存只保留 Spy，直接依赖该类型的对象失效后重建，Stub 与 verify 对它们同样生效。
+     *
+     * @param clazz 类型
+     * @param existing 已解析或已注册的实例
+     * @param <T> 类型参数
+     * @return Spy 对象
+     */
+    private <T> T replaceWithSpy(Class<T> clazz, Object existing) {
+        if (Mockito.mockingDetails(existing).isMock()) {
+            return clazz.cast(existing);
+        }
+        long start = System.nanoTime();
+        Object spy = Mockito.spy(existing);
+        long elapsed = System.nanoTime() - start;
+        boolean replacedUser = userInstances.replace(clazz, existing, spy);
+        boolean replacedCache = instanceCache.replace(clazz, existing, spy);
+        if (!replacedUser && !replacedCache) {
+            // 其他线程已替换或失效了该实例，按最新状态重试
+            return createSpy(clazz);
+        }
+        Set<Class<?>> direct = dependents.get(clazz);
+        if (direct != null) {
+            for (Class<?> dependent : new ArrayList<>(direct)) {
+                invalidate(dependent);
+            }
+        }
+        DependencyNode node = graphNodes.get(clazz);
+        if (node != null) {
+            recordNode(new DependencyNode(clazz, NodeKind.SPY, node.getConstructionNanos(), elapsed,
+                    node.getDependencies(), node.getLazyDependencies()));
+        }
+        debugLog("Replaced resolved instance with spy: {}", clazz);
+        return clazz.cast(spy);
+    }
+
+    /**
+     * 已是 Mock/Spy 的实例直接返回，否则 spy 该实例。
+     */
+    private static <T> T spyOf(Class<T> clazz, Object instance) {
+        return clazz.cast(Mockito.mockingDetails(instance).isMock() ? instance : Mockito.spy(instance));
+    }
+
+    /**
+     * 构造 Spy，调用方已登记创建中标记。
+     *
+     * @param clazz 目标类
+     * @param <T> 类型参数
+     * @return Spy 对象
+     */
+    private <T> T constructSpy(Class<T> clazz) {
+        ConstructionFrame frame = new ConstructionFrame(clazz, NodeKind.SPY, null, null);
+        enterCreation(clazz);
+        try {
+            resolveDependencies(frame);
+        } finally {
+            exitCreation();
+        }
+        Object[] args = frame.args;
+        if (Modifier.isPrivate(frame.constructor.getModifiers()) || !uniquelyMatches(clazz, args)) {
+            return Mockito.spy(createRealInstance(clazz, NodeKind.SPY));
+        }
+
+        debugLog("Creating spy via constructor for: {}", clazz);
+        ConstructionBudget budget = constructionBudget;
+        long start = System.nanoTime();
+        long elapsed;
+        T spy;
+        try {
+            spy = Mockito.mock(clazz, mockSettings().useConstructor(args).defaultAnswer(Mockito.CALLS_REAL_METHODS));
+        } catch (RuntimeException e) {
+            throw new InjectionException("Failed to create spy of " + clazz.getName(), e);
+        } finally {
+            elapsed = System.nanoTime() - start;
+            if (budget != null) {
+                budget.record(clazz, elapsed);
+            }
+        }
+        // 构造器在 Spy 子类中执行，与 Mock 类生成无法分开计时
+        recordNode(new DependencyNode(clazz, NodeKind.SPY, 0L, elapsed, frame.dependencies, frame.lazyDependencies));
+        return spy;
+    }
+
+    /**
+     * 用显式工作栈解析构造器参数及其整个依赖子图。
+     * 需要新建真实对象的依赖作为新的帧入栈，参数全部就绪后构造并回填到上一帧，
+     * 调用栈深度与依赖链长度无关，生成的深层依赖图不会 StackOverflowError；
+     * 每个依赖与 {@link #resolveOnce} 一样登记"创建中"标记，构造子依赖期间不持有任何 Map 锁。
+     * <p>
+     * {@code Supplier<T>}、{@code javax/jakarta.inject.Provider<T>} 参数注入延迟句柄，调用 get 时才从注入器解析 T，
+     * 有条件使用的重量级依赖不会在构造时被创建（也可借此打破构造器循环依赖）；
+     * {@code Optional<T>} 只在 T 已注册、已解析或通过 mock/real 显式配置时非空，不会为它新建对象。
+     * 泛型参数无法确定时按普通类型处理。
+     * <p>
+     * 根帧只解析参数、不构造，由调用方决定以真实对象还是 Spy 构造，其创建中标记也由调用方维护。
+     *
+     * @param root 根帧
+     */
+    private void resolveDependencies(ConstructionFrame root) {
+        Deque<ConstructionFrame> stack = new ArrayDeque<>();
+        stack.push(root);
+        try {
+            while (true) {
+                ConstructionFrame frame = stack.peek();
+                if (frame.hasNextParameter()) {
+                    ConstructionFrame child = resolveNextParameter(frame);
+                    if (child != null) {
+                        stack.push(child);
+                    }
+                } else if (frame == root) {
+                    return;
+                } else {
+                    Object instance = completeFrame(frame);
+                    stack.pop();
+                    stack.peek().accept(frame.type, instance);
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            while (stack.peek() != root) {
+                abandonFrame(stack.pop(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 解析帧的下一个参数：延迟参数与已有实例直接回填，需要新建真实对象时返回子帧。
+     *
+     * @param frame 当前帧
+     * @return 需要入栈的子帧，已回填时返回 null
+     */
+    private ConstructionFrame resolveNextParameter(ConstructionFrame frame) {
+        int index = frame.next;
+        Class<?> type = frame.parameterTypes[index];
+        Class<?> target = frame.genericTypes != null ? ReflectionUtils.firstTypeArgument(frame.genericTypes[index]) : null;
+        if (target != null) {
+            VirtualClock clock = virtualClock;
+            if (type == Supplier.class && target == Instant.class && clock != null) {
+                // 时间函数直接读取虚拟时钟，rebind 时钟后持有者随之失效
+                frame.accept(VirtualClock.class, clock.instantSupplier());
+                return null;
+            }
+            if (type == Supplier.class) {
+                frame.acceptLazy(target, (Supplier<Object>) () -> getDependency(target));
+                return null;
+            }
+            if (type == Optional.class) {
+                if (!isConfigured(target)) {
+                    frame.acceptLazy(target, Optional.empty());
+                    return null;
+                }
+                frame.wrapOptional = true;
+                type = target;
+            } else if (type.isInterface() && PROVIDER_TYPES.contains(type.getName())) {
+                frame.acceptLazy(target, providerOf(type, target));
+                return null;
+            }
+        }
+        return resolveEager(frame, type);
+    }
+
+    /**
+     * 解析构造时需要的依赖，与 {@link #getInstance}、{@link #createNewInstance} 的判定一致，
+     * 只是真实对象不再递归创建，而是返回子帧。
+     *
+     * @param frame 当前帧
+     * @param type 依赖类型
+     * @return 需要入栈的子帧，已回填时返回 null
+     */
+    private ConstructionFrame resolveEager(ConstructionFrame frame, Class<?> type) {
+        FrozenInstances snapshot = frozen;
+        if (snapshot != null) {
+            frame.accept(type, snapshot.lookup(type));
+            return null;
+        }
+        Object existing = instanceCache.get(type);
+        if (existing == null) {
+            existing = userInstances.get(type);
+            if (existing != null) {
+                instanceCache.put(type, existing);
+            }
+        }
+        if (existing != null) {
+            frame.accept(type, existing);
+            return null;
+        }
+
+        Thread current = Thread.currentThread();
+        PendingInstance pending = new PendingInstance(current);
+        PendingInstance other = pendingInstances.putIfAbsent(type, pending);
+        if (other != null) {
+            // 同一线程重入由 resolveOnce 报告循环依赖，其他线程正在创建时等待其结果
+            frame.accept(type, other.owner == current ? resolveOnce(type, false) : awaitPending(type, other));
+            return null;
+        }
+
+        boolean entered = false;
+        try {
+            Object instance = instanceCache.get(type);
+            if (instance == null) {
+                debugLog("Creating new instance for: {}", type);
+                enterCreation(type);
+                entered = true;
+                FixtureRecorder recorder = recorders.get(type);
+                if (recorder != null) {
+                    debugLog("Creating recorded real instance for: {}", type);
+                    return new ConstructionFrame(type, NodeKind.RECORDED, pending, recorder);
+                }
+                if (!shouldMock(type, false)) {
+                    debugLog("Creating real instance for: {}", type);
+                    return new ConstructionFrame(type, NodeKind.REAL, pending, null);
+                }
+                debugLog("Creating mock for: {}", type);
+                Object created = createMock(type);
+                Object registered = instanceCache.putIfAbsent(type, created);
+                instance = registered != null ? registered : created;
+                exitCreation();
+                entered = false;
+            }
+            pending.result.complete(instance);
+            pendingInstances.remove(type, pending);
+            frame.accept(type, instance);
+            return null;
+        } catch (RuntimeException | Error e) {
+            if (entered) {
+                exitCreation();
+            }
+            pending.result.completeExceptionally(e);
+            pendingInstances.remove(type, pending);
+            throw e;
+        }
+    }
+
+    /**
+     * 构造参数已就绪的子帧，登记实例并释放创建中标记。
+     *
+     * @param frame 子帧
+     * @return 已登记的实例
+     */
+    private Object completeFrame(ConstructionFrame frame) {
+        Object created = instantiate(frame);
+        if (frame.recorder != null) {
+            created = recordedOf(frame.recorder, frame.type, created);
+        }
+        Object registered = instanceCache.putIfAbsent(frame.type, created);
+        Object instance = registered != null ? registered : created;
+        exitCreation();
+        frame.pending.result.complete(instance);
+        pendingInstances.remove(frame.type, frame.pending);
+        return instance;
+    }
+
+    /**
+     * 用录制器包装真实实例，类型由 {@code clazz.cast} 检查。
+     */
+    private static <T> T recordedOf(FixtureRecorder recorder, Class<T> clazz, Object real) {
+        return recorder.wrap(clazz, clazz.cast(real));
+    }
+
+    /**
+     * 子图创建失败时释放子帧的创建中标记，等待该类型的线程收到同一异常。
+     *
+     * @param frame 子帧
+     * @param failure 失败原因
+     */
+    private void abandonFrame(ConstructionFrame frame, Throwable failure) {
+        exitCreation();
+        frame.pending.result.completeExceptionally(failure);
+        pendingInstances.remove(frame.type, frame.pending);
+    }
+
+    /**
+     * 类型是否已有实例或显式配置。
+     *
+     * @param clazz 类型
+     * @return true 如果已注册、已解析或通过 mock/real 配置
+     */
+    private boolean isConfigured(Class<?> clazz) {
+        return instanceCache.containsKey(clazz) || userInstances.containsKey(clazz)
+                || forceMockTypes.contains(clazz) || forceRealTypes.contains(clazz);
+    }
+
+    /**
+     * 创建 {@code Provider<T>} 的动态代理，按类名匹配以免依赖 javax.inject / jakarta.inject。
+     *
+     * @param providerType Provider 接口
+     * @param target 提供的类型
+     * @return Provider 实例
+     */
+    private Object providerOf(Class<?> providerType, Class<?> target) {
+        return Proxy.newProxyInstance(providerType.getClassLoader(), new Class<?>[]{providerType},
+                (proxy, method, methodArgs) -> {
+                    switch (method.getName()) {
+                        case "get":
+                            return getDependency(target);
+                        case "equals":
+                            return proxy == methodArgs[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return providerType.getSimpleName() + "<" + target.getName() + ">";
+                        default:
+                            throw new UnsupportedOperationException(method.toString());
+                    }
+                });
+    }
+
+    /**
+     * Mockito 按实参运行时类型匹配构造器，匹配到多个（或没有）非 private 构造器时无法直接构造 Spy。
+     */
+    private static boolean uniquelyMatches(Class<?> clazz, Object[] args) {
+        int matched = 0;
+        for (Constructor<?> candidate : clazz.getDeclaredConstructors()) {
+            if (Modifier.isPrivate(candidate.getModifiers()) || candidate.getParameterCount() != args.length) {
+                continue;
+            }
+            Class<?>[] types = candidate.getParameterTypes();
+            boolean accepts = true;
+            for (int i = 0; i < types.length && accepts; i++) {
+                accepts = types[i].isPrimitive() ? args[i] != null : args[i] == null || types[i].isInstance(args[i]);
+            }
+            if (accepts) {
+                matched++;
+            }
+        }
+        return matched == 1;
+    }
+
+    /**
+     * 创建真实对象实例，并记录依赖图节点。
+     *
+     * @param clazz 目标类
+     * @param kind 依赖图中的创建方式
+     * @param <T> 类型参数
+     * @return 真实对象实例
+     */
+    private <T> T createRealInstance(Class<T> clazz, NodeKind kind) {
+        ConstructionFrame frame = new ConstructionFrame(clazz, kind, null, null);
+        resolveDependencies(frame);
+        return clazz.cast(instantiate(frame));
+    }
+
+    /**
+     * 以已解析的参数调用构造器，并记录依赖图节点。
+     *
+     * @param frame 参数已就绪的帧
+     * @return 新实例
+     */
+    private Object instantiate(ConstructionFrame frame) {
+        // 只对构造器本身计时，不含依赖解析
+        ConstructionBudget budget = constructionBudget;
+        long start = System.nanoTime();
+        long elapsed;
+        Object instance;
+        try {
+            instance = frame.constructor.newInstance(frame.args);
+        } catch (Exception e) {
+            throw new InjectionException("Failed to create instance of " + frame.type.getName(), e);
+        } finally {
+            elapsed = System.nanoTime() - start;
+            if (budget != null) {
+                budget.record(frame.type, elapsed);
+            }
+        }
+        recordNode(new DependencyNode(frame.type, frame.kind, elapsed, 0L, frame.dependencies, frame.lazyDependencies));
+        return instance;
+    }
+
+    /**
+     * 输出调试日志。
+     * getInstance 的缓存命中路径也会调用，不使用可变参数，类名只在开启调试时获取，关闭调试时不分配对象。
+     *
+     * @param format 日志格式
+     * @param type 类型
+     */
+    private void debugLog(String format, Class<?> type) {
+        if (debugEnabled) {
+            logger.debug(format, type.getName());
+        }
+    }
+
+    /**
+     * 清理 ThreadLocal 数据，防止内存泄漏。
+     * 应在测试结束后调用。
+     */
+    public void clearThreadLocalData() {
+        creatingTypes.remove();
+        dependencyPath.remove();
+    }
+
+    /**
+     * 冻结注入器。
+     * 将已解析的实例（含用户注册实例）固化为只读快照，之后的 getInstance
+     * 只做一次无锁查找；冻结前未解析过的类型会抛出 IllegalStateException，注册、配置等修改操作也会被拒绝。
+     * 调用 {@link #reset()} 可解除冻结。
+     *
+     * @return 当前 TestInjector
+     */
+    public TestInjector freeze() {
+        synchronized (this) {
+            if (frozen == null) {
+                Map<Class<?>, Object> resolved = new IdentityHashMap<>(userInstances);
+                resolved.putAll(instanceCache);
+                frozen = new FrozenInstances(resolved);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 是否已冻结。
+     *
+     * @return true 如果已冻结
+     */
+    public boolean isFrozen() {
+        return frozen != null;
+    }
+
+    /**
+     * 检查未冻结。
+     */
+    private void checkNotFrozen() {
+        if (frozen != null) {
+            throw new IllegalStateException("TestInjector is frozen and cannot be modified");
+        }
+    }
+
+    /**
+     * 结束所有录制并写入录制文件索引。
+     * 应在测试结束后调用，之后的调用不再被录制。
+     */
+    public void closeRecordings() {
+        for (FixtureRecorder recorder : recorders.values()) {
+            recorder.close();
+        }
+    }
+
+    /**
+     * 使类型及所有（传递）依赖它的类型失效，其余已解析的实例保持不变。
+     * 失效的类型在下次 {@link #getInstance(Class)} 时按当前配置重新创建；用户注册的实例与 mock/real 配置保留。
+     * 依赖关系按构造器参数记录，Supplier/Provider 持有者每次 get 都重新解析，不会失效。
+     * 不应与同一注入器上的并发解析同时调用。
+     *
+     * @param clazz 类型
+     * @return 失效的类型（广度优先，首个为 clazz 本身）
+     */
+    public Set<Class<?>> invalidate(Class<?> clazz) {
+        checkNotFrozen();
+        Set<Class<?>> evicted = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(clazz);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (!evicted.add(type)) {
+                continue;
+            }
+            instanceCache.remove(type);
+            graphNodes.remove(type);
+            Set<Class<?>> direct = dependents.get(type);
+            if (direct != null) {
+                pending.addAll(direct);
+            }
+        }
+        debugLog("Invalidated dependents of: {}", clazz);
+        return evicted;
+    }
+
+    /**
+     * 已创建并交出的、持有该类型实例的对象：类型本身（已解析时）及所有（传递）依赖它且已解析的类型。
+     * 替换这些类型依赖的实例不会更新已交出的引用，调用方可据此拒绝替换。
+     *
+     * @param clazz 类型
+     * @return 已解析的类型（广度优先），均未解析时为空
+     */
+    public Set<Class<?>> resolvedDependents(Class<?> clazz) {
+        Set<Class<?>> visited = new HashSet<>();
+        Set<Class<?>> resolved = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(clazz);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            // 失效后尚未重建的类型不计入，但仍沿其依赖边继续查找
+            if (instanceCache.containsKey(type)) {
+                resolved.add(type);
+            }
+            Set<Class<?>> direct = dependents.get(type);
+            if (direct != null) {
+                pending.addAll(direct);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * 替换类型绑定的实例，并使所有（传递）依赖它的类型失效，其余对象图保持不变。
+     * 适用于在一组测试中途覆盖单个依赖，而不必 {@link #reset()} 后重建整个对象图。
+     *
+     * @param clazz 类型
+     * @param instance 新实例
+     * @param <T> 类型参数
+     * @return 失效的类型（广度优先，首个为 clazz 本身）
+     */
+    public <T> Set<Class<?>> rebind(Class<T> clazz, T instance) {
+        checkNotFrozen();
+        if (instance == null) {
+            throw new IllegalArgumentException("Instance cannot be null");
+        }
+        userInstances.put(clazz, instance);
+        return invalidate(clazz);
+    }
+
+    /**
+     * 重置所有缓存和配置。
+     * 用于测试隔离或重新初始化。
+     */
+    public void reset() {
+        frozen = null;
+        closeRecordings();
+        recorders.clear();
+        instanceCache.clear();
+        userInstances.clear();
+        forceMockTypes.clear();
+        forceRealTypes.clear();
+        stubRules.clear();
+        mockPolicy = MockPolicy.create();
+        interactionProfiler = null;
+        latencySimulator = null;
+        virtualClock = null;
+        mockDecisionCache.clear();
+        graphNodes.clear();
+        dependents.clear();
+        clearThreadLocalData();
+    }
+
+    /**
+     * 释放本注入器持有的全部对象。
+     * 注入器创建的 Mock 执行 {@code Mockito.reset}，用户注册的 Mock 可能在测试之间共享，只清除调用记录；
+     * 之后与 {@link #reset()} 一样清空缓存、配置、录制器与 ThreadLocal，使本次测试的对象图可被回收。
+     * JUnit 扩展在每个测试结束后自动调用。
+     */
+    public void release() {
+        Set<Object> userOwned = Collections.newSetFromMap(new IdentityHashMap<>());
+        userOwned.addAll(userInstances.values());
+        for (Object instance : ownedInstances()) {
+            if (ConcurrentMocks.isConcurrentMock(instance)) {
+                ConcurrentMocks.resetCalls(instance);
+            }
+            if (!Mockito.mockingDetails(instance).isMock()) {
+                continue;
+            }
+            if (userOwned.contains(instance)) {
+                Mockito.clearInvocations(instance);
+            } else {
+                Mockito.reset(instance);
+            }
+        }
+        reset();
+        constructionBudget = null;
+    }
+
+    /**
+     * 当前持有的全部实例（已解析实例与用户注册实例，按引用去重）。
+     *
+     * @return 实例快照
+     */
+    public Set<Object> ownedInstances() {
+        Set<Object> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        owned.addAll(instanceCache.values());
+        owned.addAll(userInstances.values());
+        return owned;
+    }
+
+    /**
+     * 公开方法：注册实例到缓存。
+     * 用于 AnnotationProcessor 避免反射访问。
+     *
+     * @param clazz 类型
+     * @param instance 实例
+     */
+    public void registerInstanceInternal(Class<?> clazz, Object instance) {
+        checkNotFrozen();
+        instanceCache.put(clazz, instance);
+    }
+
+    /**
+     * Builder 类。
+     * 提供流畅的 API 用于配置 TestInjector。
+     */
+    public static class Builder {
+
+        private final TestInjector injector = new TestInjector();
+        private final Map<Class<?>, List<FaultProfile>> faultProfiles = new HashMap<>();
+        private Class<?> targetClass;
+
+        /**
+         * 指定要自动创建的目标类。
+         *
+         * @param clazz 目标类
+         * @param <T> 类型参数
+         * @return TypedBuilder
+         */
+        public <T> TypedBuilder<T> autoCreate(Class<T> clazz) {
+            this.targetClass = clazz;
+            return new TypedBuilder<>(this, clazz);
+        }
+
+        /**
+         * 强制 Mock 指定类型。
+         *
+         * @param classes 类型数组
+         * @return Builder
+         */
+        public Builder mock(Class<?>... classes) {
+            injector.checkNotFrozen();
+            injector.forceMockTypes.addAll(Arrays.asList(classes));
+            return this;
+        }
+
+        /**
+         * 强制创建真实对象。
+         *
+         * @param classes 类型数组
+         * @return Builder
+         */
+        public Builder real(Class<?>... classes) {
+            injector.checkNotFrozen();
+            injector.forceRealTypes.addAll(Arrays.asList(classes));
+            return this;
+        }
+
+        /**
+         * 注册用户实例。
+         *
+         * @param clazz 类型
+         * @param instance 实例
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder instance(Class<T> clazz, T instance) {
+            injector.checkNotFrozen();
+            injector.userInstances.put(clazz, instance);
+            return this;
+        }
+
+        /**
+         * 创建 Mock 对象并配置。
+         *
+         * @param clazz 类型
+         * @param configurator 配置器
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder mockWith(Class<T> clazz, MockConfigurator<T> configurator) {
+            injector.checkNotFrozen();
+            injector.forceMockTypes.add(clazz);
+            T mockInstance = injector.createMock(clazz);
+            configurator.configure(mockInstance);
+            injector.userInstances.put(clazz, mockInstance);
+            return this;
+        }
+
+        /**
+         * 创建高并发 Mock 并配置：{@code when(...)} 照常写在配置器中，Stub 被编译为无锁查找表，
+         * 适合被几十个线程同时调用的依赖。调用次数通过 {@link ConcurrentMocks#calls(Object, String)} 查询，
+         * 不支持 {@code Mockito.verify}。延迟、规则与智能默认值在调用时读取，可在本方法之前或之后配置。
+         *
+         * @param clazz 类型
+         * @param configurator 配置器
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder concurrentMockWith(Class<T> clazz, MockConfigurator<T> configurator) {
+            injector.checkNotFrozen();
+            injector.forceMockTypes.add(clazz);
+            TestInjector target = injector;
+            T mockInstance = ConcurrentMocks.create(clazz, configurator,
+                    () -> target.defaultAnswerFor(clazz, Collections.<StubRules>emptyList()),
+                    () -> target.latencySimulator);
+            injector.userInstances.put(clazz, mockInstance);
+            return this;
+        }
+
+        /**
+         * 创建带调用延迟的 Mock 对象并配置。
+         *
+         * @param clazz 类型
+         * @param latency 延迟模型（作用于该类型的所有方法）
+         * @param configurator 配置器
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder mockWith(Class<T> clazz, LatencyModel latency, MockConfigurator<T> configurator) {
+            latency(clazz, latency);
+            return mockWith(clazz, configurator);
+        }
+
+        /**
+         * 创建按概率注入故障的 Mock 并配置：{@code when(...)} 的 Stub 只在未注入故障时生效。
+         * 包含超时时自动开启虚拟时间。
+         *
+         * @param clazz 类型
+         * @param faults 故障配置
+         * @param configurator 配置器
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder mockWith(Class<T> clazz, FaultProfile faults, MockConfigurator<T> configurator) {
+            injector.checkNotFrozen();
+            if (faults.hasTimeouts()) {
+                enableVirtualTime();
+            }
+            injector.forceMockTypes.add(clazz);
+            // Stub 写在内部 Mock 上，外层 Mock 先判定故障再转发，verify 作用于外层 Mock
+            T stubs = Mockito.mock(clazz, Mockito.withSettings().stubOnly()
+                    .defaultAnswer(injector.defaultAnswerFor(clazz, Collections.<StubRules>emptyList())));
+            configurator.configure(stubs);
+            Answer<?> answer = faults.toAnswer(AdditionalAnswers.delegatesTo(stubs), injector.virtualClock);
+            injector.userInstances.put(clazz, Mockito.mock(clazz, injector.mockSettings().defaultAnswer(answer)));
+            return this;
+        }
+
+        /**
+         * 为类型注入概率故障，未注入故障的调用返回默认值（遵循 rules/enableSmartMock）。
+         * 同一类型多次调用时按声明顺序匹配方法，第一个适用的配置生效；会替换该类型之前配置的 Mock。
+         * 包含超时时自动开启虚拟时间。
+         *
+         * @param clazz 类型
+         * @param faults 故障配置
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder faults(Class<T> clazz, FaultProfile faults) {
+            injector.checkNotFrozen();
+            if (faults.hasTimeouts()) {
+                enableVirtualTime();
+            }
+            List<FaultProfile> profiles = faultProfiles.computeIfAbsent(clazz, key -> new ArrayList<>());
+            profiles.add(faults);
+            injector.forceMockTypes.add(clazz);
+            Answer<?> answer = new FaultAnswer(profiles,
+                    injector.defaultAnswerFor(clazz, Collections.<StubRules>emptyList()), injector.virtualClock);
+            injector.userInstances.put(clazz, Mockito.mock(clazz, injector.mockSettings().defaultAnswer(answer)));
+            return this;
+        }
+
+        /**
+         * 为类型的所有方法模拟调用延迟。
+         * 与 rules 一样只影响之后创建的 Mock，需在 mockWith/mockWithRules 之前调用。
+         *
+         * @param clazz 类型
+         * @param latency 延迟模型
+         * @return Builder
+         */
+        public Builder latency(Class<?> clazz, LatencyModel latency) {
+            injector.checkNotFrozen();
+            latencySimulator().add(clazz, latency);
+            return this;
+        }
+
+        /**
+         * 为类型的匹配方法模拟调用延迟（优先于类型级延迟）。
+         *
+         * @param clazz 类型
+         * @param methods 方法匹配器
+         * @param latency 延迟模型
+         * @return Builder
+         */
+        public Builder latency(Class<?> clazz, MethodMatcher methods, LatencyModel latency) {
+            injector.checkNotFrozen();
+            latencySimulator().add(clazz, methods, latency);
+            return this;
+        }
+
+        private LatencySimulator latencySimulator() {
+            if (injector.latencySimulator == null) {
+                injector.latencySimulator = new LatencySimulator();
+                injector.latencySimulator.useVirtualClock(injector.virtualClock);
+            }
+            return injector.latencySimulator;
+        }
+
+        /**
+         * 开启虚拟时间（已开启时保持原时钟）。
+         * 虚拟时钟被注册为 {@link Clock}、{@link VirtualClock}（Java 9+ 还有 {@code InstantSource}）的实例注入到被测对象，
+         * {@code Supplier<Instant>} 参数注入 {@link VirtualClock#instantSupplier()}，
+         * {@code LongSupplier} 参数按 {@code System::nanoTime} 的约定注入 {@link VirtualClock#nanoTimeSupplier()}；
+         * 模拟的延迟与超时推进虚拟时间而不是真实休眠。
+         *
+         * @return Builder
+         */
+        public Builder enableVirtualTime() {
+            return injector.virtualClock != null ? this : virtualTime(new VirtualClock());
+        }
+
+        /**
+         * 使用指定的虚拟时钟。
+         *
+         * @param clock 虚拟时钟
+         * @return Builder
+         */
+        public Builder virtualTime(VirtualClock clock) {
+            injector.checkNotFrozen();
+            injector.virtualClock = clock;
+            injector.userInstances.put(Clock.class, clock);
+            injector.userInstances.put(VirtualClock.class, clock);
+            injector.userInstances.put(LongSupplier.class, clock.nanoTimeSupplier());
+            Class<?> instantSource = ReflectionUtils.loadClassOrNull("java.time.InstantSource");
+            if (instantSource != null) {
+                injector.userInstances.put(instantSource, clock);
+            }
+            if (injector.latencySimulator != null) {
+                injector.latencySimulator.useVirtualClock(clock);
+            }
+            return this;
+        }
+
+        /**
+         * 添加作用于所有自动创建 Mock 的批量 Stub 规则。
+         * 与 enableSmartMock 一样，只影响之后创建的 Mock，需在 mockWith/mockWithRules 之前调用。
+         *
+         * @param rules 规则集
+         * @return Builder
+         */
+        public Builder rules(StubRules rules) {
+            injector.checkNotFrozen();
+            if (!rules.isEmpty()) {
+                injector.stubRules.add(rules);
+            }
+            return this;
+        }
+
+        /**
+         * 创建按规则 Stub 的 Mock 对象。
+         *
+         * @param clazz 类型
+         * @param rules 类型专属规则集（优先于全局规则）
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder mockWithRules(Class<T> clazz, StubRules rules) {
+            injector.checkNotFrozen();
+            injector.forceMockTypes.add(clazz);
+            T mockInstance = injector.createMock(clazz, Collections.singletonList(rules));
+            injector.userInstances.put(clazz, mockInstance);
+            return this;
+        }
+
+        /**
+         * 录制模式：创建真实对象，并将其所有调用录制到文件。
+         * 录制文件在 {@link TestInjector#closeRecordings()} 时完成（JUnit 扩展在测试结束后自动调用）。
+         *
+         * @param clazz 类型
+         * @param fixture 录制文件
+         * @return Builder
+         */
+        public Builder record(Class<?> clazz, Path fixture) {
+            injector.checkNotFrozen();
+            injector.forceRealTypes.add(clazz);
+            injector.recorders.put(clazz, new FixtureRecorder(fixture));
+            return this;
+        }
+
+        /**
+         * 录制模式：包装用户提供的真实对象，并将其所有调用录制到文件。
+         *
+         * @param clazz 类型
+         * @param realInstance 真实对象
+         * @param fixture 录制文件
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder record(Class<T> clazz, T realInstance, Path fixture) {
+            injector.checkNotFrozen();
+            FixtureRecorder recorder = new FixtureRecorder(fixture);
+            injector.recorders.put(clazz, recorder);
+            injector.userInstances.put(clazz, recorder.wrap(clazz, realInstance));
+            return this;
+        }
+
+        /**
+         * 回放模式：使用录制文件回放指定类型的调用结果。
+         *
+         * @param clazz 类型
+         * @param fixture 录制文件
+         * @param <T> 类型参数
+         * @return Builder
+         */
+        public <T> Builder replay(Class<T> clazz, Path fixture) {
+            injector.checkNotFrozen();
+            injector.forceMockTypes.add(clazz);
+            injector.userInstances.put(clazz, FixtureStore.open(fixture).replay(clazz));
+            return this;
+        }
+
+        /**
+         * 添加 Mock 决策策略（可多次调用，规则合并）。
+         * 优先级低于 mock/real 指定的具体类型，高于默认的"接口/抽象类 → Mock"策略。
+         *
+         * @param policy 策略
+         * @return Builder
+         */
+        public Builder policy(MockPolicy policy) {
+            injector.checkNotFrozen();
+            injector.mockPolicy = injector.mockPolicy.and(policy);
+            injector.mockDecisionCache.clear();
+            return this;
+        }
+
+        /**
+         * 开启 Mock 交互统计：之后创建的每个 Mock 按方法统计调用次数与参数基数。
+         *
+         * @return Builder
+         */
+        public Builder profileInteractions() {
+            return profileInteractions(new InteractionProfiler());
+        }
+
+        /**
+         * 开启 Mock 交互统计，使用指定的统计器（可在多个 injector 间共享）。
+         *
+         * @param profiler 交互统计
+         * @return Builder
+         */
+        public Builder profileInteractions(InteractionProfiler profiler) {
+            injector.checkNotFrozen();
+            injector.interactionProfiler = profiler;
+            return this;
+        }
+
+        /**
+         * 设置真实对象构造耗时预算。
+         * 超出预算的类型会被记录（开启 autoMock 时后续解析改为 Mock），预算可在多个 injector 间共享。
+         *
+         * @param budget 构造耗时预算
+         * @return Builder
+         */
+        public Builder constructionBudget(ConstructionBudget budget) {
+            injector.checkNotFrozen();
+            injector.constructionBudget = budget;
+            injector.mockDecisionCache.clear();
+            return this;
+        }
+
+        /**
+         * 启用智能 Mock。
+         *
+         * @return Builder
+         */
+        public Builder enableSmartMock() {
+            injector.checkNotFrozen();
+            injector.smartMockEnabled = true;
+            return this;
+        }
+
+        /**
+         * 启用调试日志。
+         *
          * @return Builder
          */
         public Builder enableDebug() {
+            injector.checkNotFrozen();
             injector.debugEnabled = true;
             return this;
         }
@@ -408,6 +1663,121 @@ public class TestInjector {
         }
     }
 
+    /**
+     * 工作栈中的一帧：待构造的类型、选定的构造器与逐个解析的参数。
+     */
+    private static final class ConstructionFrame {
+
+        private final Class<?> type;
+        private final NodeKind kind;
+        private final PendingInstance pending;
+        private final FixtureRecorder recorder;
+        private final Constructor<?> constructor;
+        private final Class<?>[] parameterTypes;
+        private final Type[] genericTypes;
+        private final Object[] args;
+        private final List<Class<?>> dependencies = new ArrayList<>();
+        private final List<Class<?>> lazyDependencies = new ArrayList<>();
+        private int next;
+        private boolean wrapOptional;
+
+        /**
+         * @param type 待构造的类型
+         * @param kind 依赖图中的创建方式
+         * @param pending 本帧登记的创建中标记，根帧为 null
+         * @param recorder 录制器，不录制时为 null
+         */
+        private ConstructionFrame(Class<?> type, NodeKind kind, PendingInstance pending, FixtureRecorder recorder) {
+            if (!ReflectionUtils.isInstantiable(type)) {
+                throw new InjectionException("Cannot instantiate abstract class or interface: " + type.getName());
+            }
+            this.type = type;
+            this.kind = kind;
+            this.pending = pending;
+            this.recorder = recorder;
+            this.constructor = ReflectionUtils.selectBestConstructor(type);
+            this.parameterTypes = constructor.getParameterTypes();
+            Type[] generic = constructor.getGenericParameterTypes();
+            // 内部类等情况下泛型参数与参数个数不一致，此时按原始类型解析
+            this.genericTypes = generic.length == parameterTypes.length ? generic : null;
+            this.args = new Object[parameterTypes.length];
+        }
+
+        private boolean hasNextParameter() {
+            return next < args.length;
+        }
+
+        /**
+         * 回填构造时解析的依赖，{@code Optional<T>} 参数包装为 Optional.of。
+         */
+        private void accept(Class<?> dependency, Object value) {
+            args[next++] = wrapOptional ? Optional.of(value) : value;
+            wrapOptional = false;
+            dependencies.add(dependency);
+        }
+
+        /**
+         * 回填延迟句柄或空 Optional。
+         */
+        private void acceptLazy(Class<?> dependency, Object handle) {
+            args[next++] = handle;
+            lazyDependencies.add(dependency);
+        }
+    }
+
+    /**
+     * 缓存的 Mock 决策。
+     */
+    private enum MockDecision {
+        MOCK,
+        REAL,
+        /**
+         * 策略规则判定 Mock：作为依赖时 Mock，直接请求时仍创建真实对象（被测对象不会被策略替换）。
+         */
+        POLICY_MOCK,
+        /**
+         * 默认创建真实对象，作为依赖且构造超出预算时改为 Mock。
+         */
+        REAL_UNLESS_SLOW
+    }
+
+    /**
+     * 创建中标记：记录负责创建的线程及创建结果。
+     */
+    private static final class PendingInstance {
+
+        private final Thread owner;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private PendingInstance(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * 冻结后的只读实例快照。
+     * 以 Class 的对象标识查找，构造后不再修改，经 volatile 字段发布后可无锁并发读取，查找不分配对象。
+     * 快照只由注入器持有，不放入 ClassValue：ClassValue 的槽位挂在键类型上，
+     * 快照丢弃后要等该类型下次被访问才清除，冻结过的测试对象图会一直可达。
+     */
+    private static final class FrozenInstances {
+
+        private final Map<Class<?>, Object> resolved;
+
+        private FrozenInstances(Map<Class<?>, Object> resolved) {
+            this.resolved = resolved;
+        }
+
+        private Object lookup(Class<?> type) {
+            Object instance = resolved.get(type);
+            if (instance == null) {
+                throw new IllegalStateException(
+                        "TestInjector is frozen and " + type.getName() + " was not resolved before freeze()");
+            }
+            return instance;
+        }
+    }
+
     /**
      * 类型化 Builder。
      *
@@ -471,6 +1841,162 @@ public class TestInjector {
             return this;
         }
 
+        /**
+         * 创建高并发 Mock 并配置。
+         *
+         * @param clazz 类型
+         * @param configurator 配置器
+         * @param <U> 类型参数
+         * @return TypedBuilder
+         */
+        public <U> TypedBuilder<T> concurrentMockWith(Class<U> clazz, MockConfigurator<U> configurator) {
+            builder.concurrentMockWith(clazz, configurator);
+            return this;
+        }
+
+        /**
+         * 创建按概率注入故障的 Mock 并配置。
+         *
+         * @param clazz 类型
+         * @param faults 故障配置
+         * @param configurator 配置器
+         * @param <U> 类型参数
+         * @return TypedBuilder
+         */
+        public <U> TypedBuilder<T> mockWith(Class<U> clazz, FaultProfile faults, MockConfigurator<U> configurator) {
+            builder.mockWith(clazz, faults, configurator);
+            return this;
+        }
+
+        /**
+         * 为类型注入概率故障。
+         *
+         * @param clazz 类型
+         * @param faults 故障配置
+         * @param <U> 类型参数
+         * @return TypedBuilder
+         */
+        public <U> TypedBuilder<T> faults(Class<U> clazz, FaultProfile faults) {
+            builder.faults(clazz, faults);
+            return this;
+        }
+
+        /**
+         * 添加作用于所有自动创建 Mock 的批量 Stub 规则。
+         *
+         * @param rules 规则集
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> rules(StubRules rules) {
+            builder.rules(rules);
+            return this;
+        }
+
+        /**
+         * 创建按规则 Stub 的 Mock 对象。
+         *
+         * @param clazz 类型
+         * @param rules 规则集
+         * @param <U> 类型参数
+         * @return TypedBuilder
+         */
+        public <U> TypedBuilder<T> mockWithRules(Class<U> clazz, StubRules rules) {
+            builder.mockWithRules(clazz, rules);
+            return this;
+        }
+
+        /**
+         * 录制模式：创建真实对象，并将其所有调用录制到文件。
+         *
+         * @param clazz 类型
+         * @param fixture 录制文件
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> record(Class<?> clazz, Path fixture) {
+            builder.record(clazz, fixture);
+            return this;
+        }
+
+        /**
+         * 回放模式：使用录制文件回放指定类型的调用结果。
+         *
+         * @param clazz 类型
+         * @param fixture 录制文件
+         * @param <U> 类型参数
+         * @return TypedBuilder
+         */
+        public <U> TypedBuilder<T> replay(Class<U> clazz, Path fixture) {
+            builder.replay(clazz, fixture);
+            return this;
+        }
+
+        /**
+         * 添加 Mock 决策策略。
+         *
+         * @param policy 策略
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> policy(MockPolicy policy) {
+            builder.policy(policy);
+            return this;
+        }
+
+        /**
+         * 为类型的所有方法模拟调用延迟。
+         *
+         * @param clazz 类型
+         * @param latency 延迟模型
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> latency(Class<?> clazz, LatencyModel latency) {
+            builder.latency(clazz, latency);
+            return this;
+        }
+
+        /**
+         * 为类型的匹配方法模拟调用延迟。
+         *
+         * @param clazz 类型
+         * @param methods 方法匹配器
+         * @param latency 延迟模型
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> latency(Class<?> clazz, MethodMatcher methods, LatencyModel latency) {
+            builder.latency(clazz, methods, latency);
+            return this;
+        }
+
+        /**
+         * 开启虚拟时间。
+         *
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> enableVirtualTime() {
+            builder.enableVirtualTime();
+            return this;
+        }
+
+        /**
+         * 开启 Mock 交互统计。
+         *
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> profileInteractions() {
+            builder.profileInteractions();
+            return this;
+        }
+
+        /**
+         * 设置真实对象构造耗时预算。
+         *
+         * @param budget 构造耗时预算
+         * @return TypedBuilder
+         */
+        public TypedBuilder<T> constructionBudget(ConstructionBudget budget) {
+            builder.constructionBudget(budget);
+            return this;
+        }
+
         /**
          * 启用智能 Mock。
          *
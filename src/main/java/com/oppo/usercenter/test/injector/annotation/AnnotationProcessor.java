@@ -1,20 +1,36 @@
 package com.oppo.usercenter.test.injector.annotation;
 
 import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.exception.InjectionException;
 import com.oppo.usercenter.test.injector.util.ReflectionUtils;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockSettings;
+import org.mockito.Mockito;
 import org.mockito.Spy;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
 /**
  * 注解处理器。
- * 扫描并处理 @Mock、@Spy、@InjectMocks 注解。
+ * 扫描并处理 @Mock、@Spy、@Captor、@InjectMocks 注解。
+ * 每个注解字段只创建一次实例，同一实例同时用于字段赋值和 injector 注册，
+ * 因此无需再调用 {@code MockitoAnnotations.openMocks}。
+ * 同时负责解析测试方法上标注 {@link Injected} / {@code @Mock} 的参数。
  *
  * @author zhourui(V33215020)
  * @since 2025/10/26
@@ -23,6 +39,11 @@ public class AnnotationProcessor {
 
     private final TestInjector injector;
 
+    /**
+     * 并行创建 @Mock/@Spy 使用的执行器，为 null 时串行处理。
+     */
+    private Executor parallelExecutor;
+
     /**
      * 构造注解处理器。
      *
@@ -32,6 +53,30 @@ public class AnnotationProcessor {
         this.injector = injector;
     }
 
+    /**
+     * 启用并行模式（使用公共 ForkJoinPool）。
+     *
+     * @return AnnotationProcessor
+     */
+    public AnnotationProcessor enableParallel() {
+        return enableParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 启用并行模式。
+     * 相互独立的 @Mock/@Spy 实例并发创建，字段赋值与注册仍按声明顺序进行。
+     *
+     * @param executor 执行器
+     * @return AnnotationProcessor
+     */
+    public AnnotationProcessor enableParallel(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.parallelExecutor = executor;
+        return this;
+    }
+
     /**
      * 处理测试实例的所有注解。
      *
@@ -40,12 +85,21 @@ public class AnnotationProcessor {
     public void processAnnotations(Object testInstance) {
         List<Field> fields = ReflectionUtils.getAllFields(testInstance.getClass());
 
-        // 第一步：处理 @Mock 和 @Spy 注解
+        // 第一步：处理 @Mock、@Spy 和 @Captor 注解
+        if (parallelExecutor != null) {
+            processMocksAndSpiesInParallel(fields, testInstance);
+        } else {
+            for (Field field : fields) {
+                if (field.isAnnotationPresent(Mock.class)) {
+                    processMockAnnotation(field, testInstance);
+                } else if (field.isAnnotationPresent(Spy.class)) {
+                    processSpyAnnotation(field, testInstance);
+                }
+            }
+        }
         for (Field field : fields) {
-            if (field.isAnnotationPresent(Mock.class)) {
-                processMockAnnotation(field, testInstance);
-            } else if (field.isAnnotationPresent(Spy.class)) {
-                processSpyAnnotation(field, testInstance);
+            if (field.isAnnotationPresent(Captor.class)) {
+                processCaptorAnnotation(field, testInstance);
             }
         }
 
@@ -57,6 +111,71 @@ public class AnnotationProcessor {
         }
     }
 
+    /**
+     * 并行处理 @Mock 和 @Spy 注解。
+     * <p>
+     * 独立实例（@Mock 以及字段已有值的 @Spy）并发创建；需要 injector 构造的 @Spy
+     * 可能依赖前面注册的 Mock，因此在所有独立实例注册完成后按声明顺序串行处理。
+     * 字段赋值与注册始终按声明顺序进行，失败时报告声明顺序中的第一个错误，其余错误作为 suppressed 附加。
+     *
+     * @param fields 字段列表
+     * @param testInstance 测试实例
+     */
+    private void processMocksAndSpiesInParallel(List<Field> fields, Object testInstance) {
+        List<Field> independentFields = new ArrayList<>();
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        List<Field> dependentSpyFields = new ArrayList<>();
+
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(Mock.class)) {
+                independentFields.add(field);
+                futures.add(CompletableFuture.supplyAsync(() -> createMock(field), parallelExecutor));
+            } else if (field.isAnnotationPresent(Spy.class)) {
+                Object existingValue = ReflectionUtils.getField(field, testInstance);
+                if (existingValue != null) {
+                    independentFields.add(field);
+                    futures.add(CompletableFuture.supplyAsync(() -> spyExisting(existingValue), parallelExecutor));
+                } else {
+                    dependentSpyFields.add(field);
+                }
+            }
+        }
+
+        // 等待全部完成后再统一赋值，保证错误报告与字段状态确定
+        InjectionException failure = null;
+        List<Object> instances = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                instances.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                Field field = independentFields.get(i);
+                InjectionException error = new InjectionException(
+                        "Failed to create instance for field: " + field.getName() + " ("
+                                + field.getType().getName() + ")", cause);
+                if (failure == null) {
+                    failure = error;
+                } else {
+                    failure.addSuppressed(error);
+                }
+                instances.add(null);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        for (int i = 0; i < independentFields.size(); i++) {
+            Field field = independentFields.get(i);
+            ReflectionUtils.setField(field, testInstance, instances.get(i));
+            registerInstance(field.getType(), instances.get(i));
+        }
+
+        for (Field field : dependentSpyFields) {
+            processSpyAnnotation(field, testInstance);
+        }
+    }
+
     /**
      * 处理 @Mock 注解。
      *
@@ -64,15 +183,116 @@ public class AnnotationProcessor {
      * @param testInstance 测试实例
      */
     private void processMockAnnotation(Field field, Object testInstance) {
-        Class<?> fieldType = field.getType();
-        Object mockInstance = mock(fieldType);
+        Object mockInstance = createMock(field);
 
         // 注入到字段
         ReflectionUtils.setField(field, testInstance, mockInstance);
 
         // 注册到 injector（用于后续依赖注入）
-        injector.getInstance(fieldType); // 确保缓存
-        registerInstance(fieldType, mockInstance);
+        registerInstance(field.getType(), mockInstance);
+    }
+
+    /**
+     * 按 @Mock 注解属性创建 Mock，与 Mockito 注解引擎的行为保持一致。
+     *
+     * @param field 字段
+     * @return Mock 对象
+     */
+    private Object createMock(Field field) {
+        return createMock(field.getAnnotation(Mock.class), field.getType(), field.getName());
+    }
+
+    /**
+     * 按 @Mock 注解属性创建 Mock。
+     *
+     * @param annotation 注解
+     * @param type 类型
+     * @param defaultName 注解未指定名称时使用的名称
+     * @return Mock 对象
+     */
+    private Object createMock(Mock annotation, Class<?> type, String defaultName) {
+        MockSettings settings = injector.mockSettings()
+                .name(annotation.name().isEmpty() ? defaultName : annotation.name())
+                .defaultAnswer(annotation.answer());
+        if (annotation.extraInterfaces().length > 0) {
+            settings.extraInterfaces(annotation.extraInterfaces());
+        }
+        if (annotation.serializable()) {
+            settings.serializable();
+        }
+        if (annotation.stubOnly()) {
+            settings.stubOnly();
+        }
+        if (annotation.lenient()) {
+            settings.lenient();
+        }
+        return Mockito.mock(type, settings);
+    }
+
+    /**
+     * 是否可以解析该方法参数（标注了 {@link Injected} 或 {@code @Mock}）。
+     *
+     * @param parameter 参数
+     * @return true 如果可以解析
+     */
+    public static boolean supportsParameter(Parameter parameter) {
+        return parameter.isAnnotationPresent(Injected.class) || parameter.isAnnotationPresent(Mock.class);
+    }
+
+    /**
+     * 解析方法参数。
+     * {@code @Mock} 参数按注解属性创建 Mock 并注册到 injector；{@link Injected} 参数从 injector 获取实例
+     * （{@code spy = true} 时创建 Spy 并注册），只构建该参数需要的对象图。
+     * 参数在字段注入与前面的参数之后解析：Mock/Spy 参数的类型已被解析或已被其他对象依赖时直接失败，
+     * 否则这些对象仍持有旧实例，测试会对被测对象从不调用的 Mock 打桩。
+     *
+     * @param parameter 参数
+     * @return 参数值
+     */
+    public Object resolveParameter(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        Mock mock = parameter.getAnnotation(Mock.class);
+        if (mock != null) {
+            requireUnresolved(parameter, "@Mock");
+            Object mockInstance = createMock(mock, type, parameter.getName());
+            registerInstance(type, mockInstance);
+            return mockInstance;
+        }
+        Injected injected = parameter.getAnnotation(Injected.class);
+        if (injected == null) {
+            throw new InjectionException("Parameter is not annotated with @Injected or @Mock: " + parameter);
+        }
+        if (injected.spy()) {
+            requireUnresolved(parameter, "@Injected(spy = true)");
+            Object spyInstance = injector.createSpy(type);
+            registerInstance(type, spyInstance);
+            return spyInstance;
+        }
+        return injector.getInstance(type);
+    }
+
+    /**
+     * 检查参数类型尚未被解析，也没有已创建的对象依赖它。
+     *
+     * @param parameter 参数
+     * @param kind 注解描述
+     */
+    private void requireUnresolved(Parameter parameter, String kind) {
+        Class<?> type = parameter.getType();
+        Set<Class<?>> resolved = injector.resolvedDependents(type);
+        if (!resolved.isEmpty()) {
+            throw new InjectionException(kind + " parameter '" + parameter.getName() + "' of type " + type.getName()
+                    + " is resolved after " + names(resolved) + " already received another instance of it. "
+                    + "Declare it as an annotated field, or before the parameters that depend on it");
+        }
+    }
+
+    private static String names(Set<Class<?>> types) {
+        StringBuilder sb = new StringBuilder();
+        for (Class<?> type : types) {
+            sb.append(sb.length() == 0 ? "" : ", ").append(type.getSimpleName());
+        }
+        return sb.toString();
     }
 
     /**
@@ -90,11 +310,10 @@ public class AnnotationProcessor {
 
         if (existingValue != null) {
             // 如果字段已有值，spy 该值
-            spyInstance = spy(existingValue);
+            spyInstance = spyExisting(existingValue);
         } else {
-            // 如果字段为 null，先创建实例再 spy
-            Object realInstance = injector.getInstance(fieldType);
-            spyInstance = spy(realInstance);
+            // 如果字段为 null，由 injector 直接用构造器创建 Spy（构造器只执行一次）
+            spyInstance = injector.createSpy(fieldType);
         }
 
         // 注入到字段
@@ -104,6 +323,44 @@ public class AnnotationProcessor {
         registerInstance(fieldType, spyInstance);
     }
 
+    /**
+     * 对字段已有值创建 Spy；已经是 Mock/Spy 的值直接复用，避免二次包装。
+     *
+     * @param existingValue 字段已有值
+     * @return Spy 对象
+     */
+    private Object spyExisting(Object existingValue) {
+        if (Mockito.mockingDetails(existingValue).isMock()) {
+            return existingValue;
+        }
+        return spy(existingValue);
+    }
+
+    /**
+     * 处理 @Captor 注解。
+     *
+     * @param field 字段
+     * @param testInstance 测试实例
+     */
+    private void processCaptorAnnotation(Field field, Object testInstance) {
+        if (!ArgumentCaptor.class.isAssignableFrom(field.getType())) {
+            throw new InjectionException("@Captor field must be of type ArgumentCaptor: " + field.getName());
+        }
+
+        Class<?> capturedType = Object.class;
+        Type genericType = field.getGenericType();
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                capturedType = (Class<?>) argument;
+            } else if (argument instanceof ParameterizedType) {
+                capturedType = (Class<?>) ((ParameterizedType) argument).getRawType();
+            }
+        }
+
+        ReflectionUtils.setField(field, testInstance, ArgumentCaptor.forClass(capturedType));
+    }
+
     /**
      * 处理 @InjectMocks 注解。
      *
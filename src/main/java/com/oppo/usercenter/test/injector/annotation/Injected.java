@@ -0,0 +1,32 @@
+package com.oppo.usercenter.test.injector.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注测试方法参数，由 {@code TestInjectorExtension} 在调用时从当前测试的 TestInjector 解析。
+ * 与 {@code @InjectMocks} 字段不同，只有声明了该参数的测试方法才会构建对应的对象图：
+ * <pre>
+ * &#64;Test
+ * void should_pay(&#64;Mock PaymentGateway gateway, &#64;Injected OrderService service) { ... }
+ * </pre>
+ * 参数按声明顺序解析，{@code @Mock} 参数先注册到 injector，之后的 {@code @Injected} 参数即可注入它。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Injected {
+
+    /**
+     * 是否以 Spy 形式创建（构造器只执行一次，见 {@code TestInjector.createSpy}）。
+     *
+     * @return true 如果创建 Spy
+     */
+    boolean spy() default false;
+}
@@ -1,19 +1,95 @@
 package com.oppo.usercenter.test.injector.config;
 
+import com.oppo.usercenter.test.injector.fault.FaultProfile;
+import com.oppo.usercenter.test.injector.mock.MethodMatcher;
+import com.oppo.usercenter.test.injector.mock.StubRules;
+import com.oppo.usercenter.test.injector.perf.LatencyModel;
+import com.oppo.usercenter.test.injector.time.TimeoutAnswer;
+import com.oppo.usercenter.test.injector.time.VirtualClock;
+import org.mockito.Mockito;
+
+import java.time.Duration;
 import java.util.*;
 
-import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static com.oppo.usercenter.test.injector.mock.MethodMatcher.nameLike;
+import static com.oppo.usercenter.test.injector.mock.MethodMatcher.returns;
 
 /**
  * 通用 Mock 配置。
  * 提供常用场景的预定义配置。
+ * <p>
+ * 预定义规则集为常量，每个 Mock 类型只编译一次分发表，多个测试之间共享。
  *
  * @author zhourui(V33215020)
  * @since 2025/10/27
  */
 public class CommonMockConfigs {
 
+    /**
+     * 写操作方法名。
+     */
+    private static final String[] WRITE_METHODS = {"save*", "insert*", "update*", "delete*", "remove*"};
+
+    /**
+     * 读操作方法名。
+     */
+    private static final String[] READ_METHODS = {"find*", "select*", "query*", "list*", "load*"};
+
+    /**
+     * 集合、Map、Optional、数组返回空值。
+     */
+    static final StubRules EMPTY_COLLECTION_RULES = StubRules.create()
+            .when(returns(Iterable.class).or(returns(Map.class)).or(returns(Optional.class))
+                    .or(method -> method.getReturnType().isArray()))
+            .thenReturnEmpty();
+
+    /**
+     * boolean 方法返回 true。
+     */
+    static final StubRules ALWAYS_TRUE_RULES = StubRules.create().when(returns(boolean.class)).thenReturn(true);
+
+    /**
+     * boolean 方法返回 false。
+     */
+    static final StubRules ALWAYS_FALSE_RULES = StubRules.create().when(returns(boolean.class)).thenReturn(false);
+
+    /**
+     * 数据库成功场景：写操作返回 true / 影响 1 行，读操作返回非 null 值。
+     */
+    static final StubRules DATABASE_SUCCESS_RULES = StubRules.create()
+            .when(nameLike(WRITE_METHODS)).thenReturn(true)
+            .when(nameLike(WRITE_METHODS)).thenReturn(1)
+            .when(nameLike(WRITE_METHODS)).thenReturn(1L)
+            .when(nameLike(READ_METHODS)).thenAnswer(Mockito.RETURNS_MOCKS);
+
+    /**
+     * 缓存命中场景：读取返回非 null 值，存在性判断返回 true。
+     */
+    static final StubRules CACHE_HIT_RULES = StubRules.create()
+            .when(nameLike("exists*", "contains*", "has*", "isCached*")).thenReturn(true)
+            .when(nameLike("get*", "mget*", "hget*")).thenAnswer(Mockito.RETURNS_MOCKS);
+
+    /**
+     * 数据库失败场景：写操作返回 false / 影响 0 行，读操作返回 null。
+     */
+    static final StubRules DATABASE_FAILURE_RULES = StubRules.create()
+            .when(nameLike(WRITE_METHODS)).thenReturn(false)
+            .when(nameLike(WRITE_METHODS)).thenReturn(0)
+            .when(nameLike(WRITE_METHODS)).thenReturn(0L)
+            .when(nameLike(READ_METHODS)).thenReturn(null);
+
+    /**
+     * 缓存未命中场景：读取返回 null，存在性判断返回 false。
+     */
+    static final StubRules CACHE_MISS_RULES = StubRules.create()
+            .when(nameLike("exists*", "contains*", "has*", "isCached*")).thenReturn(false)
+            .when(nameLike("get*", "mget*", "hget*")).thenReturn(null);
+
+    /**
+     * 默认 HTTP 读超时。
+     */
+    private static final Duration DEFAULT_HTTP_TIMEOUT = Duration.ofSeconds(30);
+
     /**
      * 空配置（什么都不做）。
      *
@@ -52,9 +128,7 @@ public class CommonMockConfigs {
      * @return Mock 配置
      */
     public static <T> MockConfig emptyCollections(Class<T> clazz) {
-        return builder -> builder.mockWith(clazz, mock -> {
-            // 这里需要在运行时动态配置，暂时作为示例
-        });
+        return builder -> builder.mockWithRules(clazz, EMPTY_COLLECTION_RULES);
     }
 
     /**
@@ -65,10 +139,7 @@ public class CommonMockConfigs {
      * @return Mock 配置
      */
     public static <T> MockConfig alwaysTrue(Class<T> clazz) {
-        return builder -> builder.mockWith(clazz, mock -> {
-            // 配置所有返回 boolean 的方法返回 true
-            // 注意：这是一个简化示例，实际需要更复杂的实现
-        });
+        return builder -> builder.mockWithRules(clazz, ALWAYS_TRUE_RULES);
     }
 
     /**
@@ -79,9 +150,44 @@ public class CommonMockConfigs {
      * @return Mock 配置
      */
     public static <T> MockConfig alwaysFalse(Class<T> clazz) {
-        return builder -> builder.mockWith(clazz, mock -> {
-            // 配置所有返回 boolean 的方法返回 false
-        });
+        return builder -> builder.mockWithRules(clazz, ALWAYS_FALSE_RULES);
+    }
+
+    /**
+     * 按自定义规则 Stub 指定类型。
+     * 规则集建议声明为常量，以便在测试之间复用编译结果。
+     *
+     * @param clazz Mock 类型
+     * @param rules 规则集
+     * @param <T> 类型参数
+     * @return Mock 配置
+     */
+    public static <T> MockConfig rules(Class<T> clazz, StubRules rules) {
+        return builder -> builder.mockWithRules(clazz, rules);
+    }
+
+    /**
+     * 调用延迟配置 - 为指定类型的所有方法模拟延迟。
+     * 需在创建该类型 Mock 的配置（mockWith/rules 等）之前应用。
+     *
+     * @param clazz Mock 类型
+     * @param latency 延迟模型
+     * @return Mock 配置
+     */
+    public static MockConfig latency(Class<?> clazz, LatencyModel latency) {
+        return builder -> builder.latency(clazz, latency);
+    }
+
+    /**
+     * 调用延迟配置 - 为指定类型的匹配方法模拟延迟。
+     *
+     * @param clazz Mock 类型
+     * @param methods 方法匹配器
+     * @param latency 延迟模型
+     * @return Mock 配置
+     */
+    public static MockConfig latency(Class<?> clazz, MethodMatcher methods, LatencyModel latency) {
+        return builder -> builder.latency(clazz, methods, latency);
     }
 
     /**
@@ -100,30 +206,59 @@ public class CommonMockConfigs {
 
     /**
      * 数据库操作配置 - 标准成功场景。
-     * 适用于 DAO/Repository 层的 Mock。
+     * 适用于 DAO/Repository 层的 Mock，作用于所有自动创建的 Mock：
+     * save/insert/update/delete/remove 返回 true（int/long 返回 1），
+     * find/select/query/list/load 返回非 null 对象（空集合、空 Optional 或嵌套 Mock）。
      *
      * @return Mock 配置
      */
     public static MockConfig databaseSuccess() {
-        return builder -> {
-            // 通用的数据库成功场景配置
-            // save/update/delete 返回 true
-            // find/select 返回非 null 对象
-        };
+        return builder -> builder.rules(DATABASE_SUCCESS_RULES);
+    }
+
+    /**
+     * 数据库操作配置 - 标准成功场景，仅作用于指定类型。
+     *
+     * @param clazz Mock 类型
+     * @param <T> 类型参数
+     * @return Mock 配置
+     */
+    public static <T> MockConfig databaseSuccess(Class<T> clazz) {
+        return builder -> builder.mockWithRules(clazz, DATABASE_SUCCESS_RULES);
     }
 
     /**
      * 数据库操作配置 - 标准失败场景。
-     * 适用于测试异常情况。
+     * 适用于测试异常情况，作用于所有自动创建的 Mock：
+     * save/insert/update/delete/remove 返回 false（int/long 返回 0），find/select/query/list/load 返回 null。
      *
      * @return Mock 配置
      */
     public static MockConfig databaseFailure() {
-        return builder -> {
-            // 通用的数据库失败场景配置
-            // save/update/delete 返回 false
-            // find/select 返回 null
-        };
+        return builder -> builder.rules(DATABASE_FAILURE_RULES);
+    }
+
+    /**
+     * 数据库操作配置 - 标准失败场景，仅作用于指定类型。
+     *
+     * @param clazz Mock 类型
+     * @param <T> 类型参数
+     * @return Mock 配置
+     */
+    public static <T> MockConfig databaseFailure(Class<T> clazz) {
+        return builder -> builder.mockWithRules(clazz, DATABASE_FAILURE_RULES);
+    }
+
+    /**
+     * 概率故障配置 - 按比例注入异常、超时与 null 返回值，用于覆盖重试、熔断与降级路径。
+     *
+     * @param clazz Mock 类型
+     * @param faults 故障配置
+     * @param <T> 类型参数
+     * @return Mock 配置
+     */
+    public static <T> MockConfig faults(Class<T> clazz, FaultProfile faults) {
+        return builder -> builder.faults(clazz, faults);
     }
 
     /**
@@ -142,38 +277,77 @@ public class CommonMockConfigs {
 
     /**
      * HTTP 服务配置 - 超时场景。
-     * 适用于测试超时处理。
+     * 适用于测试超时处理：开启虚拟时间，所有自动创建 Mock 中声明了 IOException（或 SocketTimeoutException）的方法
+     * 推进虚拟时钟 30 秒后抛出 SocketTimeoutException，不产生真实等待。
      *
      * @return Mock 配置
      */
     public static MockConfig httpTimeout() {
         return builder -> {
-            // 模拟 HTTP 超时
-            // 抛出超时异常
+            VirtualClock clock = builder.enableVirtualTime().buildInjector().getVirtualClock();
+            builder.rules(StubRules.create()
+                    .when(TimeoutAnswer::declaresTimeout)
+                    .thenAnswer(new TimeoutAnswer(clock, DEFAULT_HTTP_TIMEOUT)));
         };
     }
 
     /**
-     * 缓存配置 - 命中场景。
+     * HTTP 服务配置 - 超时场景，仅作用于指定类型。
+     * 该类型的所有方法推进虚拟时钟后抛出 SocketTimeoutException（方法未声明时包装为 UncheckedIOException）。
      *
+     * @param clazz Mock 类型
+     * @param timeout 超时时长
+     * @param <T> 类型参数
      * @return Mock 配置
      */
-    public static MockConfig cacheHit() {
+    public static <T> MockConfig httpTimeout(Class<T> clazz, Duration timeout) {
         return builder -> {
-            // 缓存命中配置
-            // get 返回非 null 值
+            VirtualClock clock = builder.enableVirtualTime().buildInjector().getVirtualClock();
+            builder.mockWithRules(clazz, StubRules.create()
+                    .when(method -> method.getDeclaringClass() != Object.class)
+                    .thenAnswer(new TimeoutAnswer(clock, timeout)));
         };
     }
 
+    /**
+     * 缓存配置 - 命中场景。
+     * 作用于所有自动创建的 Mock：get 返回非 null 值，exists/contains/has 返回 true。
+     *
+     * @return Mock 配置
+     */
+    public static MockConfig cacheHit() {
+        return builder -> builder.rules(CACHE_HIT_RULES);
+    }
+
+    /**
+     * 缓存配置 - 命中场景，仅作用于指定类型。
+     *
+     * @param clazz Mock 类型
+     * @param <T> 类型参数
+     * @return Mock 配置
+     */
+    public static <T> MockConfig cacheHit(Class<T> clazz) {
+        return builder -> builder.mockWithRules(clazz, CACHE_HIT_RULES);
+    }
+
     /**
      * 缓存配置 - 未命中场景。
+     * 作用于所有自动创建的 Mock：get 返回 null，exists/contains/has 返回 false。
      *
      * @return Mock 配置
      */
     public static MockConfig cacheMiss() {
-        return builder -> {
-            // 缓存未命中配置
-            // get 返回 null
-        };
+        return builder -> builder.rules(CACHE_MISS_RULES);
+    }
+
+    /**
+     * 缓存配置 - 未命中场景，仅作用于指定类型。
+     *
+     * @param clazz Mock 类型
+     * @param <T> 类型参数
+     * @return Mock 配置
+     */
+    public static <T> MockConfig cacheMiss(Class<T> clazz) {
+        return builder -> builder.mockWithRules(clazz, CACHE_MISS_RULES);
     }
 }
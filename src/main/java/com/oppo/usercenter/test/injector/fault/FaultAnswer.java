@@ -0,0 +1,191 @@
+package com.oppo.usercenter.test.injector.fault;
+
+import com.oppo.usercenter.test.injector.time.TimeoutAnswer;
+import com.oppo.usercenter.test.injector.time.VirtualClock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 按 {@link FaultProfile} 注入故障的 Answer。
+ * 每个方法使用第一个匹配的配置（按方法缓存），未注入故障的调用交给原 Answer。
+ * 持有调用序号与注入统计，线程安全。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class FaultAnswer implements Answer<Object> {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final ProfileAnswers NONE = new ProfileAnswers(null, null);
+
+    private final List<FaultProfile> profiles;
+    private final Answer<?> delegate;
+    private final VirtualClock clock;
+    private final Map<Method, ProfileAnswers> byMethod = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder injectedTimeouts = new LongAdder();
+    private final LongAdder injectedNulls = new LongAdder();
+
+    /**
+     * 创建故障 Answer。
+     *
+     * @param profiles 故障配置，按顺序匹配方法
+     * @param delegate 未注入故障时的 Answer
+     * @param clock 超时推进的虚拟时钟，可为 null
+     */
+    public FaultAnswer(List<FaultProfile> profiles, Answer<?> delegate, VirtualClock clock) {
+        this.profiles = new ArrayList<>(profiles);
+        this.delegate = delegate;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取 Mock 的故障 Answer。
+     *
+     * @param mock Mock 对象
+     * @return 故障 Answer，不是故障 Mock 时返回 null
+     */
+    public static FaultAnswer of(Object mock) {
+        if (mock == null || !Mockito.mockingDetails(mock).isMock()) {
+            return null;
+        }
+        Answer<?> answer = Mockito.mockingDetails(mock).getMockCreationSettings().getDefaultAnswer();
+        return answer instanceof FaultAnswer ? (FaultAnswer) answer : null;
+    }
+
+    @Override
+    public Object answer(InvocationOnMock invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        ProfileAnswers answers = byMethod.get(method);
+        if (answers == null) {
+            answers = byMethod.computeIfAbsent(method, this::match);
+        }
+        FaultProfile profile = answers.profile;
+        if (profile == null) {
+            return delegate.answer(invocation);
+        }
+        long random = mix(profile.getSeed() + sequence.getAndIncrement() * GOLDEN_GAMMA);
+        double draw = (random >>> 11) * 0x1.0p-53;
+
+        double threshold = profile.getErrorRate();
+        if (draw < threshold) {
+            injectedErrors.increment();
+            List<Supplier<Throwable>> errors = profile.getErrors();
+            int index = (int) ((random & 0xFFFFFFFFL) % errors.size());
+            throw adapt(errors.get(index).get(), method);
+        }
+        threshold += profile.getTimeoutRate();
+        if (draw < threshold) {
+            injectedTimeouts.increment();
+            return answers.timeout.answer(invocation);
+        }
+        threshold += profile.getNullRate();
+        if (draw < threshold && !method.getReturnType().isPrimitive()) {
+            injectedNulls.increment();
+            return null;
+        }
+        return delegate.answer(invocation);
+    }
+
+    /**
+     * 已注入的异常次数。
+     *
+     * @return 次数
+     */
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    /**
+     * 已注入的超时次数。
+     *
+     * @return 次数
+     */
+    public long getInjectedTimeouts() {
+        return injectedTimeouts.sum();
+    }
+
+    /**
+     * 已注入的 null 返回次数。
+     *
+     * @return 次数
+     */
+    public long getInjectedNulls() {
+        return injectedNulls.sum();
+    }
+
+    /**
+     * 经过故障判定的调用次数。
+     *
+     * @return 次数
+     */
+    public long getCalls() {
+        return sequence.get();
+    }
+
+    private ProfileAnswers match(Method method) {
+        for (FaultProfile profile : profiles) {
+            if (profile.appliesTo(method)) {
+                TimeoutAnswer timeout = profile.hasTimeouts() ? new TimeoutAnswer(clock, profile.getTimeout()) : null;
+                return new ProfileAnswers(profile, timeout);
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * 方法未声明的受检异常无法直接抛出，按 JDK 动态代理的约定包装。
+     */
+    private static Throwable adapt(Throwable fault, Method method) {
+        if (fault instanceof RuntimeException || fault instanceof Error) {
+            return fault;
+        }
+        for (Class<?> declared : method.getExceptionTypes()) {
+            if (declared.isInstance(fault)) {
+                return fault;
+            }
+        }
+        if (fault instanceof IOException) {
+            return new UncheckedIOException((IOException) fault);
+        }
+        return new UndeclaredThrowableException(fault);
+    }
+
+    /**
+     * SplitMix64 混合函数。
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 方法对应的故障配置与超时 Answer。
+     */
+    private static final class ProfileAnswers {
+
+        private final FaultProfile profile;
+        private final TimeoutAnswer timeout;
+
+        private ProfileAnswers(FaultProfile profile, TimeoutAnswer timeout) {
+            this.profile = profile;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.oppo.usercenter.test.injector.fault;
+
+import com.oppo.usercenter.test.injector.mock.MethodMatcher;
+import com.oppo.usercenter.test.injector.time.VirtualClock;
+import org.mockito.stubbing.Answer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 概率故障配置。
+ * 按比例为 Mock 调用注入异常、超时与 null 返回值，用于在大量调用下覆盖被测对象的重试、熔断与降级路径：
+ * <pre>
+ * FaultProfile profile = FaultProfile.create()
+ *         .errorRate(0.05, IOException.class, IllegalStateException.class)
+ *         .timeoutRate(0.01, Duration.ofSeconds(3))
+ *         .nullRate(0.10)
+ *         .forMethods(nameLike("get*"))
+ *         .seed(42);
+ * </pre>
+ * 每次调用抽取一个随机数依次落入异常、超时、null 区间，其余调用交给原 Answer；比例之和不能超过 1。
+ * 随机数由种子与调用序号经 SplitMix64 计算，单线程下故障序列完全可复现，多线程下无锁竞争。
+ * <p>
+ * 配置不可变，可声明为常量在测试之间共享；调用序号与统计由 {@link FaultAnswer} 持有。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class FaultProfile {
+
+    private static final FaultProfile NONE = new FaultProfile(0.0, Collections.<Supplier<Throwable>>emptyList(),
+            0.0, Duration.ZERO, 0.0, null, 20261018L);
+
+    private final double errorRate;
+    private final List<Supplier<Throwable>> errors;
+    private final double timeoutRate;
+    private final Duration timeout;
+    private final double nullRate;
+    private final MethodMatcher methods;
+    private final long seed;
+
+    private FaultProfile(double errorRate, List<Supplier<Throwable>> errors, double timeoutRate, Duration timeout,
+                         double nullRate, MethodMatcher methods, long seed) {
+        if (errorRate + timeoutRate + nullRate > 1.0 + 1e-9) {
+            throw new IllegalArgumentException("Fault rates add up to more than 1: error=" + errorRate
+                    + ", timeout=" + timeoutRate + ", null=" + nullRate);
+        }
+        this.errorRate = errorRate;
+        this.errors = errors;
+        this.timeoutRate = timeoutRate;
+        this.timeout = timeout;
+        this.nullRate = nullRate;
+        this.methods = methods;
+        this.seed = seed;
+    }
+
+    /**
+     * 创建不注入任何故障的配置。
+     *
+     * @return 故障配置
+     */
+    public static FaultProfile create() {
+        return NONE;
+    }
+
+    /**
+     * 按比例抛出异常，每次从给定类型中随机选择一个实例化（优先使用 String 构造器）。
+     * 受检异常未被方法声明时，IOException 包装为 UncheckedIOException，其他包装为 UndeclaredThrowableException。
+     *
+     * @param rate 比例，取值 [0, 1]
+     * @param types 异常类型
+     * @return 新的故障配置
+     */
+    @SafeVarargs
+    public final FaultProfile errorRate(double rate, Class<? extends Throwable>... types) {
+        if (types.length == 0) {
+            throw new IllegalArgumentException("At least one exception type is required");
+        }
+        List<Supplier<Throwable>> suppliers = new ArrayList<>(types.length);
+        for (Class<? extends Throwable> type : types) {
+            suppliers.add(instantiator(type));
+        }
+        return new FaultProfile(requireRate(rate), Collections.unmodifiableList(suppliers),
+                timeoutRate, timeout, nullRate, methods, seed);
+    }
+
+    /**
+     * 按比例抛出由工厂创建的异常。
+     *
+     * @param rate 比例，取值 [0, 1]
+     * @param factory 异常工厂
+     * @return 新的故障配置
+     */
+    public FaultProfile errorRate(double rate, Supplier<? extends Throwable> factory) {
+        Supplier<Throwable> supplier = factory::get;
+        return new FaultProfile(requireRate(rate), Collections.singletonList(supplier),
+                timeoutRate, timeout, nullRate, methods, seed);
+    }
+
+    /**
+     * 按比例模拟超时：推进虚拟时钟后抛出 SocketTimeoutException（见 {@code TimeoutAnswer}）。
+     *
+     * @param rate 比例，取值 [0, 1]
+     * @param timeout 超时时长
+     * @return 新的故障配置
+     */
+    public FaultProfile timeoutRate(double rate, Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+        }
+        return new FaultProfile(errorRate, errors, requireRate(rate), timeout, nullRate, methods, seed);
+    }
+
+    /**
+     * 按比例返回 null（基本类型与 void 方法不受影响）。
+     *
+     * @param rate 比例，取值 [0, 1]
+     * @return 新的故障配置
+     */
+    public FaultProfile nullRate(double rate) {
+        return new FaultProfile(errorRate, errors, timeoutRate, timeout, requireRate(rate), methods, seed);
+    }
+
+    /**
+     * 只对匹配的方法注入故障，默认为除 Object 方法外的所有方法。
+     *
+     * @param methods 方法匹配器
+     * @return 新的故障配置
+     */
+    public FaultProfile forMethods(MethodMatcher methods) {
+        return new FaultProfile(errorRate, errors, timeoutRate, timeout, nullRate, methods, seed);
+    }
+
+    /**
+     * 随机种子，相同种子与调用顺序产生相同的故障序列。
+     *
+     * @param seed 种子
+     * @return 新的故障配置
+     */
+    public FaultProfile seed(long seed) {
+        return new FaultProfile(errorRate, errors, timeoutRate, timeout, nullRate, methods, seed);
+    }
+
+    /**
+     * 创建注入故障的 Answer。
+     *
+     * @param delegate 未注入故障时的 Answer
+     * @param clock 超时推进的虚拟时钟，可为 null
+     * @return Answer
+     */
+    public FaultAnswer toAnswer(Answer<?> delegate, VirtualClock clock) {
+        return new FaultAnswer(Collections.singletonList(this), delegate, clock);
+    }
+
+    boolean appliesTo(Method method) {
+        return method.getDeclaringClass() != Object.class && (methods == null || methods.matches(method));
+    }
+
+    /**
+     * 是否会注入超时（用于决定是否开启虚拟时间）。
+     *
+     * @return true 如果超时比例大于 0
+     */
+    public boolean hasTimeouts() {
+        return timeoutRate > 0;
+    }
+
+    double getErrorRate() {
+        return errorRate;
+    }
+
+    List<Supplier<Throwable>> getErrors() {
+        return errors;
+    }
+
+    double getTimeoutRate() {
+        return timeoutRate;
+    }
+
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    double getNullRate() {
+        return nullRate;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "FaultProfile{error=" + errorRate + ", timeout=" + timeoutRate + "/" + timeout
+                + ", null=" + nullRate + ", seed=" + seed + "}";
+    }
+
+    private static double requireRate(double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("Rate must be within [0, 1]: " + rate);
+        }
+        return rate;
+    }
+
+    private static Supplier<Throwable> instantiator(Class<? extends Throwable> type) {
+        String message = "Injected fault: " + type.getSimpleName();
+        try {
+            Constructor<? extends Throwable> withMessage = type.getConstructor(String.class);
+            return () -> newInstance(withMessage, message);
+        } catch (NoSuchMethodException e) {
+            try {
+                Constructor<? extends Throwable> noArg = type.getConstructor();
+                return () -> newInstance(noArg);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalArgumentException("Exception type needs a public (String) or () constructor: "
+                        + type.getName(), ex);
+            }
+        }
+    }
+
+    private static Throwable newInstance(Constructor<? extends Throwable> constructor, Object... args) {
+        try {
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create injected fault: " + constructor.getName(), e);
+        }
+    }
+}
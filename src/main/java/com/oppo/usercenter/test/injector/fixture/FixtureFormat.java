@@ -0,0 +1,138 @@
+package com.oppo.usercenter.test.injector.fixture;
+
+import java.io.*;
+import java.lang.reflect.Method;
+
+/**
+ * 录制文件格式与键编码。
+ * <pre>
+ * 文件头（32 字节）：magic(int) version(int) entryCount(int) indexCapacity(int) indexOffset(long) reserved(long)
+ * 记录区：[keyLength(int) key(bytes) kind(byte) valueLength(int) value(bytes)]*
+ * 索引区：indexCapacity 个槽位，每个槽位 hash(long) + recordOffset(long)，recordOffset 为 0 表示空槽
+ * </pre>
+ * 索引为开放寻址哈希表（线性探测），容量为 2 的幂且负载不超过 0.5。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+final class FixtureFormat {
+
+    static final int MAGIC = 0x54494658;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int SLOT_SIZE = 16;
+
+    static final byte KIND_RETURN = 0;
+    static final byte KIND_THROW = 1;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private FixtureFormat() {
+    }
+
+    /**
+     * 编码调用键：类型名 + 方法签名 + 序列化参数。
+     *
+     * @param type Mock 类型
+     * @param method 方法
+     * @param args 参数
+     * @return 键
+     * @throws NotSerializableException 参数不可序列化
+     */
+    static byte[] encodeKey(Class<?> type, Method method, Object[] args) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeUTF(type.getName());
+            out.writeUTF(signature(method));
+            out.writeInt(args == null ? 0 : args.length);
+            if (args != null) {
+                for (Object arg : args) {
+                    out.writeObject(arg);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 序列化返回值或异常。
+     *
+     * @param value 值
+     * @return 字节
+     * @throws IOException 不可序列化
+     */
+    static byte[] encodeValue(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 反序列化值，优先使用线程上下文类加载器。
+     *
+     * @param bytes 字节
+     * @return 值
+     */
+    static Object decodeValue(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                ClassLoader loader = Thread.currentThread().getContextClassLoader();
+                if (loader != null) {
+                    try {
+                        return Class.forName(desc.getName(), false, loader);
+                    } catch (ClassNotFoundException e) {
+                        // 回退到默认解析
+                    }
+                }
+                return super.resolveClass(desc);
+            }
+        }) {
+            return in.readObject();
+        }
+    }
+
+    /**
+     * 64 位 FNV-1a 哈希。
+     *
+     * @param bytes 字节
+     * @return 哈希值
+     */
+    static long hash(byte[] bytes) {
+        long hash = FNV_OFFSET;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 索引容量：不小于 2 * entryCount 的 2 的幂。
+     *
+     * @param entryCount 记录数
+     * @return 容量
+     */
+    static int indexCapacity(int entryCount) {
+        int capacity = 16;
+        while (capacity < entryCount * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static String signature(Method method) {
+        StringBuilder sb = new StringBuilder(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(parameterTypes[i].getName());
+        }
+        return sb.append(')').toString();
+    }
+}
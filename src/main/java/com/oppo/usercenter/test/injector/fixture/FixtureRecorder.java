@@ -0,0 +1,225 @@
+package com.oppo.usercenter.test.injector.fixture;
+
+import com.oppo.usercenter.test.injector.exception.InjectionException;
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 真实依赖调用录制器。
+ * 包装真实对象，将方法/参数/返回值（或异常）以紧凑二进制格式追加写入录制文件，
+ * {@link #close()} 时写入哈希索引，供 {@link FixtureStore} 通过内存映射回放。
+ * <p>
+ * 记录边录边写入磁盘，内存中只保留 hash → offset；同一调用录制多次时以最后一次为准。
+ * 参数或返回值不可序列化的调用不会被录制（仅输出告警），真实调用结果照常返回。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class FixtureRecorder implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureRecorder.class);
+
+    private final Path file;
+    private final DataOutputStream out;
+    private final Map<Long, Long> index = new LinkedHashMap<>();
+    private long position = FixtureFormat.HEADER_SIZE;
+    private boolean closed = false;
+
+    /**
+     * 创建录制器（覆盖已有文件）。
+     *
+     * @param file 录制文件
+     */
+    public FixtureRecorder(Path file) {
+        this.file = file;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+            out.write(new byte[FixtureFormat.HEADER_SIZE]);
+        } catch (IOException e) {
+            throw new InjectionException("Failed to create fixture file: " + file, e);
+        }
+    }
+
+    /**
+     * 包装真实对象，所有调用委托给真实对象并被录制。
+     *
+     * @param type 类型
+     * @param real 真实对象
+     * @param <T> 类型参数
+     * @return 录制代理
+     */
+    public <T> T wrap(Class<T> type, T real) {
+        return Mockito.mock(type, Mockito.withSettings()
+                .name("recording " + type.getSimpleName())
+                .defaultAnswer(new RecordingAnswer(type, real)));
+    }
+
+    /**
+     * 录制一次调用。
+     *
+     * @param type 类型
+     * @param method 方法
+     * @param args 参数
+     * @param result 返回值
+     * @param thrown 抛出的异常，正常返回时为 null
+     */
+    public void record(Class<?> type, Method method, Object[] args, Object result, Throwable thrown) {
+        byte[] key;
+        byte[] value;
+        try {
+            key = FixtureFormat.encodeKey(type, method, args);
+            value = FixtureFormat.encodeValue(thrown != null ? thrown : result);
+        } catch (IOException e) {
+            logger.warn("Skip recording {}.{}: {}", type.getSimpleName(), method.getName(), e.toString());
+            return;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                logger.warn("Fixture {} already closed, skip recording {}.{}", file, type.getSimpleName(),
+                        method.getName());
+                return;
+            }
+            try {
+                long offset = position;
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeByte(thrown != null ? FixtureFormat.KIND_THROW : FixtureFormat.KIND_RETURN);
+                out.writeInt(value.length);
+                out.write(value);
+                position += 4L + key.length + 1 + 4 + value.length;
+                long hash = FixtureFormat.hash(key);
+                index.remove(hash);
+                index.put(hash, offset);
+            } catch (IOException e) {
+                throw new InjectionException("Failed to write fixture: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * 已录制的不同调用数。
+     *
+     * @return 调用数
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * 写入索引与文件头并关闭文件。重复调用无副作用。
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        int capacity = FixtureFormat.indexCapacity(index.size());
+        long indexOffset = position;
+        try {
+            long[] slots = new long[capacity * 2];
+            int mask = capacity - 1;
+            for (Map.Entry<Long, Long> entry : index.entrySet()) {
+                int slot = (int) (entry.getKey() & mask);
+                while (slots[slot * 2 + 1] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot * 2] = entry.getKey();
+                slots[slot * 2 + 1] = entry.getValue();
+            }
+            for (long slot : slots) {
+                out.writeLong(slot);
+            }
+            out.close();
+
+            ByteBuffer header = ByteBuffer.allocate(FixtureFormat.HEADER_SIZE);
+            header.putInt(FixtureFormat.MAGIC)
+                    .putInt(FixtureFormat.VERSION)
+                    .putInt(index.size())
+                    .putInt(capacity)
+                    .putLong(indexOffset)
+                    .putLong(0L);
+            header.flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+            }
+        } catch (IOException e) {
+            throw new InjectionException("Failed to finish fixture: " + file, e);
+        }
+        FixtureStore.evict(file);
+    }
+
+    /**
+     * 获取未展开可变参数的原始参数（与 {@link Method#invoke} 一致）。
+     *
+     * @param invocation 调用
+     * @return 原始参数
+     */
+    static Object[] rawArguments(InvocationOnMock invocation) {
+        if (invocation instanceof Invocation) {
+            return ((Invocation) invocation).getRawArguments();
+        }
+        return invocation.getArguments();
+    }
+
+    /**
+     * 委托真实对象并录制结果的 Answer。
+     */
+    private class RecordingAnswer implements Answer<Object> {
+
+        private final Class<?> type;
+        private final Object real;
+
+        private RecordingAnswer(Class<?> type, Object real) {
+            this.type = type;
+            this.real = real;
+        }
+
+        @Override
+        public Object answer(InvocationOnMock invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            Object[] args = rawArguments(invocation);
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeReal(method, args);
+            }
+            Object result;
+            try {
+                result = invokeReal(method, args);
+            } catch (Throwable t) {
+                record(type, method, args, null, t);
+                throw t;
+            }
+            record(type, method, args, result, null);
+            return result;
+        }
+
+        private Object invokeReal(Method method, Object[] args) throws Throwable {
+            try {
+                method.setAccessible(true);
+                return method.invoke(real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.oppo.usercenter.test.injector.fixture;
+
+import com.oppo.usercenter.test.injector.exception.InjectionException;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 录制文件回放存储。
+ * 以只读内存映射方式打开 {@link FixtureRecorder} 生成的文件，按哈希索引查找调用，
+ * 仅在命中时反序列化返回值，因此数百 MB 的录制文件也能即时加载且不占用堆内存。
+ * <p>
+ * 同一文件在 JVM 内只映射一次并在测试之间共享；单个文件大小上限为 2GB。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class FixtureStore {
+
+    private static final Map<Path, FixtureStore> OPEN_STORES = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int entryCount;
+    private final int indexCapacity;
+    private final int indexOffset;
+
+    private FixtureStore(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new InjectionException("Fixture file larger than 2GB is not supported: " + file);
+            }
+            if (size < FixtureFormat.HEADER_SIZE) {
+                throw new InjectionException("Invalid fixture file: " + file);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (buffer.getInt(0) != FixtureFormat.MAGIC || buffer.getInt(4) != FixtureFormat.VERSION) {
+            throw new InjectionException("Invalid fixture file (bad header or unfinished recording): " + file);
+        }
+        this.entryCount = buffer.getInt(8);
+        this.indexCapacity = buffer.getInt(12);
+        this.indexOffset = (int) buffer.getLong(16);
+    }
+
+    /**
+     * 打开录制文件（JVM 内共享）。
+     *
+     * @param file 录制文件
+     * @return 回放存储
+     */
+    public static FixtureStore open(Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        return OPEN_STORES.computeIfAbsent(key, path -> {
+            if (!Files.isRegularFile(path)) {
+                throw new InjectionException("Fixture file not found: " + path);
+            }
+            try {
+                return new FixtureStore(path);
+            } catch (IOException e) {
+                throw new InjectionException("Failed to open fixture file: " + path, e);
+            }
+        });
+    }
+
+    /**
+     * 文件被重新录制后移除共享缓存。
+     *
+     * @param file 录制文件
+     */
+    static void evict(Path file) {
+        OPEN_STORES.remove(file.toAbsolutePath().normalize());
+    }
+
+    /**
+     * 录制的调用数。
+     *
+     * @return 调用数
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * 创建回放 Mock：已录制的调用返回录制结果（或重新抛出录制的异常），未录制的调用抛出 IllegalStateException。
+     *
+     * @param type 类型
+     * @param <T> 类型参数
+     * @return 回放 Mock
+     */
+    public <T> T replay(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings()
+                .name("replaying " + type.getSimpleName())
+                .defaultAnswer(new ReplayAnswer(type)));
+    }
+
+    /**
+     * 查找调用结果。
+     *
+     * @param type 类型
+     * @param method 方法
+     * @param args 原始参数
+     * @return 录制结果，未录制返回 null
+     */
+    Recorded lookup(Class<?> type, Method method, Object[] args) throws IOException, ClassNotFoundException {
+        byte[] key = FixtureFormat.encodeKey(type, method, args);
+        long hash = FixtureFormat.hash(key);
+        int mask = indexCapacity - 1;
+        int slot = (int) (hash & mask);
+        for (int probes = 0; probes < indexCapacity; probes++) {
+            int slotPosition = indexOffset + slot * FixtureFormat.SLOT_SIZE;
+            long recordOffset = buffer.getLong(slotPosition + 8);
+            if (recordOffset == 0) {
+                return null;
+            }
+            if (buffer.getLong(slotPosition) == hash && keyEquals((int) recordOffset, key)) {
+                return readRecord((int) recordOffset, key.length);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private boolean keyEquals(int recordOffset, byte[] key) {
+        if (buffer.getInt(recordOffset) != key.length) {
+            return false;
+        }
+        int start = recordOffset + 4;
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Recorded readRecord(int recordOffset, int keyLength) throws IOException, ClassNotFoundException {
+        int kindPosition = recordOffset + 4 + keyLength;
+        byte kind = buffer.get(kindPosition);
+        int valueLength = buffer.getInt(kindPosition + 1);
+        byte[] value = new byte[valueLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(kindPosition + 5);
+        view.get(value);
+        return new Recorded(kind == FixtureFormat.KIND_THROW, FixtureFormat.decodeValue(value));
+    }
+
+    /**
+     * 录制结果。
+     */
+    static final class Recorded {
+
+        private final boolean thrown;
+        private final Object value;
+
+        private Recorded(boolean thrown, Object value) {
+            this.thrown = thrown;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 从录制文件回放的 Answer。
+     */
+    private class ReplayAnswer implements Answer<Object> {
+
+        private final Class<?> type;
+
+        private ReplayAnswer(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object answer(InvocationOnMock invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            Object[] args = FixtureRecorder.rawArguments(invocation);
+            if (method.getDeclaringClass() == Object.class) {
+                return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+            Recorded recorded = lookup(type, method, args);
+            if (recorded == null) {
+                throw new IllegalStateException("No recorded response in " + file + " for "
+                        + type.getSimpleName() + "." + method.getName() + Arrays.toString(args));
+            }
+            if (recorded.thrown) {
+                throw ((Throwable) recorded.value).fillInStackTrace();
+            }
+            return recorded.value;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.oppo.usercenter.test.injector.graph;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 从某个根类型出发的已解析依赖图。
+ * 每个节点带有创建方式（Mock / 真实对象 / 用户实例等）、自身耗时与子树耗时，
+ * 用于找出让测试变慢的分支并决定 Mock 哪些类型：
+ * <pre>
+ * DependencyGraph graph = injector.dependencyGraph(OrderService.class);
+ * Files.write(Paths.get("target/order-graph.dot"), graph.toDot().getBytes(StandardCharsets.UTF_8));
+ * graph.getSubtreeNanos(PaymentGateway.class);
+ * </pre>
+ * 子树耗时是从该节点沿构造依赖可达的所有节点自身耗时之和，共享依赖在同一子树内只计一次；
+ * 延迟依赖（Supplier/Provider/Optional）以虚线导出，不计入子树。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class DependencyGraph {
+
+    private final Class<?> root;
+    private final Map<Class<?>, DependencyNode> nodes;
+    private final Map<Class<?>, Long> subtreeNanos;
+
+    private DependencyGraph(Class<?> root, Map<Class<?>, DependencyNode> nodes) {
+        this.root = root;
+        this.nodes = Collections.unmodifiableMap(nodes);
+        Map<Class<?>, Long> subtree = new HashMap<>();
+        for (Class<?> type : nodes.keySet()) {
+            subtree.put(type, sumReachable(type));
+        }
+        this.subtreeNanos = subtree;
+    }
+
+    /**
+     * 从根类型出发，沿节点的构造依赖与延迟依赖收集依赖图。
+     *
+     * @param root 根类型
+     * @param lookup 类型到节点的查找函数，不能返回 null
+     * @return 依赖图
+     */
+    public static DependencyGraph of(Class<?> root, Function<Class<?>, DependencyNode> lookup) {
+        Map<Class<?>, DependencyNode> nodes = new LinkedHashMap<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.pop();
+            if (nodes.containsKey(type)) {
+                continue;
+            }
+            DependencyNode node = lookup.apply(type);
+            nodes.put(type, node);
+            // 逆序入栈，使导出顺序与构造器参数顺序一致
+            List<Class<?>> next = new ArrayList<>(node.getDependencies());
+            next.addAll(node.getLazyDependencies());
+            for (int i = next.size() - 1; i >= 0; i--) {
+                pending.push(next.get(i));
+            }
+        }
+        return new DependencyGraph(root, nodes);
+    }
+
+    public Class<?> getRoot() {
+        return root;
+    }
+
+    /**
+     * 全部节点，按从根出发的深度优先顺序排列。
+     *
+     * @return 类型到节点的只读映射
+     */
+    public Map<Class<?>, DependencyNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 获取节点。
+     *
+     * @param type 类型
+     * @return 节点，不在图中时返回 null
+     */
+    public DependencyNode getNode(Class<?> type) {
+        return nodes.get(type);
+    }
+
+    /**
+     * 子树耗时：该节点及其全部构造依赖的自身耗时之和（共享依赖只计一次）。
+     *
+     * @param type 类型
+     * @return 纳秒，不在图中时返回 0
+     */
+    public long getSubtreeNanos(Class<?> type) {
+        Long nanos = subtreeNanos.get(type);
+        return nanos != null ? nanos : 0L;
+    }
+
+    /**
+     * 整个图的耗时，即根节点的子树耗时。
+     *
+     * @return 纳秒
+     */
+    public long getTotalNanos() {
+        return getSubtreeNanos(root);
+    }
+
+    /**
+     * 导出为 Graphviz DOT。
+     * 节点按创建方式着色，标签包含创建方式、自身耗时与子树耗时；延迟依赖为虚线。
+     *
+     * @return DOT 文本
+     */
+    public String toDot() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("digraph dependencies {\n");
+        sb.append("  rankdir=LR;\n");
+        sb.append("  node [shape=box, style=filled, fontname=\"monospace\"];\n");
+        for (DependencyNode node : nodes.values()) {
+            sb.append("  ").append(quote(node.getType().getName()))
+                    .append(" [label=").append(quote(node.getType().getSimpleName() + "\\n" + node.getKind()
+                            + "\\nself " + formatNanos(node.getSelfNanos())
+                            + " / subtree " + formatNanos(getSubtreeNanos(node.getType()))))
+                    .append(", fillcolor=").append(quote(colorOf(node.getKind())))
+                    .append("];\n");
+        }
+        for (DependencyNode node : nodes.values()) {
+            for (Class<?> dependency : node.getDependencies()) {
+                appendEdge(sb, node.getType(), dependency, "");
+            }
+            for (Class<?> dependency : node.getLazyDependencies()) {
+                appendEdge(sb, node.getType(), dependency, " [style=dashed]");
+            }
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 导出为 JSON，耗时单位为纳秒：
+     * <pre>
+     * {"root":"...","totalNanos":123,"nodes":[{"type":"...","kind":"REAL","constructionNanos":1,
+     *   "mockCreationNanos":0,"subtreeNanos":5,"dependencies":["..."],"lazyDependencies":[]}]}
+     * </pre>
+     *
+     * @return JSON 文本
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"root\":").append(quote(root.getName()))
+                .append(",\"totalNanos\":").append(getTotalNanos())
+                .append(",\"nodes\":[");
+        boolean first = true;
+        for (DependencyNode node : nodes.values()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"type\":").append(quote(node.getType().getName()))
+                    .append(",\"kind\":").append(quote(node.getKind().name()))
+                    .append(",\"constructionNanos\":").append(node.getConstructionNanos())
+                    .append(",\"mockCreationNanos\":").append(node.getMockCreationNanos())
+                    .append(",\"subtreeNanos\":").append(getSubtreeNanos(node.getType()))
+                    .append(",\"dependencies\":");
+            appendNames(sb, node.getDependencies());
+            sb.append(",\"lazyDependencies\":");
+            appendNames(sb, node.getLazyDependencies());
+            sb.append('}');
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "DependencyGraph{root=" + root.getSimpleName() + ", nodes=" + nodes.size()
+                + ", total=" + formatNanos(getTotalNanos()) + "}";
+    }
+
+    private long sumReachable(Class<?> start) {
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(start);
+        long total = 0L;
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.pop();
+            DependencyNode node = nodes.get(type);
+            if (node == null || !visited.add(type)) {
+                continue;
+            }
+            total += node.getSelfNanos();
+            for (Class<?> dependency : node.getDependencies()) {
+                pending.push(dependency);
+            }
+        }
+        return total;
+    }
+
+    private static void appendEdge(StringBuilder sb, Class<?> from, Class<?> to, String attributes) {
+        sb.append("  ").append(quote(from.getName())).append(" -> ").append(quote(to.getName()))
+                .append(attributes).append(";\n");
+    }
+
+    private static void appendNames(StringBuilder sb, List<Class<?>> types) {
+        sb.append('[');
+        for (int i = 0; i < types.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(quote(types.get(i).getName()));
+        }
+        sb.append(']');
+    }
+
+    private static String colorOf(NodeKind kind) {
+        switch (kind) {
+            case MOCK:
+                return "lightblue";
+            case SPY:
+                return "plum";
+            case RECORDED:
+                return "khaki";
+            case USER_INSTANCE:
+                return "palegreen";
+            case UNRESOLVED:
+                return "lightgrey";
+            default:
+                return "white";
+        }
+    }
+
+    /**
+     * 类名不含需要转义的字符，DOT 标签中的换行已预先写成 \n，这里只转义双引号。
+     */
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\\\"") + "\"";
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+            return String.format("%.2fms", nanos / 1e6);
+        }
+        return String.format("%.1fus", nanos / 1e3);
+    }
+}
@@ -0,0 +1,91 @@
+package com.oppo.usercenter.test.injector.graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 依赖图节点：一个类型的创建方式、自身耗时与直接依赖。
+ * 耗时只统计该类型自身（构造器执行、Mock 类生成），不含依赖的解析；子树耗时由 {@link DependencyGraph} 汇总。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class DependencyNode {
+
+    private final Class<?> type;
+    private final NodeKind kind;
+    private final long constructionNanos;
+    private final long mockCreationNanos;
+    private final List<Class<?>> dependencies;
+    private final List<Class<?>> lazyDependencies;
+
+    /**
+     * 创建节点。
+     *
+     * @param type 类型
+     * @param kind 创建方式
+     * @param constructionNanos 构造器执行耗时（纳秒）
+     * @param mockCreationNanos Mock/Spy 创建耗时（纳秒，含 Mock 类生成）
+     * @param dependencies 构造时解析的依赖
+     * @param lazyDependencies 以 Supplier/Provider/Optional 延迟引用的依赖
+     */
+    public DependencyNode(Class<?> type, NodeKind kind, long constructionNanos, long mockCreationNanos,
+                          List<Class<?>> dependencies, List<Class<?>> lazyDependencies) {
+        this.type = type;
+        this.kind = kind;
+        this.constructionNanos = constructionNanos;
+        this.mockCreationNanos = mockCreationNanos;
+        this.dependencies = Collections.unmodifiableList(dependencies);
+        this.lazyDependencies = Collections.unmodifiableList(lazyDependencies);
+    }
+
+    /**
+     * 创建没有依赖与耗时的节点（用户注册实例、未解析类型）。
+     *
+     * @param type 类型
+     * @param kind 创建方式
+     * @return 节点
+     */
+    public static DependencyNode leaf(Class<?> type, NodeKind kind) {
+        return new DependencyNode(type, kind, 0L, 0L,
+                Collections.<Class<?>>emptyList(), Collections.<Class<?>>emptyList());
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public NodeKind getKind() {
+        return kind;
+    }
+
+    public long getConstructionNanos() {
+        return constructionNanos;
+    }
+
+    public long getMockCreationNanos() {
+        return mockCreationNanos;
+    }
+
+    /**
+     * 自身耗时：构造器执行与 Mock 创建之和。
+     *
+     * @return 纳秒
+     */
+    public long getSelfNanos() {
+        return constructionNanos + mockCreationNanos;
+    }
+
+    public List<Class<?>> getDependencies() {
+        return dependencies;
+    }
+
+    public List<Class<?>> getLazyDependencies() {
+        return lazyDependencies;
+    }
+
+    @Override
+    public String toString() {
+        return type.getSimpleName() + "[" + kind + ", self=" + getSelfNanos() + "ns]";
+    }
+}
@@ -0,0 +1,40 @@
+package com.oppo.usercenter.test.injector.graph;
+
+/**
+ * 依赖图节点的创建方式。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public enum NodeKind {
+
+    /**
+     * 注入器创建的 Mock。
+     */
+    MOCK,
+
+    /**
+     * 注入器构造的真实对象。
+     */
+    REAL,
+
+    /**
+     * 注入器构造的 Spy。
+     */
+    SPY,
+
+    /**
+     * 录制模式下包装的真实对象。
+     */
+    RECORDED,
+
+    /**
+     * 用户注册的实例，不经过注入器构造。
+     */
+    USER_INSTANCE,
+
+    /**
+     * 只通过 Supplier/Provider/Optional 引用、尚未创建的类型。
+     */
+    UNRESOLVED
+}
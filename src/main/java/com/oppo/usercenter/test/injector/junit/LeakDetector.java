@@ -0,0 +1,119 @@
+package com.oppo.usercenter.test.injector.junit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * 测试对象图泄漏检测。
+ * 测试结束后以弱引用登记其对象图（injector 与其持有的实例），在下一个测试开始前或整个运行结束时触发 GC 检查，
+ * 仍可达的对象说明被静态字段、单例或未清理的 ThreadLocal 等持有，按测试报告泄漏的类型。
+ * <p>
+ * 检查推迟到下一个测试，是因为 JUnit 在 afterEach 之后才释放测试实例；
+ * 并行执行时其他测试可能仍持有共享对象，建议仅在串行运行中开启。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class LeakDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeakDetector.class);
+
+    private static final int GC_ATTEMPTS = 3;
+
+    private final List<TrackedGraph> pending = new ArrayList<>();
+    private final List<String> leaks = new ArrayList<>();
+
+    /**
+     * 登记一个已结束测试的对象图（只保留弱引用）。
+     *
+     * @param testName 测试名
+     * @param objects 对象图
+     */
+    synchronized void track(String testName, Collection<?> objects) {
+        List<WeakReference<Object>> references = new ArrayList<>(objects.size());
+        for (Object object : objects) {
+            if (object != null) {
+                references.add(new WeakReference<>(object));
+            }
+        }
+        if (!references.isEmpty()) {
+            pending.add(new TrackedGraph(testName, references));
+        }
+    }
+
+    /**
+     * 检查之前登记的对象图是否已被回收，返回本次发现的泄漏报告。
+     *
+     * @return 泄漏报告（每个泄漏测试一条）
+     */
+    synchronized List<String> check() {
+        if (pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+        for (int attempt = 0; attempt < GC_ATTEMPTS && hasLiveReferences(); attempt++) {
+            System.gc();
+            try {
+                Thread.sleep(10L * (attempt + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<String> found = new ArrayList<>();
+        for (TrackedGraph graph : pending) {
+            Map<String, Integer> liveTypes = new TreeMap<>();
+            for (WeakReference<Object> reference : graph.references) {
+                Object object = reference.get();
+                if (object != null) {
+                    liveTypes.merge(object.getClass().getName(), 1, Integer::sum);
+                }
+            }
+            if (!liveTypes.isEmpty()) {
+                String report = "Test " + graph.testName + " leaked " + liveTypes;
+                logger.warn("{}: objects still reachable after the test finished", report);
+                found.add(report);
+            }
+        }
+        pending.clear();
+        leaks.addAll(found);
+        return found;
+    }
+
+    /**
+     * 整个运行中发现的泄漏报告。
+     *
+     * @return 泄漏报告
+     */
+    synchronized List<String> leaks() {
+        return new ArrayList<>(leaks);
+    }
+
+    private boolean hasLiveReferences() {
+        for (TrackedGraph graph : pending) {
+            for (WeakReference<Object> reference : graph.references) {
+                if (reference.get() != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 一个测试的对象图。
+     */
+    private static final class TrackedGraph {
+
+        private final String testName;
+        private final List<WeakReference<Object>> references;
+
+        private TrackedGraph(String testName, List<WeakReference<Object>> references) {
+            this.testName = testName;
+            this.references = references;
+        }
+    }
+}
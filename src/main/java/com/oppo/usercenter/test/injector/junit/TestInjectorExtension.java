@@ -2,46 +2,186 @@ package com.oppo.usercenter.test.injector.junit;
 
 import com.oppo.usercenter.test.injector.TestInjector;
 import com.oppo.usercenter.test.injector.annotation.AnnotationProcessor;
+import com.oppo.usercenter.test.injector.annotation.Injected;
+import com.oppo.usercenter.test.injector.perf.ConstructionBudget;
+import com.oppo.usercenter.test.injector.perf.InteractionProfiler;
+import com.oppo.usercenter.test.injector.util.ReflectionUtils;
+import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.ResourceLocks;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 
 /**
  * JUnit 5 扩展。
  * 自动初始化 Mockito 注解和 TestInjector。
+ * <p>
+ * 支持 JUnit 并行执行（{@code junit.jupiter.execution.parallel.enabled}）：每个测试调用拥有独立的注入器，
+ * 按测试的 uniqueId 存放，测试之间只共享不可变的 JVM 级缓存（构造器选择、Mockito 生成的 Mock 类）。
+ * 注解字段在测试之间共享（static 字段或 PER_CLASS 生命周期）且未声明 {@code @ResourceLock}/{@code @Isolated} 的测试类，
+ * 其测试由扩展自动串行执行，并提示应添加的 {@code @ResourceLock}。
+ * <p>
+ * 测试方法（及 {@code @BeforeEach}/{@code @AfterEach} 方法）的参数可标注 {@link Injected} 或 {@code @Mock}，
+ * 调用时从当前测试的注入器解析，只构建该方法需要的对象图。
  *
  * @author zhourui(V33215020)
  * @since 2025/10/26
  */
-public class TestInjectorExtension implements BeforeEachCallback, AfterEachCallback {
+public class TestInjectorExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestInjectorExtension.class);
 
     private static final String CLOSEABLE_KEY = "mockito.closeable";
     private static final String INJECTOR_KEY = "test.injector";
+    private static final String BUDGET_KEY = "test.injector.budget";
+    private static final String LEAK_DETECTOR_KEY = "test.injector.leakDetector";
+    private static final String WARM_UP_KEY = "test.injector.warmUp";
+    private static final String SHARED_FIELDS_LOCK_KEY = "test.injector.sharedFieldsLock";
+
+    /**
+     * JUnit 的并行执行开关。
+     */
+    private static final String JUNIT_PARALLEL_PROPERTY = "junit.jupiter.execution.parallel.enabled";
+
+    /**
+     * 共享注解字段的资源锁键前缀，完整的键为前缀 + 测试类全限定名，
+     * 例如 {@code @ResourceLock("testinjector:com.example.OrderServiceTest")}。
+     */
+    public static final String RESOURCE_LOCK_PREFIX = "testinjector:";
+
+    /**
+     * 配置参数：是否并行创建 @Mock/@Spy 实例（junit-platform.properties 或 -D 指定）。
+     */
+    public static final String PARALLEL_ANNOTATIONS_PROPERTY = "testinjector.annotations.parallel";
+
+    /**
+     * 配置参数：是否在注解处理前额外执行 {@code MockitoAnnotations.openMocks}（旧行为）。
+     * 默认关闭，每个注解字段只由 AnnotationProcessor 创建一次实例。
+     */
+    public static final String MOCKITO_INIT_PROPERTY = "testinjector.annotations.mockitoInit";
+
+    /**
+     * 配置参数：真实对象构造耗时预算（毫秒），未配置时不计时。
+     * 预算在整个测试运行内共享，运行结束时输出慢类型报告。
+     */
+    public static final String BUDGET_MILLIS_PROPERTY = "testinjector.budget.millis";
+
+    /**
+     * 配置参数：超出预算的类型是否在后续解析中自动替换为 Mock。
+     */
+    public static final String BUDGET_AUTO_MOCK_PROPERTY = "testinjector.budget.autoMock";
+
+    /**
+     * 配置参数：慢类型持久化文件，下次运行时加载。
+     */
+    public static final String BUDGET_FILE_PROPERTY = "testinjector.budget.file";
+
+    /**
+     * 配置参数：是否检测测试结束后对象图仍可达（泄漏）。
+     * 开启后每个测试开始前会触发 GC 检查上一个测试的对象图，仅建议在排查内存问题时使用。
+     */
+    public static final String LEAK_DETECTION_PROPERTY = "testinjector.leakDetection";
+
+    /**
+     * 配置参数：是否统计 Mock 交互，测试结束后输出调用次数达到阈值的交互（N+1 调用检测）。
+     */
+    public static final String PROFILE_PROPERTY = "testinjector.profile.enabled";
+
+    /**
+     * 配置参数：频繁交互的调用次数阈值，默认 {@value #DEFAULT_PROFILE_THRESHOLD}。
+     */
+    public static final String PROFILE_THRESHOLD_PROPERTY = "testinjector.profile.threshold";
+
+    /**
+     * 配置参数：运行开始时预热的类型（逗号分隔的全限定类名），整个运行只预热一次，见 {@link TestInjector#warmUp}。
+     */
+    public static final String WARM_UP_PROPERTY = "testinjector.warmUp";
+
+    private static final long DEFAULT_PROFILE_THRESHOLD = 100;
 
     @Override
     public void beforeEach(ExtensionContext context) throws Exception {
         Object testInstance = context.getRequiredTestInstance();
+        warmUp(context);
+
+        // 并行执行时，共享注解字段的测试类串行执行，锁在测试的 Store 关闭时释放
+        if (context.getConfigurationParameter(JUNIT_PARALLEL_PROPERTY, Boolean::parseBoolean).orElse(false)) {
+            lockSharedFields(context);
+        }
+
+        // 检查之前测试的对象图是否已被回收
+        LeakDetector leakDetector = getLeakDetector(context);
+        if (leakDetector != null) {
+            leakDetector.check();
+        }
 
-        // 初始化 Mockito 注解
-        AutoCloseable closeable = MockitoAnnotations.openMocks(testInstance);
-        getStore(context).put(CLOSEABLE_KEY, closeable);
+        // 旧行为：先由 Mockito 初始化注解（会重复创建 Mock，仅为兼容保留）
+        if (context.getConfigurationParameter(MOCKITO_INIT_PROPERTY, Boolean::parseBoolean).orElse(false)) {
+            AutoCloseable closeable = MockitoAnnotations.openMocks(testInstance);
+            getStore(context).put(CLOSEABLE_KEY, closeable);
+        }
 
         // 创建 TestInjector 实例
-        TestInjector injector = new TestInjector();
+        TestInjector.Builder builder = TestInjector.builder();
+        ConstructionBudget budget = getConstructionBudget(context);
+        if (budget != null) {
+            builder.constructionBudget(budget);
+        }
+        if (context.getConfigurationParameter(PROFILE_PROPERTY, Boolean::parseBoolean).orElse(false)) {
+            builder.profileInteractions();
+        }
+        TestInjector injector = builder.buildInjector();
         getStore(context).put(INJECTOR_KEY, injector);
 
         // 处理注解
         AnnotationProcessor processor = new AnnotationProcessor(injector);
+        if (context.getConfigurationParameter(PARALLEL_ANNOTATIONS_PROPERTY, Boolean::parseBoolean).orElse(false)) {
+            processor.enableParallel();
+        }
         processor.processAnnotations(testInstance);
     }
 
     @Override
     public void afterEach(ExtensionContext context) throws Exception {
-        // 清理 ThreadLocal 数据（防止内存泄漏）
+        // 释放 injector 持有的全部对象（Mock 状态、缓存、录制器、ThreadLocal）
         TestInjector injector = getStore(context).get(INJECTOR_KEY, TestInjector.class);
         if (injector != null) {
-            injector.clearThreadLocalData();
+            reportInteractions(context, injector.getInteractionProfiler());
+            LeakDetector leakDetector = getLeakDetector(context);
+            // PER_CLASS 生命周期下测试实例字段在测试之间保持引用，不做检测
+            if (leakDetector != null
+                    && context.getTestInstanceLifecycle().orElse(null) == TestInstance.Lifecycle.PER_METHOD) {
+                Set<Object> graph = injector.ownedInstances();
+                graph.add(injector);
+                leakDetector.track(context.getUniqueId(), graph);
+            }
+            injector.release();
         }
 
         // 清理 Mockito 资源
@@ -55,13 +195,235 @@ public class TestInjectorExtension implements BeforeEachCallback, AfterEachCallb
         getStore(context).remove(INJECTOR_KEY);
     }
 
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Executable executable = parameterContext.getDeclaringExecutable();
+        return executable instanceof Method && AnnotationProcessor.supportsParameter(parameterContext.getParameter());
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        TestInjector injector = extensionContext.getTestMethod().isPresent()
+                ? getStore(extensionContext).get(INJECTOR_KEY, TestInjector.class) : null;
+        if (injector == null) {
+            throw new ParameterResolutionException("TestInjector is only available to test, @BeforeEach and "
+                    + "@AfterEach methods: " + parameterContext.getParameter());
+        }
+        return new AnnotationProcessor(injector).resolveParameter(parameterContext.getParameter());
+    }
+
     /**
-     * 获取 ExtensionContext 的 Store。
+     * 输出本测试中调用次数达到阈值的 Mock 交互（日志 + JUnit 报告条目）。
+     *
+     * @param context ExtensionContext
+     * @param profiler 交互统计
+     */
+    private void reportInteractions(ExtensionContext context, InteractionProfiler profiler) {
+        if (profiler == null) {
+            return;
+        }
+        long threshold = context.getConfigurationParameter(PROFILE_THRESHOLD_PROPERTY, Long::parseLong)
+                .orElse(DEFAULT_PROFILE_THRESHOLD);
+        String summary = profiler.summary(threshold);
+        if (!summary.isEmpty()) {
+            logger.warn("Chatty mock interactions in {}:{}{}", context.getDisplayName(), System.lineSeparator(), summary);
+            context.publishReportEntry("testinjector.interactions", summary);
+        }
+    }
+
+    /**
+     * 获取整个测试运行共享的构造耗时预算（保存在根 Store 中，运行结束时输出报告并持久化）。
+     *
+     * @param context ExtensionContext
+     * @return 构造耗时预算，未配置时返回 null
+     */
+    private ConstructionBudget getConstructionBudget(ExtensionContext context) {
+        Long millis = context.getConfigurationParameter(BUDGET_MILLIS_PROPERTY, Long::parseLong).orElse(null);
+        if (millis == null) {
+            return null;
+        }
+        ExtensionContext.Store rootStore = context.getRoot().getStore(ExtensionContext.Namespace.create(getClass()));
+        BudgetResource resource = rootStore.getOrComputeIfAbsent(BUDGET_KEY, key -> {
+            ConstructionBudget budget = new ConstructionBudget(Duration.ofMillis(millis));
+            if (context.getConfigurationParameter(BUDGET_AUTO_MOCK_PROPERTY, Boolean::parseBoolean).orElse(false)) {
+                budget.autoMock();
+            }
+            context.getConfigurationParameter(BUDGET_FILE_PROPERTY)
+                    .ifPresent(file -> budget.persistTo(Paths.get(file)));
+            return new BudgetResource(budget);
+        }, BudgetResource.class);
+        return resource.budget;
+    }
+
+    /**
+     * 获取整个测试运行共享的泄漏检测器，运行结束时做最后一次检查。
+     *
+     * @param context ExtensionContext
+     * @return 泄漏检测器，未开启时返回 null
+     */
+    private LeakDetector getLeakDetector(ExtensionContext context) {
+        if (!context.getConfigurationParameter(LEAK_DETECTION_PROPERTY, Boolean::parseBoolean).orElse(false)) {
+            return null;
+        }
+        ExtensionContext.Store rootStore = context.getRoot().getStore(ExtensionContext.Namespace.create(getClass()));
+        return rootStore.getOrComputeIfAbsent(LEAK_DETECTOR_KEY, key -> new LeakResource(), LeakResource.class)
+                .detector;
+    }
+
+    /**
+     * 按配置预热类型，整个运行只执行一次；并行测试同时到达时其余测试等待预热完成。
+     *
+     * @param context ExtensionContext
+     */
+    private void warmUp(ExtensionContext context) {
+        String names = context.getConfigurationParameter(WARM_UP_PROPERTY).orElse(null);
+        if (names == null || names.trim().isEmpty()) {
+            return;
+        }
+        ClassLoader loader = context.getRequiredTestClass().getClassLoader();
+        ExtensionContext.Store rootStore = context.getRoot().getStore(ExtensionContext.Namespace.create(getClass()));
+        rootStore.getOrComputeIfAbsent(WARM_UP_KEY, key -> {
+            List<Class<?>> roots = new ArrayList<>();
+            for (String name : names.split(",")) {
+                try {
+                    roots.add(Class.forName(name.trim(), false, loader));
+                } catch (ClassNotFoundException e) {
+                    logger.warn("Skipping warm-up of unknown class {}", name.trim());
+                }
+            }
+            TestInjector.warmUp(roots.toArray(new Class<?>[0]));
+            return Boolean.TRUE;
+        }, Boolean.class);
+    }
+
+    /**
+     * 测试类在测试之间共享注解字段且未显式声明锁时，获取该类的锁，保证其测试串行执行。
+     * 第一次获取时输出应添加的 {@code @ResourceLock}，声明后由 JUnit 调度，不再占用工作线程等待。
+     * JUnit 在 ForkJoinPool 中执行并行测试，等待通过 {@link ForkJoinPool#managedBlock} 进行，
+     * 线程池会为阻塞的工作线程补充线程，其他测试类不会因此失去并行度。
+     *
+     * @param context ExtensionContext
+     * @throws InterruptedException 等待锁时被中断
+     */
+    private void lockSharedFields(ExtensionContext context) throws InterruptedException {
+        Class<?> testClass = context.getRequiredTestClass();
+        if (!sharesAnnotatedFields(context) || hasExplicitLock(testClass)
+                || hasExplicitLock(context.getRequiredTestMethod())) {
+            return;
+        }
+        String lockKey = RESOURCE_LOCK_PREFIX + testClass.getName();
+        ExtensionContext.Store rootStore = context.getRoot().getStore(ExtensionContext.Namespace.create(getClass()));
+        Semaphore lock = rootStore.getOrComputeIfAbsent(SHARED_FIELDS_LOCK_KEY + ":" + testClass.getName(), key -> {
+            logger.warn("{} shares @Mock/@Spy/@InjectMocks fields between tests, its tests are serialized under "
+                    + "parallel execution; annotate it with @ResourceLock(\"{}\") to let JUnit schedule them",
+                    testClass.getName(), lockKey);
+            context.publishReportEntry("testinjector.resourceLock", lockKey);
+            return new Semaphore(1);
+        }, Semaphore.class);
+        ForkJoinPool.managedBlock(new SemaphoreBlocker(lock));
+        getStore(context).put(SHARED_FIELDS_LOCK_KEY, (ExtensionContext.Store.CloseableResource) lock::release);
+    }
+
+    /**
+     * 注解字段是否在测试之间共享：static 字段，或 PER_CLASS 生命周期下的全部字段。
+     *
+     * @param context ExtensionContext
+     * @return true 如果共享
+     */
+    private static boolean sharesAnnotatedFields(ExtensionContext context) {
+        boolean perClass = context.getTestInstanceLifecycle().orElse(null) == TestInstance.Lifecycle.PER_CLASS;
+        for (Field field : ReflectionUtils.getAllFields(context.getRequiredTestClass())) {
+            boolean annotated = field.isAnnotationPresent(Mock.class) || field.isAnnotationPresent(Spy.class)
+                    || field.isAnnotationPresent(InjectMocks.class) || field.isAnnotationPresent(Captor.class);
+            if (annotated && (perClass || Modifier.isStatic(field.getModifiers()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasExplicitLock(AnnotatedElement element) {
+        return AnnotationSupport.isAnnotated(element, ResourceLock.class)
+                || AnnotationSupport.isAnnotated(element, ResourceLocks.class)
+                || AnnotationSupport.isAnnotated(element, Isolated.class);
+    }
+
+    /**
+     * 获取当前测试调用的 Store。
+     * 按 uniqueId 区分，同一方法的多次调用（重复测试、参数化测试）在并行执行时互不干扰。
      *
      * @param context ExtensionContext
      * @return Store
      */
     private ExtensionContext.Store getStore(ExtensionContext context) {
-        return context.getStore(ExtensionContext.Namespace.create(getClass(), context.getRequiredTestMethod()));
+        return context.getStore(ExtensionContext.Namespace.create(getClass(), context.getUniqueId()));
+    }
+
+    /**
+     * 以 ManagedBlocker 获取信号量：可立即获取时不阻塞，否则交由 ForkJoinPool 补偿后再等待。
+     */
+    private static final class SemaphoreBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private final Semaphore semaphore;
+        private boolean acquired;
+
+        private SemaphoreBlocker(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                semaphore.acquire();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!acquired) {
+                acquired = semaphore.tryAcquire();
+            }
+            return acquired;
+        }
+    }
+
+    /**
+     * 测试运行结束时输出慢类型报告并持久化。
+     */
+    private static class BudgetResource implements ExtensionContext.Store.CloseableResource {
+
+        private final ConstructionBudget budget;
+
+        private BudgetResource(ConstructionBudget budget) {
+            this.budget = budget;
+        }
+
+        @Override
+        public void close() {
+            String report = budget.report();
+            if (!report.isEmpty()) {
+                logger.warn("{}", report);
+            }
+            budget.save();
+        }
+    }
+
+    /**
+     * 测试运行结束时检查最后一批测试的对象图。
+     */
+    private static class LeakResource implements ExtensionContext.Store.CloseableResource {
+
+        private final LeakDetector detector = new LeakDetector();
+
+        @Override
+        public void close() {
+            detector.check();
+            int leaks = detector.leaks().size();
+            if (leaks > 0) {
+                logger.warn("{} test(s) leaked objects after finishing, see warnings above", leaks);
+            }
+        }
     }
 }
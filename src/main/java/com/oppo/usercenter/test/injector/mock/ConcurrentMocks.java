@@ -0,0 +1,483 @@
+package com.oppo.usercenter.test.injector.mock;
+
+import com.oppo.usercenter.test.injector.MockConfigurator;
+import com.oppo.usercenter.test.injector.perf.LatencySimulator;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.invocation.MatchableInvocation;
+import org.mockito.stubbing.Answer;
+import org.mockito.stubbing.Stubbing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 高并发 Mock。
+ * Mockito 的 Stub 查找与调用登记内部加锁，几十个线程同时调用同一个 Mock 时会严重串行化，扭曲多线程测试的结果。
+ * 这里先用 {@link MockConfigurator} 在普通 Mock（模板）上照常 {@code when(...)} 配置，
+ * 再把模板的 Stub 编译成按方法索引的不可变查找表：
+ * <ul>
+ *     <li>接口：生成 JDK 动态代理，调用只读查找表，无锁；</li>
+ *     <li>类：回退为 {@code stubOnly} 的 Mockito Mock，以查找表作为默认 Answer（Mockito 内部仍有一次加锁查找）。</li>
+ * </ul>
+ * 调用次数按方法记录在 {@link LongAdder} 中（分段计数），通过 {@link #calls(Object, String)} 查询；
+ * 不支持 {@code Mockito.verify}。连续返回（{@code thenReturn(a, b)}）用原子游标实现，最后一个值重复返回。
+ * 编译后对模板的修改不再生效。
+ * <p>
+ * 连续 Answer 读自 Mockito 内部的 {@code StubbedInvocationMatcher}；读取失败（如 Mockito 升级改了实现）时记录警告，
+ * 该 Stub 退化为把 {@link Stubbing} 本身当作 Answer，调用时经过 Mockito 的同步块，
+ * 可用 {@link #isLockFree(Object)} 检查。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class ConcurrentMocks {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentMocks.class);
+
+    private static final Field ANSWERS_FIELD = answersField();
+
+    private ConcurrentMocks() {
+    }
+
+    /**
+     * 创建高并发 Mock，未 Stub 的方法返回 Mockito 默认值。
+     *
+     * @param type Mock 类型
+     * @param configurator 配置器（作用于模板 Mock）
+     * @param <T> 类型参数
+     * @return 高并发 Mock
+     */
+    public static <T> T create(Class<T> type, MockConfigurator<T> configurator) {
+        return create(type, configurator, Mockito.RETURNS_DEFAULTS, null);
+    }
+
+    /**
+     * 创建高并发 Mock。
+     *
+     * @param type Mock 类型
+     * @param configurator 配置器（作用于模板 Mock）
+     * @param defaultAnswer 未 Stub 方法的 Answer
+     * @param latency 延迟模拟，可为 null
+     * @param <T> 类型参数
+     * @return 高并发 Mock
+     */
+    public static <T> T create(Class<T> type, MockConfigurator<T> configurator,
+                               Answer<?> defaultAnswer, LatencySimulator latency) {
+        return create(type, configurator, defaultAnswer, () -> defaultAnswer, () -> latency);
+    }
+
+    /**
+     * 创建高并发 Mock，未 Stub 方法的 Answer 与延迟模拟在调用时才读取：
+     * 默认 Answer 在第一次需要时计算一次，延迟模拟每次调用读取，
+     * 创建之后才配置的规则、智能默认值与延迟同样生效。
+     *
+     * @param type Mock 类型
+     * @param configurator 配置器（作用于模板 Mock）
+     * @param defaultAnswer 未 Stub 方法的 Answer
+     * @param latency 延迟模拟，返回值可为 null
+     * @param <T> 类型参数
+     * @return 高并发 Mock
+     */
+    public static <T> T create(Class<T> type, MockConfigurator<T> configurator,
+                               Supplier<? extends Answer<?>> defaultAnswer, Supplier<LatencySimulator> latency) {
+        return create(type, configurator, Mockito.RETURNS_DEFAULTS, defaultAnswer, latency);
+    }
+
+    private static <T> T create(Class<T> type, MockConfigurator<T> configurator, Answer<?> templateAnswer,
+                                Supplier<? extends Answer<?>> defaultAnswer, Supplier<LatencySimulator> latency) {
+        T template = Mockito.mock(type, Mockito.withSettings().defaultAnswer(templateAnswer));
+        if (configurator != null) {
+            configurator.configure(template);
+        }
+        StubTable table = new StubTable(type, compile(template), defaultAnswer, latency);
+        if (type.isInterface()) {
+            Object proxy = Proxy.newProxyInstance(proxyClassLoader(type), new Class<?>[]{type}, table);
+            return type.cast(proxy);
+        }
+        return Mockito.mock(type, Mockito.withSettings().stubOnly().defaultAnswer(table));
+    }
+
+    /**
+     * 是否为高并发 Mock。
+     *
+     * @param mock 对象
+     * @return true 如果由本类创建
+     */
+    public static boolean isConcurrentMock(Object mock) {
+        return tableOf(mock) != null;
+    }
+
+    /**
+     * 调用是否完全不经过 Mockito：接口代理，且全部 Stub 都编译成了独立的 Answer。
+     *
+     * @param mock 高并发 Mock
+     * @return true 如果调用路径无锁
+     */
+    public static boolean isLockFree(Object mock) {
+        StubTable table = requireTable(mock);
+        if (!Proxy.isProxyClass(mock.getClass())) {
+            return false;
+        }
+        for (CompiledStub[] stubs : table.stubs.values()) {
+            for (CompiledStub stub : stubs) {
+                if (!stub.isCompiled()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 指定方法名（所有重载合计）的调用次数。
+     *
+     * @param mock 高并发 Mock
+     * @param methodName 方法名
+     * @return 调用次数
+     */
+    public static long calls(Object mock, String methodName) {
+        long total = 0;
+        for (Map.Entry<Method, LongAdder> entry : requireTable(mock).counters.entrySet()) {
+            if (entry.getKey().getName().equals(methodName)) {
+                total += entry.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 全部方法的调用次数。
+     *
+     * @param mock 高并发 Mock
+     * @return 调用次数
+     */
+    public static long totalCalls(Object mock) {
+        long total = 0;
+        for (LongAdder counter : requireTable(mock).counters.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    /**
+     * 清零调用次数与连续返回的游标。
+     *
+     * @param mock 高并发 Mock
+     */
+    public static void resetCalls(Object mock) {
+        StubTable table = requireTable(mock);
+        for (LongAdder counter : table.counters.values()) {
+            counter.reset();
+        }
+        for (CompiledStub[] stubs : table.stubs.values()) {
+            for (CompiledStub stub : stubs) {
+                stub.cursor.set(0);
+            }
+        }
+    }
+
+    private static StubTable requireTable(Object mock) {
+        StubTable table = tableOf(mock);
+        if (table == null) {
+            throw new IllegalArgumentException("Not a concurrent mock: " + mock);
+        }
+        return table;
+    }
+
+    private static StubTable tableOf(Object mock) {
+        if (mock == null) {
+            return null;
+        }
+        if (Proxy.isProxyClass(mock.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(mock);
+            return handler instanceof StubTable ? (StubTable) handler : null;
+        }
+        if (!Mockito.mockingDetails(mock).isMock()) {
+            return null;
+        }
+        Answer<?> answer = Mockito.mockingDetails(mock).getMockCreationSettings().getDefaultAnswer();
+        return answer instanceof StubTable ? (StubTable) answer : null;
+    }
+
+    /**
+     * 把模板上的 Stub 按方法分组，组内按后声明优先排序（与 Mockito 一致）。
+     */
+    private static Map<Method, CompiledStub[]> compile(Object template) {
+        Map<Method, List<CompiledStub>> grouped = new HashMap<>();
+        for (Stubbing stubbing : Mockito.mockingDetails(template).getStubbings()) {
+            if (!(stubbing instanceof MatchableInvocation)) {
+                continue;
+            }
+            MatchableInvocation matchable = (MatchableInvocation) stubbing;
+            Method method = stubbing.getInvocation().getMethod();
+            grouped.computeIfAbsent(method, key -> new ArrayList<>())
+                    .add(0, new CompiledStub(matchable.getMatchers().toArray(new ArgumentMatcher<?>[0]),
+                            answersOf(stubbing)));
+        }
+        Map<Method, CompiledStub[]> compiled = new HashMap<>();
+        for (Map.Entry<Method, List<CompiledStub>> entry : grouped.entrySet()) {
+            compiled.put(entry.getKey(), entry.getValue().toArray(new CompiledStub[0]));
+        }
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * 读取 Stub 的连续 Answer 列表；无法读取时把 Stub 本身作为单个 Answer（调用时会经过 Mockito 的锁）。
+     */
+    private static Answer<?>[] answersOf(Stubbing stubbing) {
+        if (ANSWERS_FIELD != null && ANSWERS_FIELD.getDeclaringClass().isInstance(stubbing)) {
+            try {
+                Collection<?> answers = (Collection<?>) ANSWERS_FIELD.get(stubbing);
+                if (!answers.isEmpty()) {
+                    return answers.toArray(new Answer<?>[0]);
+                }
+            } catch (IllegalAccessException e) {
+                logger.warn("[ConcurrentMocks] Cannot read answers of {}, falling back to Mockito's "
+                        + "synchronized lookup: {}", stubbing.getInvocation(), e.toString());
+            }
+        }
+        return new Answer<?>[]{stubbing};
+    }
+
+    private static Field answersField() {
+        try {
+            Field field = Class.forName("org.mockito.internal.stubbing.StubbedInvocationMatcher")
+                    .getDeclaredField("answers");
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("[ConcurrentMocks] Mockito stub answers unavailable, concurrent mocks fall back to "
+                    + "Mockito's synchronized lookup: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static ClassLoader proxyClassLoader(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        return loader != null ? loader : ConcurrentMocks.class.getClassLoader();
+    }
+
+    /**
+     * 编译后的单条 Stub：参数匹配器 + 连续 Answer。
+     */
+    private static final class CompiledStub {
+
+        private final ArgumentMatcher<Object>[] matchers;
+        private final Answer<?>[] answers;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        private CompiledStub(ArgumentMatcher<?>[] matchers, Answer<?>[] answers) {
+            // 匹配器只接收调用的实参，按 Object 调用是安全的
+            this.matchers = (ArgumentMatcher<Object>[]) matchers;
+            this.answers = answers;
+        }
+
+        /**
+         * 是否已编译为独立 Answer（而不是回退到 Stubbing 本身）。
+         */
+        boolean isCompiled() {
+            for (Answer<?> answer : answers) {
+                if (answer instanceof Stubbing) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean matches(Object[] args) {
+            if (args.length != matchers.length) {
+                return false;
+            }
+            for (int i = 0; i < args.length; i++) {
+                if (!matchers[i].matches(args[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Answer<?> nextAnswer() {
+            if (answers.length == 1) {
+                return answers[0];
+            }
+            int index = cursor.getAndIncrement();
+            if (index >= answers.length) {
+                // 停在最后一个，避免溢出
+                cursor.set(answers.length);
+                index = answers.length - 1;
+            }
+            return answers[index];
+        }
+
+        /**
+         * 与 Mockito 一致，把可变参数数组展开为独立参数。
+         */
+        static Object[] expandVarargs(Object[] args) {
+            if (args.length == 0 || args[args.length - 1] == null || !args[args.length - 1].getClass().isArray()) {
+                return args;
+            }
+            Object array = args[args.length - 1];
+            int varargCount = Array.getLength(array);
+            Object[] expanded = Arrays.copyOf(args, args.length - 1 + varargCount);
+            for (int i = 0; i < varargCount; i++) {
+                expanded[args.length - 1 + i] = Array.get(array, i);
+            }
+            return expanded;
+        }
+    }
+
+    /**
+     * 只读 Stub 查找表，同时作为代理的 InvocationHandler 与类 Mock 的默认 Answer。
+     */
+    private static final class StubTable implements InvocationHandler, Answer<Object> {
+
+        private static final Object[] NO_ARGS = new Object[0];
+
+        private final Class<?> type;
+        private final Map<Method, CompiledStub[]> stubs;
+        private final Supplier<? extends Answer<?>> defaultAnswerSupplier;
+        private final Supplier<LatencySimulator> latency;
+        private final Map<Method, LongAdder> counters = new ConcurrentHashMap<>();
+        private volatile Answer<?> defaultAnswer;
+
+        private StubTable(Class<?> type, Map<Method, CompiledStub[]> stubs,
+                          Supplier<? extends Answer<?>> defaultAnswer, Supplier<LatencySimulator> latency) {
+            this.type = type;
+            this.stubs = stubs;
+            this.defaultAnswerSupplier = defaultAnswer;
+            this.latency = latency;
+            for (Method method : type.getMethods()) {
+                if (method.getDeclaringClass() != Object.class) {
+                    counters.put(method, new LongAdder());
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, method, args);
+            }
+            Object[] arguments = args == null ? NO_ARGS : method.isVarArgs() ? CompiledStub.expandVarargs(args) : args;
+            return dispatch(new LightInvocation(proxy, method, arguments));
+        }
+
+        @Override
+        public Object answer(InvocationOnMock invocation) throws Throwable {
+            return dispatch(invocation);
+        }
+
+        private Object dispatch(InvocationOnMock invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            LongAdder counter = counters.get(method);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(method, key -> new LongAdder());
+            }
+            counter.increment();
+            LatencySimulator simulator = latency.get();
+            if (simulator != null) {
+                simulator.simulate(invocation.getMock().getClass(), method);
+            }
+            CompiledStub[] candidates = stubs.get(method);
+            if (candidates != null) {
+                Object[] args = invocation.getArguments();
+                for (CompiledStub stub : candidates) {
+                    if (stub.matches(args)) {
+                        return stub.nextAnswer().answer(invocation);
+                    }
+                }
+            }
+            return defaultAnswer().answer(invocation);
+        }
+
+        private Answer<?> defaultAnswer() {
+            Answer<?> answer = defaultAnswer;
+            if (answer == null) {
+                // 并发首次调用时可能重复计算，结果等价
+                answer = defaultAnswerSupplier.get();
+                defaultAnswer = answer;
+            }
+            return answer;
+        }
+
+        private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "ConcurrentMock(" + type.getSimpleName() + ")@"
+                            + Integer.toHexString(System.identityHashCode(proxy));
+            }
+        }
+    }
+
+    /**
+     * 代理调用的轻量 InvocationOnMock，不登记到 Mockito。
+     */
+    private static final class LightInvocation implements InvocationOnMock {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Object mock;
+        private final transient Method method;
+        private final transient Object[] arguments;
+
+        private LightInvocation(Object mock, Method method, Object[] arguments) {
+            this.mock = mock;
+            this.method = method;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Object getMock() {
+            return mock;
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return arguments;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getArgument(int index) {
+            return (T) arguments[index];
+        }
+
+        @Override
+        public <T> T getArgument(int index, Class<T> clazz) {
+            return clazz.cast(arguments[index]);
+        }
+
+        @Override
+        public Object callRealMethod() {
+            throw new UnsupportedOperationException("Concurrent interface mocks have no real method: " + method);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.oppo.usercenter.test.injector.mock;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * 方法匹配器。
+ * 用于 {@link StubRules} 按方法名模式、返回类型或注解声明批量 Stub 规则。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+@FunctionalInterface
+public interface MethodMatcher {
+
+    /**
+     * 判断方法是否匹配。
+     *
+     * @param method 方法
+     * @return true 如果匹配
+     */
+    boolean matches(Method method);
+
+    /**
+     * 与另一个匹配器取交集。
+     *
+     * @param other 另一个匹配器
+     * @return 组合后的匹配器
+     */
+    default MethodMatcher and(MethodMatcher other) {
+        return method -> matches(method) && other.matches(method);
+    }
+
+    /**
+     * 与另一个匹配器取并集。
+     *
+     * @param other 另一个匹配器
+     * @return 组合后的匹配器
+     */
+    default MethodMatcher or(MethodMatcher other) {
+        return method -> matches(method) || other.matches(method);
+    }
+
+    /**
+     * 取反。
+     *
+     * @return 取反后的匹配器
+     */
+    default MethodMatcher negate() {
+        return method -> !matches(method);
+    }
+
+    /**
+     * 匹配任意方法。
+     *
+     * @return 匹配器
+     */
+    static MethodMatcher any() {
+        return method -> true;
+    }
+
+    /**
+     * 按方法名通配符匹配，{@code *} 匹配任意字符序列，例如 {@code save*}、{@code *ById}。
+     * 多个模式之间为"或"关系。
+     *
+     * @param patterns 方法名模式
+     * @return 匹配器
+     */
+    static MethodMatcher nameLike(String... patterns) {
+        if (patterns == null || patterns.length == 0) {
+            throw new IllegalArgumentException("At least one name pattern is required");
+        }
+        String[] copy = patterns.clone();
+        return method -> {
+            String name = method.getName();
+            for (String pattern : copy) {
+                if (globMatches(pattern, name)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * 按返回类型匹配：返回类型为指定类型或其子类型时匹配，基本类型与包装类型视为相同。
+     *
+     * @param type 返回类型
+     * @return 匹配器
+     */
+    static MethodMatcher returns(Class<?> type) {
+        Class<?> expected = Primitives.wrap(type);
+        return method -> method.getReturnType() != void.class
+                && expected.isAssignableFrom(Primitives.wrap(method.getReturnType()));
+    }
+
+    /**
+     * 按方法注解匹配。
+     *
+     * @param annotationType 注解类型
+     * @return 匹配器
+     */
+    static MethodMatcher annotatedWith(Class<? extends Annotation> annotationType) {
+        return method -> method.isAnnotationPresent(annotationType);
+    }
+
+    /**
+     * 通配符匹配（仅支持 {@code *}）。
+     *
+     * @param pattern 模式
+     * @param text 文本
+     * @return true 如果匹配
+     */
+    static boolean globMatches(String pattern, String text) {
+        int p = 0;
+        int t = 0;
+        int starP = -1;
+        int starT = 0;
+        while (t < text.length()) {
+            if (p < pattern.length() && pattern.charAt(p) == '*') {
+                starP = p++;
+                starT = t;
+            } else if (p < pattern.length() && pattern.charAt(p) == text.charAt(t)) {
+                p++;
+                t++;
+            } else if (starP >= 0) {
+                p = starP + 1;
+                t = ++starT;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+}
@@ -0,0 +1,61 @@
+package com.oppo.usercenter.test.injector.mock;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基本类型工具。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+final class Primitives {
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+    private static final Map<Class<?>, Object> DEFAULTS = new HashMap<>();
+
+    static {
+        WRAPPERS.put(boolean.class, Boolean.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(short.class, Short.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(double.class, Double.class);
+        WRAPPERS.put(void.class, Void.class);
+
+        DEFAULTS.put(boolean.class, false);
+        DEFAULTS.put(byte.class, (byte) 0);
+        DEFAULTS.put(short.class, (short) 0);
+        DEFAULTS.put(char.class, '\u0000');
+        DEFAULTS.put(int.class, 0);
+        DEFAULTS.put(long.class, 0L);
+        DEFAULTS.put(float.class, 0.0f);
+        DEFAULTS.put(double.class, 0.0);
+    }
+
+    private Primitives() {
+    }
+
+    /**
+     * 基本类型转换为包装类型，其他类型原样返回。
+     *
+     * @param type 类型
+     * @return 包装类型
+     */
+    static Class<?> wrap(Class<?> type) {
+        Class<?> wrapper = WRAPPERS.get(type);
+        return wrapper != null ? wrapper : type;
+    }
+
+    /**
+     * 基本类型的默认值，其他类型返回 null。
+     *
+     * @param type 类型
+     * @return 默认值
+     */
+    static Object defaultValue(Class<?> type) {
+        return DEFAULTS.get(type);
+    }
+}
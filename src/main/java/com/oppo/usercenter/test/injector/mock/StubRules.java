@@ -0,0 +1,418 @@
+package com.oppo.usercenter.test.injector.mock;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 批量 Stub 规则。
+ * 按方法名模式、返回类型或注解声明返回值，例如 {@code save*} → true、{@code find*} → 空值。
+ * <p>
+ * 规则集不可变，每个类型只编译一次为 Method → Answer 分发表（缓存在规则集自身，随规则集一起回收），
+ * 调用时常数时间查表，不会像逐条 {@code when(...)} 那样在每次调用时线性扫描 Stubbing。
+ * 规则按声明顺序匹配，第一条适用的规则生效；未匹配的方法交给回退 Answer。
+ *
+ * <pre>
+ * StubRules rules = StubRules.create()
+ *         .when(nameLike("save*", "update*")).thenReturn(true)
+ *         .when(nameLike("find*")).thenReturnEmpty();
+ * </pre>
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class StubRules {
+
+    private static final StubRules EMPTY = new StubRules(Collections.emptyList());
+
+    private final List<Rule> rules;
+
+    /**
+     * 按类型缓存的分发表。
+     * 分发表引用规则集本身，不能放进 ClassValue：值会挂在 Mock 类型上，规则集及其返回值永远无法回收。
+     */
+    private final Map<Class<?>, DispatchTable> tables = new ConcurrentHashMap<>();
+
+    private StubRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * 创建空规则集。
+     *
+     * @return 规则集
+     */
+    public static StubRules create() {
+        return EMPTY;
+    }
+
+    /**
+     * 声明一条规则。
+     *
+     * @param matcher 方法匹配器
+     * @return 规则构建器
+     */
+    public RuleBuilder when(MethodMatcher matcher) {
+        if (matcher == null) {
+            throw new IllegalArgumentException("Matcher cannot be null");
+        }
+        return new RuleBuilder(this, matcher);
+    }
+
+    /**
+     * 追加另一个规则集的全部规则（当前规则优先）。
+     *
+     * @param other 另一个规则集
+     * @return 新规则集
+     */
+    public StubRules and(StubRules other) {
+        List<Rule> merged = new ArrayList<>(rules);
+        merged.addAll(other.rules);
+        return new StubRules(Collections.unmodifiableList(merged));
+    }
+
+    /**
+     * 是否没有任何规则。
+     *
+     * @return true 如果为空
+     */
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * 生成指定类型的 Answer。
+     *
+     * @param type Mock 类型
+     * @param fallback 未匹配时的回退 Answer
+     * @return Answer
+     */
+    public Answer<Object> toAnswer(Class<?> type, Answer<?> fallback) {
+        return toAnswer(type, Collections.singletonList(this), fallback);
+    }
+
+    /**
+     * 生成指定类型的 Answer，多个规则集按顺序查找。
+     *
+     * @param type Mock 类型
+     * @param ruleSets 规则集列表
+     * @param fallback 未匹配时的回退 Answer
+     * @return Answer
+     */
+    public static Answer<Object> toAnswer(Class<?> type, List<StubRules> ruleSets, Answer<?> fallback) {
+        List<DispatchTable> dispatchTables = new ArrayList<>(ruleSets.size());
+        for (StubRules ruleSet : ruleSets) {
+            // 空规则集（包括共享的 EMPTY）不缓存分发表，避免静态实例持有 Mock 类型
+            if (!ruleSet.isEmpty()) {
+                dispatchTables.add(ruleSet.tableFor(type));
+            }
+        }
+        return new RuleAnswer(dispatchTables.toArray(new DispatchTable[0]), fallback);
+    }
+
+    private DispatchTable tableFor(Class<?> type) {
+        DispatchTable table = tables.get(type);
+        return table != null ? table : tables.computeIfAbsent(type, key -> new DispatchTable(this, key));
+    }
+
+    private StubRules append(Rule rule) {
+        List<Rule> appended = new ArrayList<>(rules.size() + 1);
+        appended.addAll(rules);
+        appended.add(rule);
+        return new StubRules(Collections.unmodifiableList(appended));
+    }
+
+    /**
+     * 为方法选择第一条适用的规则。
+     *
+     * @param method 方法
+     * @return Answer，没有规则适用时返回 null
+     */
+    private Answer<?> resolve(Method method) {
+        if (method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        for (Rule rule : rules) {
+            if (rule.matcher.matches(method)) {
+                Answer<?> answer = rule.action.answerFor(method);
+                if (answer != null) {
+                    return answer;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 规则构建器。
+     */
+    public static final class RuleBuilder {
+
+        private final StubRules rules;
+        private final MethodMatcher matcher;
+
+        private RuleBuilder(StubRules rules, MethodMatcher matcher) {
+            this.rules = rules;
+            this.matcher = matcher;
+        }
+
+        /**
+         * 返回固定值。仅对返回类型兼容的方法生效（如 {@code thenReturn(true)} 不影响 void 方法）。
+         *
+         * @param value 返回值
+         * @return 规则集
+         */
+        public StubRules thenReturn(Object value) {
+            Answer<Object> answer = invocation -> value;
+            return rules.append(new Rule(matcher, method -> {
+                Class<?> returnType = method.getReturnType();
+                if (returnType == void.class) {
+                    return null;
+                }
+                if (value == null) {
+                    return returnType.isPrimitive() ? null : answer;
+                }
+                return Primitives.wrap(returnType).isInstance(value) ? answer : null;
+            }));
+        }
+
+        /**
+         * 按返回类型返回空值：空集合、{@code Optional.empty()}、空数组、空字符串、0/false，其他类型返回 null。
+         *
+         * @return 规则集
+         */
+        public StubRules thenReturnEmpty() {
+            return rules.append(new Rule(matcher, method ->
+                    method.getReturnType() == void.class ? null : emptyAnswer(method.getReturnType())));
+        }
+
+        /**
+         * 使用自定义 Answer。
+         *
+         * @param answer Answer
+         * @return 规则集
+         */
+        public StubRules thenAnswer(Answer<?> answer) {
+            return rules.append(new Rule(matcher, method -> answer));
+        }
+
+        /**
+         * 抛出异常。
+         *
+         * @param throwable 异常
+         * @return 规则集
+         */
+        public StubRules thenThrow(Throwable throwable) {
+            return rules.append(new Rule(matcher, method -> invocation -> {
+                throw throwable;
+            }));
+        }
+    }
+
+    /**
+     * 计算返回类型对应的空值 Answer。不可变空值共享，可变容器每次调用新建。
+     *
+     * @param type 返回类型
+     * @return Answer
+     */
+    static Answer<Object> emptyAnswer(Class<?> type) {
+        Supplier<Object> fresh = freshEmptySupplier(type);
+        if (fresh != null) {
+            return invocation -> fresh.get();
+        }
+        Object value = sharedEmptyValue(type);
+        return invocation -> value;
+    }
+
+    private static Supplier<Object> freshEmptySupplier(Class<?> type) {
+        if (type == Stream.class) {
+            return Stream::empty;
+        }
+        if (type == ArrayList.class) {
+            return ArrayList::new;
+        }
+        if (type == LinkedList.class) {
+            return LinkedList::new;
+        }
+        if (type == HashSet.class) {
+            return HashSet::new;
+        }
+        if (type == LinkedHashSet.class) {
+            return LinkedHashSet::new;
+        }
+        if (type == TreeSet.class) {
+            return TreeSet::new;
+        }
+        if (type == HashMap.class) {
+            return HashMap::new;
+        }
+        if (type == LinkedHashMap.class) {
+            return LinkedHashMap::new;
+        }
+        if (type == TreeMap.class) {
+            return TreeMap::new;
+        }
+        return null;
+    }
+
+    private static Object sharedEmptyValue(Class<?> type) {
+        if (type.isPrimitive()) {
+            return Primitives.defaultValue(type);
+        }
+        if (type == Boolean.class) {
+            return false;
+        }
+        if (Number.class.isAssignableFrom(type) || type == Character.class) {
+            return sharedEmptyValue(primitiveOf(type));
+        }
+        if (type == String.class || type == CharSequence.class) {
+            return "";
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type == OptionalInt.class) {
+            return OptionalInt.empty();
+        }
+        if (type == OptionalLong.class) {
+            return OptionalLong.empty();
+        }
+        if (type == OptionalDouble.class) {
+            return OptionalDouble.empty();
+        }
+        if (type.isArray()) {
+            return Array.newInstance(type.getComponentType(), 0);
+        }
+        if (type == SortedSet.class || type == NavigableSet.class) {
+            return Collections.emptySortedSet();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == SortedMap.class || type == NavigableMap.class) {
+            return Collections.emptySortedMap();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        if (type == List.class || type == Collection.class || type == Iterable.class) {
+            return Collections.emptyList();
+        }
+        return null;
+    }
+
+    private static Class<?> primitiveOf(Class<?> wrapper) {
+        for (Class<?> primitive : new Class<?>[]{byte.class, short.class, char.class, int.class,
+                long.class, float.class, double.class}) {
+            if (Primitives.wrap(primitive) == wrapper) {
+                return primitive;
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * 单条规则：匹配器 + 动作。
+     */
+    private static final class Rule {
+
+        private final MethodMatcher matcher;
+        private final RuleAction action;
+
+        private Rule(MethodMatcher matcher, RuleAction action) {
+            this.matcher = matcher;
+            this.action = action;
+        }
+    }
+
+    /**
+     * 规则动作：为匹配的方法生成 Answer，返回 null 表示对该方法不适用。
+     */
+    @FunctionalInterface
+    private interface RuleAction {
+        Answer<?> answerFor(Method method);
+    }
+
+    /**
+     * 单个类型的分发表。
+     * 构造时预编译类型的全部可 Mock 方法，之后的查找是一次无锁的哈希查找。
+     */
+    static final class DispatchTable {
+
+        private static final Answer<?> NO_MATCH = invocation -> null;
+
+        private final StubRules rules;
+        private final Map<Method, Answer<?>> answers = new ConcurrentHashMap<>();
+
+        private DispatchTable(StubRules rules, Class<?> type) {
+            this.rules = rules;
+            for (Method method : type.getMethods()) {
+                compile(method);
+            }
+            for (Class<?> current = type; current != null && current != Object.class;
+                 current = current.getSuperclass()) {
+                for (Method method : current.getDeclaredMethods()) {
+                    int modifiers = method.getModifiers();
+                    if (!Modifier.isPrivate(modifiers) && !Modifier.isStatic(modifiers)) {
+                        compile(method);
+                    }
+                }
+            }
+        }
+
+        private Answer<?> compile(Method method) {
+            Answer<?> answer = rules.resolve(method);
+            Answer<?> value = answer != null ? answer : NO_MATCH;
+            Answer<?> existing = answers.putIfAbsent(method, value);
+            return existing != null ? existing : value;
+        }
+
+        /**
+         * 查找方法对应的 Answer。
+         *
+         * @param method 方法
+         * @return Answer，未匹配返回 null
+         */
+        Answer<?> lookup(Method method) {
+            Answer<?> answer = answers.get(method);
+            if (answer == null) {
+                // 预编译未覆盖的方法（如桥接方法）按需编译一次
+                answer = compile(method);
+            }
+            return answer == NO_MATCH ? null : answer;
+        }
+    }
+
+    /**
+     * 基于分发表的 Answer。
+     */
+    static final class RuleAnswer implements Answer<Object> {
+
+        private final DispatchTable[] tables;
+        private final Answer<?> fallback;
+
+        RuleAnswer(DispatchTable[] tables, Answer<?> fallback) {
+            this.tables = tables;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object answer(InvocationOnMock invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            for (DispatchTable table : tables) {
+                Answer<?> answer = table.lookup(method);
+                if (answer != null) {
+                    return answer.answer(invocation);
+                }
+            }
+            return fallback.answer(invocation);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.exception.InjectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 真实对象构造耗时预算。
+ * TestInjector 对每个真实对象的构造器调用计时（不含依赖解析），超出预算的类型被标记为慢类型并出现在报告中；
+ * 开启 autoMock 后，后续解析直接以 Mock 替代作为依赖的慢类型；直接请求的被测对象（getInstance、@InjectMocks、
+ * autoCreate 的目标）始终按配置创建，不会被替换。
+ * <p>
+ * 指定持久化文件后，慢类型（类名 = 最大构造耗时纳秒,未重新计时的运行次数）在 {@link #save()} 时写入 properties 文件，
+ * 下次运行加载后从第一次解析起即生效。被 Mock 替代的类型不再计时，因此记录只在 {@link #recheckAfterRuns(int)}
+ * 次运行内有效，到期后重新构造并计时：仍然超出预算则重新记录，否则从文件中移除。
+ * 同一预算可在多个 TestInjector 之间共享（线程安全）。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class ConstructionBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConstructionBudget.class);
+
+    /**
+     * 持久化记录默认的有效运行次数。
+     */
+    private static final int DEFAULT_RECHECK_RUNS = 5;
+
+    private final long budgetNanos;
+    private volatile boolean autoMock = false;
+    private volatile int recheckRuns = DEFAULT_RECHECK_RUNS;
+    private volatile Path file;
+
+    /**
+     * 本次运行超出预算的类型 → 最大构造耗时（纳秒）。
+     */
+    private final Map<String, Long> slowTypes = new ConcurrentHashMap<>();
+
+    /**
+     * 从持久化文件加载、本次运行尚未重新计时的慢类型。
+     */
+    private final Map<String, PersistedEntry> persistedTypes = new ConcurrentHashMap<>();
+
+    /**
+     * 创建构造耗时预算。
+     *
+     * @param budget 单个构造器允许的最大耗时
+     */
+    public ConstructionBudget(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("Construction budget must be positive: " + budget);
+        }
+        this.budgetNanos = budget.toNanos();
+    }
+
+    /**
+     * 慢类型作为依赖时在后续解析中自动替换为 Mock（final 类无法 Mock，只标记不替换）。
+     *
+     * @return 当前预算
+     */
+    public ConstructionBudget autoMock() {
+        this.autoMock = true;
+        return this;
+    }
+
+    /**
+     * 持久化记录在多少次运行内有效（期间被 Mock 替代、不再计时），到期后重新构造计时，默认 5 次。
+     *
+     * @param runs 运行次数
+     * @return 当前预算
+     */
+    public ConstructionBudget recheckAfterRuns(int runs) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("Recheck interval must be positive: " + runs);
+        }
+        this.recheckRuns = runs;
+        return this;
+    }
+
+    /**
+     * 指定持久化文件，文件存在时立即加载已记录的慢类型。
+     *
+     * @param file properties 文件
+     * @return 当前预算
+     */
+    public ConstructionBudget persistTo(Path file) {
+        this.file = file;
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new InjectionException("Failed to load construction budget file: " + file, e);
+            }
+            for (String name : properties.stringPropertyNames()) {
+                try {
+                    persistedTypes.put(name, PersistedEntry.parse(properties.getProperty(name)));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignore invalid construction budget entry {}={}", name, properties.getProperty(name));
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 预算（纳秒）。
+     *
+     * @return 预算
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * 记录一次真实对象构造耗时，超出预算时标记为慢类型。
+     *
+     * @param clazz 类型
+     * @param elapsedNanos 构造器耗时（纳秒）
+     */
+    public void record(Class<?> clazz, long elapsedNanos) {
+        // 重新计时过的类型以本次结果为准
+        PersistedEntry persisted = persistedTypes.remove(clazz.getName());
+        if (elapsedNanos <= budgetNanos) {
+            if (persisted != null) {
+                logger.info("Constructor of {} took {} ms, no longer exceeding the budget of {} ms",
+                        clazz.getName(), toMillis(elapsedNanos), toMillis(budgetNanos));
+            }
+            return;
+        }
+        boolean first = !slowTypes.containsKey(clazz.getName());
+        slowTypes.merge(clazz.getName(), elapsedNanos, Math::max);
+        if (first) {
+            logger.warn("Constructor of {} took {} ms, exceeding the budget of {} ms{}",
+                    clazz.getName(), toMillis(elapsedNanos), toMillis(budgetNanos),
+                    autoMock && canMock(clazz) ? ", it will be mocked in later resolutions" : "");
+        }
+    }
+
+    /**
+     * 是否应以 Mock 替代该类型（开启 autoMock 且已知为慢类型）。
+     *
+     * @param clazz 类型
+     * @return true 如果应 Mock
+     */
+    public boolean shouldMock(Class<?> clazz) {
+        return autoMock && isSlow(clazz) && canMock(clazz);
+    }
+
+    /**
+     * 是否为慢类型（本次运行超出预算，或持久化文件中已记录且尚未到重新计时的时候）。
+     *
+     * @param clazz 类型
+     * @return true 如果为慢类型
+     */
+    public boolean isSlow(Class<?> clazz) {
+        String name = clazz.getName();
+        if (slowTypes.containsKey(name)) {
+            return true;
+        }
+        PersistedEntry persisted = persistedTypes.get(name);
+        return persisted != null && persisted.runs < recheckRuns;
+    }
+
+    /**
+     * 慢类型报告，按构造耗时从高到低排列；没有慢类型时返回空字符串。
+     *
+     * @return 报告
+     */
+    public String report() {
+        Map<String, Long> all = new HashMap<>();
+        for (Map.Entry<String, PersistedEntry> entry : persistedTypes.entrySet()) {
+            if (entry.getValue().runs < recheckRuns) {
+                all.put(entry.getKey(), entry.getValue().nanos);
+            }
+        }
+        all.putAll(slowTypes);
+        if (all.isEmpty()) {
+            return "";
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(all.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Constructors exceeding the budget of ").append(toMillis(budgetNanos)).append(" ms");
+        sb.append(autoMock ? " (auto-mocked):" : ":").append(System.lineSeparator());
+        for (Map.Entry<String, Long> entry : entries) {
+            sb.append(String.format("  %8d ms  %s%s", toMillis(entry.getValue()), entry.getKey(),
+                    slowTypes.containsKey(entry.getKey()) ? "" : "  (from previous run)"));
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 将慢类型写入持久化文件；未指定文件时不做任何事。
+     * 本次运行重新计时的类型按本次结果写入；未重新计时的记录运行次数加一，到期仍未重新计时的记录被丢弃。
+     */
+    public void save() {
+        Path target = file;
+        if (target == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        for (Map.Entry<String, PersistedEntry> entry : persistedTypes.entrySet()) {
+            PersistedEntry persisted = entry.getValue();
+            if (persisted.runs < recheckRuns) {
+                properties.setProperty(entry.getKey(), persisted.nextRun().format());
+            }
+        }
+        for (Map.Entry<String, Long> entry : slowTypes.entrySet()) {
+            properties.setProperty(entry.getKey(), new PersistedEntry(entry.getValue(), 0).format());
+        }
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(target)) {
+                properties.store(out, "Types whose constructor exceeded the construction budget "
+                        + "(nanos,runs since last measured)");
+            }
+        } catch (IOException e) {
+            throw new InjectionException("Failed to save construction budget file: " + target, e);
+        }
+    }
+
+    private static boolean canMock(Class<?> clazz) {
+        return !Modifier.isFinal(clazz.getModifiers()) && !clazz.isPrimitive() && !clazz.isArray();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 持久化的慢类型记录：构造耗时与自上次计时以来的运行次数。
+     */
+    private static final class PersistedEntry {
+
+        private final long nanos;
+        private final int runs;
+
+        private PersistedEntry(long nanos, int runs) {
+            this.nanos = nanos;
+            this.runs = runs;
+        }
+
+        /**
+         * 解析 {@code 纳秒,运行次数}；旧格式只有纳秒，视为刚计时。
+         */
+        private static PersistedEntry parse(String value) {
+            String[] parts = value.trim().split(",", 2);
+            int runs = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 0;
+            return new PersistedEntry(Long.parseLong(parts[0].trim()), runs);
+        }
+
+        private PersistedEntry nextRun() {
+            return new PersistedEntry(nanos, runs + 1);
+        }
+
+        private String format() {
+            return nanos + "," + runs;
+        }
+    }
+}
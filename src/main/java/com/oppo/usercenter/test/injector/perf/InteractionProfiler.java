@@ -0,0 +1,230 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import org.mockito.invocation.DescribedInvocation;
+import org.mockito.invocation.Invocation;
+import org.mockito.listeners.InvocationListener;
+import org.mockito.listeners.MethodInvocationReport;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mock 交互统计。
+ * 作为 Mockito InvocationListener 挂到 TestInjector 创建的每个 Mock 上，按方法统计调用次数与参数基数，
+ * 用于发现被测代码中的 N+1 调用：例如循环里调用 DAO 5000 次，而一次批量调用即可完成。
+ * <p>
+ * 调用次数使用 LongAdder 分段计数；参数基数用 1024 位线性计数（Linear Counting）估算，
+ * 每次调用只做一次哈希和一次 CAS 置位，不保存参数本身，因此不会延长参数对象的生命周期。
+ * 测试代码中 {@code when(...)}/{@code verify(...)} 触发的调用同样会被计入，阈值应远大于这类调用次数。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class InteractionProfiler implements InvocationListener {
+
+    private final Map<Method, MethodStats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void reportInvocation(MethodInvocationReport report) {
+        DescribedInvocation described = report.getInvocation();
+        if (!(described instanceof Invocation)) {
+            return;
+        }
+        Invocation invocation = (Invocation) described;
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return;
+        }
+        MethodStats methodStats = stats.get(method);
+        if (methodStats == null) {
+            methodStats = stats.computeIfAbsent(method, MethodStats::new);
+        }
+        methodStats.record(invocation.getRawArguments());
+    }
+
+    /**
+     * 所有方法的交互统计，按调用次数从高到低排列。
+     *
+     * @return 交互统计
+     */
+    public List<Interaction> interactions() {
+        List<Interaction> result = new ArrayList<>(stats.size());
+        for (MethodStats methodStats : stats.values()) {
+            result.add(methodStats.snapshot());
+        }
+        result.sort((a, b) -> Long.compare(b.getCalls(), a.getCalls()));
+        return result;
+    }
+
+    /**
+     * 调用次数达到阈值的交互。
+     *
+     * @param threshold 调用次数阈值
+     * @return 频繁交互，按调用次数从高到低排列
+     */
+    public List<Interaction> chattyInteractions(long threshold) {
+        List<Interaction> result = new ArrayList<>();
+        for (Interaction interaction : interactions()) {
+            if (interaction.getCalls() >= threshold) {
+                result.add(interaction);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 频繁交互摘要；没有达到阈值的交互时返回空字符串。
+     *
+     * @param threshold 调用次数阈值
+     * @return 摘要
+     */
+    public String summary(long threshold) {
+        List<Interaction> chatty = chattyInteractions(threshold);
+        if (chatty.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("Mock interactions with at least ").append(threshold).append(" calls:")
+                .append(System.lineSeparator());
+        for (Interaction interaction : chatty) {
+            sb.append(String.format("  %8d calls  %-60s ~%d distinct argument(s)", interaction.getCalls(),
+                    interaction.describeMethod(), interaction.getDistinctArguments()));
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 清空统计。
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    /**
+     * 单个方法的交互统计快照。
+     */
+    public static final class Interaction {
+
+        private final Method method;
+        private final long calls;
+        private final long distinctArguments;
+
+        private Interaction(Method method, long calls, long distinctArguments) {
+            this.method = method;
+            this.calls = calls;
+            this.distinctArguments = distinctArguments;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * 不同参数组合的估算数量（无参方法为 0）。
+         *
+         * @return 估算值
+         */
+        public long getDistinctArguments() {
+            return distinctArguments;
+        }
+
+        /**
+         * 方法描述，如 {@code UserDao.findById(long)}。
+         *
+         * @return 描述
+         */
+        public String describeMethod() {
+            StringBuilder sb = new StringBuilder(method.getDeclaringClass().getSimpleName())
+                    .append('.').append(method.getName()).append('(');
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(parameterTypes[i].getSimpleName());
+            }
+            return sb.append(')').toString();
+        }
+
+        @Override
+        public String toString() {
+            return describeMethod() + " x" + calls;
+        }
+    }
+
+    /**
+     * 单个方法的计数器。
+     */
+    private static final class MethodStats {
+
+        private static final int BITS = 1024;
+
+        private final Method method;
+        private final LongAdder calls = new LongAdder();
+        private final AtomicLongArray bitmap = new AtomicLongArray(BITS / 64);
+
+        private MethodStats(Method method) {
+            this.method = method;
+        }
+
+        void record(Object[] args) {
+            calls.increment();
+            if (args == null || args.length == 0) {
+                return;
+            }
+            int bit = mix(hashArguments(args)) & (BITS - 1);
+            int word = bit >>> 6;
+            long mask = 1L << (bit & 63);
+            long current = bitmap.get(word);
+            while ((current & mask) == 0 && !bitmap.compareAndSet(word, current, current | mask)) {
+                current = bitmap.get(word);
+            }
+        }
+
+        Interaction snapshot() {
+            if (method.getParameterCount() == 0) {
+                return new Interaction(method, calls.sum(), 0);
+            }
+            int zeros = 0;
+            for (int i = 0; i < bitmap.length(); i++) {
+                zeros += Long.bitCount(~bitmap.get(i));
+            }
+            long calls = this.calls.sum();
+            long estimate = zeros == 0 ? calls : Math.round(-BITS * Math.log((double) zeros / BITS));
+            return new Interaction(method, calls, Math.min(estimate, calls));
+        }
+
+        private static int hashArguments(Object[] args) {
+            try {
+                return Arrays.deepHashCode(args);
+            } catch (RuntimeException e) {
+                // 参数的 hashCode 实现抛异常时退化为引用哈希
+                int hash = 1;
+                for (Object arg : args) {
+                    hash = 31 * hash + System.identityHashCode(arg);
+                }
+                return hash;
+            }
+        }
+
+        private static int mix(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            hash *= 0xc2b2ae35;
+            hash ^= hash >>> 16;
+            return hash;
+        }
+    }
+}
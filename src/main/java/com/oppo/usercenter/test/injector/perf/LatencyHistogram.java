@@ -0,0 +1,121 @@
+package com.oppo.usercenter.test.injector.perf;
+
+/**
+ * 对数线性延迟直方图（纳秒）。
+ * 小于 64 的值精确记录，之后每个 2 的幂区间再均分为 32 个子桶，相对误差不超过约 3%；
+ * 固定 1888 个桶覆盖全部正 long 值，记录时不分配内存。
+ * <p>
+ * 非线程安全：每个压测线程持有独立直方图，结束后通过 {@link #merge(LatencyHistogram)} 合并。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class LatencyHistogram {
+
+    private static final int EXACT_BITS = 6;
+    private static final int EXACT_LIMIT = 1 << EXACT_BITS;
+    private static final int SUB_BUCKET_BITS = EXACT_BITS - 1;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = EXACT_LIMIT + (63 - EXACT_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * 记录一个值，负数按 0 记录。
+     *
+     * @param nanos 纳秒
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * 合并另一个直方图。
+     *
+     * @param other 另一个直方图
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * 指定百分位的值。
+     *
+     * @param percentile 百分位，取值 [0, 100]
+     * @return 纳秒，没有记录时返回 0
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be within [0, 100]: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * totalCount));
+        if (rank >= totalCount) {
+            return max;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, midpointOf(i)));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0L : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    static int indexOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long midpointOf(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int offset = index - EXACT_LIMIT;
+        int shift = offset / SUB_BUCKETS + 1;
+        long low = (long) (offset % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return low + (1L << (shift - 1));
+    }
+}
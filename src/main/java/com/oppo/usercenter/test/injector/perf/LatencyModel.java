@@ -0,0 +1,152 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Mock 调用延迟模型。
+ * 为 Mock 的每次调用采样一个延迟，使单元测试能暴露被测代码串行调用多个远程依赖的问题
+ * （例如 10 次 50ms 的调用本可以并行完成）。
+ *
+ * <pre>
+ * TestInjector.builder()
+ *         .latency(PriceClient.class, LatencyModel.logNormal(Duration.ofMillis(50), 0.3))
+ *         .latency(UserDao.class, nameLike("batch*"), LatencyModel.fixed(Duration.ofMillis(20)));
+ * </pre>
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+@FunctionalInterface
+public interface LatencyModel {
+
+    /**
+     * 采样一次延迟。
+     *
+     * @param random 随机源（注入器持有固定种子，结果可复现）
+     * @return 延迟（纳秒），不小于 0
+     */
+    long sampleNanos(Random random);
+
+    /**
+     * 固定延迟。
+     *
+     * @param latency 延迟
+     * @return 延迟模型
+     */
+    static LatencyModel fixed(Duration latency) {
+        long nanos = requireNonNegative(latency);
+        return random -> nanos;
+    }
+
+    /**
+     * [min, max] 区间内均匀分布的延迟。
+     *
+     * @param min 最小延迟
+     * @param max 最大延迟
+     * @return 延迟模型
+     */
+    static LatencyModel uniform(Duration min, Duration max) {
+        long minNanos = requireNonNegative(min);
+        long maxNanos = requireNonNegative(max);
+        if (maxNanos < minNanos) {
+            throw new IllegalArgumentException("max must not be less than min: " + min + " > " + max);
+        }
+        long span = maxNanos - minNanos;
+        return random -> minNanos + (long) (random.nextDouble() * (span + 1));
+    }
+
+    /**
+     * 对数正态分布的延迟，贴近真实网络调用的长尾形态。
+     *
+     * @param median 中位数（p50）
+     * @param sigma 对数标准差，0.25 左右为较窄的分布，1.0 以上尾部很长
+     * @return 延迟模型
+     */
+    static LatencyModel logNormal(Duration median, double sigma) {
+        long medianNanos = requireNonNegative(median);
+        if (sigma < 0) {
+            throw new IllegalArgumentException("sigma must not be negative: " + sigma);
+        }
+        double mu = Math.log(Math.max(1, medianNanos));
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    /**
+     * 按录制的分位数（如线上监控的 p50/p90/p99）分段线性插值的延迟分布。
+     * 0 分位默认为最小的给定值，1 分位默认为最大的给定值。
+     *
+     * @param quantiles 分位数（0~1）→ 延迟，例如 {0.5: 20ms, 0.99: 180ms}
+     * @return 延迟模型
+     */
+    static LatencyModel percentiles(Map<Double, Duration> quantiles) {
+        if (quantiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one percentile is required");
+        }
+        TreeMap<Double, Long> knots = new TreeMap<>();
+        for (Map.Entry<Double, Duration> entry : quantiles.entrySet()) {
+            double quantile = entry.getKey();
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile must be within [0, 1]: " + quantile);
+            }
+            knots.put(quantile, requireNonNegative(entry.getValue()));
+        }
+        long previous = -1;
+        for (long value : knots.values()) {
+            if (value < previous) {
+                throw new IllegalArgumentException("Percentile latencies must not decrease: " + quantiles);
+            }
+            previous = value;
+        }
+        knots.putIfAbsent(0.0, knots.firstEntry().getValue());
+        knots.putIfAbsent(1.0, knots.lastEntry().getValue());
+
+        double[] points = new double[knots.size()];
+        long[] values = new long[knots.size()];
+        int i = 0;
+        for (Map.Entry<Double, Long> entry : knots.entrySet()) {
+            points[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return random -> {
+            double u = random.nextDouble();
+            int upper = 1;
+            while (upper < points.length - 1 && points[upper] < u) {
+                upper++;
+            }
+            int lower = upper - 1;
+            double width = points[upper] - points[lower];
+            double fraction = width == 0 ? 0 : (u - points[lower]) / width;
+            return values[lower] + (long) (fraction * (values[upper] - values[lower]));
+        };
+    }
+
+    /**
+     * 将延迟放大指定倍数，用于模拟依赖变慢。
+     *
+     * @param factor 倍数
+     * @return 延迟模型
+     */
+    default LatencyModel scaled(double factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("factor must not be negative: " + factor);
+        }
+        return random -> (long) (sampleNanos(random) * factor);
+    }
+
+    /**
+     * 校验并转换为纳秒。
+     *
+     * @param duration 时长
+     * @return 纳秒
+     */
+    static long requireNonNegative(Duration duration) {
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("Latency must not be negative: " + duration);
+        }
+        return duration.toNanos();
+    }
+}
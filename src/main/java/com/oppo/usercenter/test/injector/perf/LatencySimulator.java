@@ -0,0 +1,232 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.mock.MethodMatcher;
+import com.oppo.usercenter.test.injector.time.VirtualClock;
+import org.mockito.invocation.DescribedInvocation;
+import org.mockito.invocation.Invocation;
+import org.mockito.listeners.InvocationListener;
+import org.mockito.listeners.MethodInvocationReport;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mock 调用延迟模拟。
+ * 作为 Mockito InvocationListener 挂到注入器创建的 Mock 上，在调用线程中按 {@link LatencyModel} 采样并等待，
+ * 显式 Stub（{@code when(...)}）与默认 Answer 的调用都会产生延迟，串行调用的延迟叠加、并行调用的延迟重叠，
+ * 测试可以直接测量被测代码的端到端耗时。
+ * <p>
+ * 延迟按 Mock 的运行时类匹配配置（ClassValue 缓存），再按方法匹配（每个方法只计算一次）；
+ * 方法级配置优先于类型级配置，同级按声明顺序第一个匹配的生效。
+ * 测试代码中 {@code when(...)}/{@code verify(...)} 触发的调用同样会产生延迟。
+ * 设置虚拟时钟后只推进虚拟时间，不再真实休眠。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class LatencySimulator implements InvocationListener {
+
+    private static final LatencyModel NONE = random -> 0L;
+
+    private final Random random;
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+    private final LongAdder simulatedNanos = new LongAdder();
+    private final LongAdder delayedCalls = new LongAdder();
+    private volatile ClassValue<TypeLatency> byMockClass = newCache();
+    private volatile VirtualClock virtualClock;
+
+    /**
+     * 使用固定种子创建，采样结果可复现。
+     */
+    public LatencySimulator() {
+        this(20261018L);
+    }
+
+    /**
+     * 使用指定种子创建。
+     *
+     * @param seed 随机种子
+     */
+    public LatencySimulator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 为类型的匹配方法配置延迟。
+     *
+     * @param type Mock 类型
+     * @param methods 方法匹配器，{@link MethodMatcher#any()} 表示所有方法
+     * @param model 延迟模型
+     */
+    public void add(Class<?> type, MethodMatcher methods, LatencyModel model) {
+        entries.add(new Entry(type, methods, model, methods == null));
+        byMockClass = newCache();
+    }
+
+    /**
+     * 使用虚拟时钟：延迟推进虚拟时间而不是真实休眠。
+     *
+     * @param clock 虚拟时钟，为 null 时恢复真实休眠
+     */
+    public void useVirtualClock(VirtualClock clock) {
+        this.virtualClock = clock;
+    }
+
+    /**
+     * 为类型的所有方法配置延迟。
+     *
+     * @param type Mock 类型
+     * @param model 延迟模型
+     */
+    public void add(Class<?> type, LatencyModel model) {
+        add(type, null, model);
+    }
+
+    @Override
+    public void reportInvocation(MethodInvocationReport report) {
+        DescribedInvocation described = report.getInvocation();
+        if (!(described instanceof Invocation)) {
+            return;
+        }
+        Invocation invocation = (Invocation) described;
+        simulate(invocation.getMock().getClass(), invocation.getMethod());
+    }
+
+    /**
+     * 为一次调用模拟延迟，供不经过 Mockito 的 Mock（如 {@code ConcurrentMocks}）直接调用。
+     *
+     * @param mockClass Mock 的运行时类
+     * @param method 被调用方法
+     */
+    public void simulate(Class<?> mockClass, Method method) {
+        if (method.getDeclaringClass() == Object.class) {
+            return;
+        }
+        LatencyModel model = byMockClass.get(mockClass).modelFor(method);
+        if (model == NONE) {
+            return;
+        }
+        long nanos = model.sampleNanos(random);
+        if (nanos <= 0) {
+            return;
+        }
+        simulatedNanos.add(nanos);
+        delayedCalls.increment();
+        pause(nanos);
+    }
+
+    /**
+     * 累计模拟的延迟（纳秒），包括并行调用中重叠的部分。
+     *
+     * @return 累计延迟
+     */
+    public long getSimulatedNanos() {
+        return simulatedNanos.sum();
+    }
+
+    /**
+     * 产生延迟的调用次数。
+     *
+     * @return 调用次数
+     */
+    public long getDelayedCalls() {
+        return delayedCalls.sum();
+    }
+
+    /**
+     * 在调用线程中等待指定时长（虚拟时钟模式下推进虚拟时间）。
+     *
+     * @param nanos 纳秒
+     */
+    protected void pause(long nanos) {
+        VirtualClock clock = virtualClock;
+        if (clock != null) {
+            clock.advanceNanos(nanos);
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ClassValue<TypeLatency> newCache() {
+        return new ClassValue<TypeLatency>() {
+            @Override
+            protected TypeLatency computeValue(Class<?> mockClass) {
+                List<Entry> matched = new ArrayList<>();
+                // 方法级配置优先
+                for (Entry entry : entries) {
+                    if (!entry.typeWide && entry.type.isAssignableFrom(mockClass)) {
+                        matched.add(entry);
+                    }
+                }
+                for (Entry entry : entries) {
+                    if (entry.typeWide && entry.type.isAssignableFrom(mockClass)) {
+                        matched.add(entry);
+                    }
+                }
+                return new TypeLatency(matched);
+            }
+        };
+    }
+
+    /**
+     * 单条延迟配置。
+     */
+    private static final class Entry {
+
+        private final Class<?> type;
+        private final MethodMatcher methods;
+        private final LatencyModel model;
+        private final boolean typeWide;
+
+        private Entry(Class<?> type, MethodMatcher methods, LatencyModel model, boolean typeWide) {
+            this.type = type;
+            this.methods = methods;
+            this.model = model;
+            this.typeWide = typeWide;
+        }
+    }
+
+    /**
+     * 一个 Mock 运行时类的延迟配置，按方法缓存匹配结果。
+     */
+    private static final class TypeLatency {
+
+        private final List<Entry> entries;
+        private final Map<Method, LatencyModel> models = new ConcurrentHashMap<>();
+
+        private TypeLatency(List<Entry> entries) {
+            this.entries = entries;
+        }
+
+        LatencyModel modelFor(Method method) {
+            if (entries.isEmpty()) {
+                return NONE;
+            }
+            LatencyModel model = models.get(method);
+            if (model == null) {
+                model = models.computeIfAbsent(method, this::match);
+            }
+            return model;
+        }
+
+        private LatencyModel match(Method method) {
+            for (Entry entry : entries) {
+                if (entry.typeWide || entry.methods.matches(method)) {
+                    return entry.model;
+                }
+            }
+            return NONE;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.util.ReflectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内微型压测工具。
+ * 用多个平台线程或虚拟线程并发驱动注入器构建的目标对象，按固定时长或操作总数停止，
+ * 报告吞吐量与延迟分位数（{@link LatencyHistogram}）。依赖通常是带 {@link LatencyModel} 的 Mock，
+ * 用于检查服务类本身的可伸缩性（锁竞争、串行调用等）。
+ * <pre>{@code
+ * LoadReport report = LoadHarness.of(injector.getInstance(QuoteService.class))
+ *         .threads(8)
+ *         .duration(Duration.ofSeconds(2))
+ *         .run(service -> service.quote("sku"));
+ * }</pre>
+ * 所有线程在预热后同时开始计时；操作数与时长同时设置时先到者为准。
+ *
+ * @param <T> 目标类型
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class LoadHarness<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadHarness.class);
+
+    private final T target;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean virtualThreads = false;
+    private Duration duration;
+    private long operations = -1;
+    private long warmupOperations = 0;
+
+    private LoadHarness(T target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Load test target cannot be null");
+        }
+        this.target = target;
+    }
+
+    /**
+     * 以目标对象创建压测。
+     *
+     * @param target 目标对象
+     * @param <T> 目标类型
+     * @return 压测
+     */
+    public static <T> LoadHarness<T> of(T target) {
+        return new LoadHarness<>(target);
+    }
+
+    /**
+     * 并发线程数，默认为 CPU 核数。
+     *
+     * @param threads 线程数
+     * @return 当前压测
+     */
+    public LoadHarness<T> threads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * 使用虚拟线程（JDK 21+），低版本 JDK 回退为平台线程。
+     *
+     * @return 当前压测
+     */
+    public LoadHarness<T> virtualThreads() {
+        this.virtualThreads = true;
+        return this;
+    }
+
+    /**
+     * 按固定时长运行。
+     *
+     * @param duration 时长
+     * @return 当前压测
+     */
+    public LoadHarness<T> duration(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive: " + duration);
+        }
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * 按操作总数运行（所有线程合计，开始前平均分给各线程）。
+     *
+     * @param operations 操作总数
+     * @return 当前压测
+     */
+    public LoadHarness<T> operations(long operations) {
+        if (operations <= 0) {
+            throw new IllegalArgumentException("Operation count must be positive: " + operations);
+        }
+        this.operations = operations;
+        return this;
+    }
+
+    /**
+     * 每个线程在开始计时前执行的预热操作数，不计入结果。
+     *
+     * @param warmupOperations 预热操作数
+     * @return 当前压测
+     */
+    public LoadHarness<T> warmup(long warmupOperations) {
+        if (warmupOperations < 0) {
+            throw new IllegalArgumentException("Warmup operations must not be negative: " + warmupOperations);
+        }
+        this.warmupOperations = warmupOperations;
+        return this;
+    }
+
+    /**
+     * 运行压测。未设置时长与操作数时运行 1 秒。
+     *
+     * @param workload 单次操作
+     * @return 压测结果
+     */
+    public LoadReport run(Workload<? super T> workload) {
+        long durationNanos = duration != null ? duration.toNanos()
+                : operations > 0 ? Long.MAX_VALUE : Duration.ofSeconds(1).toNanos();
+        ThreadFactory factory = virtualThreads ? virtualThreadFactory() : null;
+        boolean usingVirtual = factory != null;
+        if (factory == null) {
+            factory = platformThreadFactory();
+        }
+
+        LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        LongAdder errors = new LongAdder();
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong deadline = new AtomicLong();
+        List<Thread> workers = new ArrayList<>(threads);
+
+        for (int i = 0; i < threads; i++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histograms[i] = histogram;
+            // 操作数预先分给各线程，计时循环里不再争用共享计数器
+            long quota = operations > 0 ? operations / threads + (i < operations % threads ? 1 : 0) : Long.MAX_VALUE;
+            workers.add(factory.newThread(() -> {
+                for (long w = 0; w < warmupOperations; w++) {
+                    execute(workload, null, errors, null);
+                }
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long stopAt = deadline.get();
+                boolean timed = stopAt != Long.MAX_VALUE;
+                for (long done = 0; done < quota && (!timed || System.nanoTime() - stopAt < 0); done++) {
+                    execute(workload, histogram, errors, firstError);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+
+        long startNanos;
+        try {
+            ready.await();
+            startNanos = System.nanoTime();
+            deadline.set(durationNanos == Long.MAX_VALUE ? Long.MAX_VALUE : startNanos + durationNanos);
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            workers.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load test interrupted", e);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) {
+            merged.merge(histogram);
+        }
+        LoadReport report = new LoadReport(threads, usingVirtual, errors.sum(), firstError.get(), elapsed, merged);
+        if (logger.isDebugEnabled()) {
+            logger.debug("[LoadHarness] {}: {}", target.getClass().getSimpleName(), report.summary());
+        }
+        return report;
+    }
+
+    private void execute(Workload<? super T> workload, LatencyHistogram histogram,
+                         LongAdder errors, AtomicReference<Throwable> firstError) {
+        long begin = System.nanoTime();
+        try {
+            workload.execute(target);
+        } catch (Throwable e) {
+            if (histogram != null) {
+                errors.increment();
+                firstError.compareAndSet(null, e);
+            }
+        }
+        if (histogram != null) {
+            histogram.record(System.nanoTime() - begin);
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "load-harness-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 通过反射获取虚拟线程工厂（{@code Thread.ofVirtual().factory()}），源码保持 Java 8 兼容。
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        Class<?> builderType = ReflectionUtils.loadClassOrNull("java.lang.Thread$Builder");
+        if (builderType == null) {
+            logger.warn("[LoadHarness] Virtual threads require JDK 21+, falling back to platform threads");
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "load-harness-v", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("[LoadHarness] Virtual threads unavailable, falling back to platform threads: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 压测中的单次操作。
+     *
+     * @param <T> 目标类型
+     */
+    @FunctionalInterface
+    public interface Workload<T> {
+
+        /**
+         * 执行一次操作，抛出的异常计入错误数。
+         *
+         * @param target 目标对象
+         * @throws Exception 操作失败
+         */
+        void execute(T target) throws Exception;
+    }
+}
@@ -0,0 +1,122 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压测结果：吞吐量与延迟分位数。
+ * 延迟包含抛出异常的操作，异常次数单独统计。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class LoadReport {
+
+    private final int threads;
+    private final boolean virtualThreads;
+    private final long errors;
+    private final Throwable firstError;
+    private final Duration elapsed;
+    private final LatencyHistogram histogram;
+
+    LoadReport(int threads, boolean virtualThreads, long errors, Throwable firstError,
+               Duration elapsed, LatencyHistogram histogram) {
+        this.threads = threads;
+        this.virtualThreads = virtualThreads;
+        this.errors = errors;
+        this.firstError = firstError;
+        this.elapsed = elapsed;
+        this.histogram = histogram;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * 是否实际使用了虚拟线程（JDK 21 以下请求虚拟线程时回退为平台线程）。
+     *
+     * @return true 如果使用了虚拟线程
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public long getOperations() {
+        return histogram.getCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * 第一个抛出的异常，便于定位压测中的失败。
+     *
+     * @return 异常，没有失败时返回 null
+     */
+    public Throwable getFirstError() {
+        return firstError;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * 吞吐量（每秒操作数）。
+     *
+     * @return 吞吐量
+     */
+    public double getThroughput() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0.0 : histogram.getCount() * 1e9 / nanos;
+    }
+
+    /**
+     * 指定百分位的延迟。
+     *
+     * @param percentile 百分位，取值 [0, 100]
+     * @return 延迟
+     */
+    public Duration latencyAt(double percentile) {
+        return Duration.ofNanos(histogram.valueAtPercentile(percentile));
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(histogram.getMax());
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * 单行摘要，适合直接输出到日志。
+     *
+     * @return 摘要
+     */
+    public String summary() {
+        return String.format("%d ops in %d ms on %d %s threads: %.1f ops/s, "
+                        + "p50=%s p90=%s p99=%s p99.9=%s max=%s, errors=%d",
+                getOperations(), elapsed.toMillis(), threads, virtualThreads ? "virtual" : "platform",
+                getThroughput(), format(50), format(90), format(99), format(99.9),
+                formatNanos(histogram.getMax()), errors);
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    private String format(double percentile) {
+        return formatNanos(histogram.valueAtPercentile(percentile));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+            return String.format("%.2fms", nanos / 1e6);
+        }
+        return String.format("%.1fus", nanos / 1e3);
+    }
+}
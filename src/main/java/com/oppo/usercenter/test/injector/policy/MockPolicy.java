@@ -0,0 +1,328 @@
+package com.oppo.usercenter.test.injector.policy;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Mock 决策策略。
+ * 按包名前缀、类名后缀（如 {@code *Dao}、{@code *Client}、{@code *Gateway}）或类上的注解决定 Mock 还是真实对象，
+ * 几条规则即可覆盖整层 I/O 依赖，无需逐个类型调用 {@code mock(...)}。
+ * <p>
+ * 策略不可变，规则在创建时编译为包名前缀树（按 "." 分段）、类名后缀树（逆序字符）和注解名集合，
+ * 每个类型只需一次 O(包名段数 + 类名长度 + 注解数) 的匹配；TestInjector 会把结果存入 Mock 决策缓存。
+ * Mock 规则优先：同时命中 Mock 规则和真实对象规则时返回 Mock，避免意外创建真实的网络客户端。
+ * 策略只作用于依赖：直接请求的具体类（getInstance、@InjectMocks、autoCreate 的目标）即使命中 Mock 规则也创建真实对象。
+ *
+ * <pre>
+ * MockPolicy policy = MockPolicy.create()
+ *         .mockSuffixes("*Dao", "*Client", "*Gateway")
+ *         .mockPackages("com.oppo.usercenter.integration")
+ *         .mockAnnotatedWith("org.springframework.stereotype.Repository")
+ *         .realSuffixes("*Converter");
+ * </pre>
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class MockPolicy {
+
+    private static final MockPolicy EMPTY = new MockPolicy(Collections.emptyList());
+
+    private static final byte MOCK = 1;
+    private static final byte REAL = 2;
+
+    private final List<Rule> rules;
+    private final PrefixTrie packages = new PrefixTrie();
+    private final SuffixTrie suffixes = new SuffixTrie();
+    private final Map<String, Byte> annotations = new HashMap<>();
+
+    private MockPolicy(List<Rule> rules) {
+        this.rules = rules;
+        for (Rule rule : rules) {
+            switch (rule.kind) {
+                case PACKAGE:
+                    packages.add(rule.pattern, rule.decision);
+                    break;
+                case SUFFIX:
+                    suffixes.add(rule.pattern, rule.decision);
+                    break;
+                default:
+                    annotations.merge(rule.pattern, rule.decision, (a, b) -> (byte) (a | b));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 创建空策略。
+     *
+     * @return 策略
+     */
+    public static MockPolicy create() {
+        return EMPTY;
+    }
+
+    /**
+     * 指定包（含子包）下的类型一律 Mock。
+     *
+     * @param packagePrefixes 包名，如 {@code com.oppo.usercenter.dao}
+     * @return 新策略
+     */
+    public MockPolicy mockPackages(String... packagePrefixes) {
+        return with(Kind.PACKAGE, MOCK, packagePrefixes);
+    }
+
+    /**
+     * 指定包（含子包）下的类型一律创建真实对象。
+     *
+     * @param packagePrefixes 包名
+     * @return 新策略
+     */
+    public MockPolicy realPackages(String... packagePrefixes) {
+        return with(Kind.PACKAGE, REAL, packagePrefixes);
+    }
+
+    /**
+     * 类名以指定后缀结尾的类型一律 Mock。
+     *
+     * @param suffixes 后缀，如 {@code *Dao} 或 {@code Dao}
+     * @return 新策略
+     */
+    public MockPolicy mockSuffixes(String... suffixes) {
+        return with(Kind.SUFFIX, MOCK, suffixes);
+    }
+
+    /**
+     * 类名以指定后缀结尾的类型一律创建真实对象。
+     *
+     * @param suffixes 后缀
+     * @return 新策略
+     */
+    public MockPolicy realSuffixes(String... suffixes) {
+        return with(Kind.SUFFIX, REAL, suffixes);
+    }
+
+    /**
+     * 带有指定注解的类型一律 Mock。
+     *
+     * @param annotationTypes 注解类型
+     * @return 新策略
+     */
+    @SafeVarargs
+    public final MockPolicy mockAnnotatedWith(Class<? extends Annotation>... annotationTypes) {
+        List<Class<?>> types = new ArrayList<>(annotationTypes.length);
+        for (Class<? extends Annotation> annotationType : annotationTypes) {
+            types.add(annotationType);
+        }
+        return with(Kind.ANNOTATION, MOCK, annotationNames(types));
+    }
+
+    /**
+     * 带有指定注解的类型一律 Mock（按注解全限定名匹配，无需依赖注解所在的库）。
+     *
+     * @param annotationNames 注解全限定名
+     * @return 新策略
+     */
+    public MockPolicy mockAnnotatedWith(String... annotationNames) {
+        return with(Kind.ANNOTATION, MOCK, annotationNames);
+    }
+
+    /**
+     * 带有指定注解的类型一律创建真实对象。
+     *
+     * @param annotationTypes 注解类型
+     * @return 新策略
+     */
+    @SafeVarargs
+    public final MockPolicy realAnnotatedWith(Class<? extends Annotation>... annotationTypes) {
+        List<Class<?>> types = new ArrayList<>(annotationTypes.length);
+        for (Class<? extends Annotation> annotationType : annotationTypes) {
+            types.add(annotationType);
+        }
+        return with(Kind.ANNOTATION, REAL, annotationNames(types));
+    }
+
+    /**
+     * 带有指定注解的类型一律创建真实对象（按注解全限定名匹配）。
+     *
+     * @param annotationNames 注解全限定名
+     * @return 新策略
+     */
+    public MockPolicy realAnnotatedWith(String... annotationNames) {
+        return with(Kind.ANNOTATION, REAL, annotationNames);
+    }
+
+    /**
+     * 合并另一个策略的全部规则。
+     *
+     * @param other 另一个策略
+     * @return 新策略
+     */
+    public MockPolicy and(MockPolicy other) {
+        if (other.rules.isEmpty()) {
+            return this;
+        }
+        if (rules.isEmpty()) {
+            return other;
+        }
+        List<Rule> merged = new ArrayList<>(rules);
+        merged.addAll(other.rules);
+        return new MockPolicy(Collections.unmodifiableList(merged));
+    }
+
+    /**
+     * 是否没有任何规则。
+     *
+     * @return true 如果为空
+     */
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * 计算类型的决策。
+     *
+     * @param clazz 类型
+     * @return true 表示 Mock，false 表示真实对象，null 表示没有规则命中
+     */
+    public Boolean decide(Class<?> clazz) {
+        if (rules.isEmpty() || clazz.isPrimitive() || clazz.isArray()) {
+            return null;
+        }
+        int flags = packages.match(packageName(clazz)) | suffixes.match(clazz.getSimpleName());
+        if (!annotations.isEmpty() && (flags & MOCK) == 0) {
+            for (Annotation annotation : clazz.getAnnotations()) {
+                Byte decision = annotations.get(annotation.annotationType().getName());
+                if (decision != null) {
+                    flags |= decision;
+                }
+            }
+        }
+        if ((flags & MOCK) != 0) {
+            return Boolean.TRUE;
+        }
+        if ((flags & REAL) != 0) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private MockPolicy with(Kind kind, byte decision, String... patterns) {
+        List<Rule> merged = new ArrayList<>(rules);
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Policy pattern cannot be empty");
+            }
+            String normalized = kind == Kind.SUFFIX && pattern.startsWith("*") ? pattern.substring(1) : pattern;
+            if (kind == Kind.PACKAGE && normalized.endsWith(".*")) {
+                normalized = normalized.substring(0, normalized.length() - 2);
+            }
+            if (normalized.isEmpty()) {
+                throw new IllegalArgumentException("Policy pattern matches every type: " + pattern);
+            }
+            merged.add(new Rule(kind, decision, normalized));
+        }
+        return new MockPolicy(Collections.unmodifiableList(merged));
+    }
+
+    private static String[] annotationNames(List<Class<?>> annotationTypes) {
+        String[] names = new String[annotationTypes.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = annotationTypes.get(i).getName();
+        }
+        return names;
+    }
+
+    private static String packageName(Class<?> clazz) {
+        String name = clazz.getName();
+        int lastDot = name.lastIndexOf('.');
+        return lastDot < 0 ? "" : name.substring(0, lastDot);
+    }
+
+    private enum Kind {
+        PACKAGE, SUFFIX, ANNOTATION
+    }
+
+    /**
+     * 单条规则。
+     */
+    private static final class Rule {
+
+        private final Kind kind;
+        private final byte decision;
+        private final String pattern;
+
+        private Rule(Kind kind, byte decision, String pattern) {
+            this.kind = kind;
+            this.decision = decision;
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * 包名前缀树：按 "." 分段，{@code com.foo} 匹配 {@code com.foo.bar} 但不匹配 {@code com.foobar}。
+     */
+    private static final class PrefixTrie {
+
+        private final Map<String, PrefixTrie> children = new HashMap<>();
+        private byte decision;
+
+        void add(String packagePrefix, byte flag) {
+            PrefixTrie node = this;
+            for (String segment : packagePrefix.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, key -> new PrefixTrie());
+            }
+            node.decision |= flag;
+        }
+
+        int match(String packageName) {
+            if (children.isEmpty() || packageName.isEmpty()) {
+                return 0;
+            }
+            int flags = 0;
+            PrefixTrie node = this;
+            int start = 0;
+            while (node != null && start <= packageName.length()) {
+                int end = packageName.indexOf('.', start);
+                if (end < 0) {
+                    end = packageName.length();
+                }
+                node = node.children.get(packageName.substring(start, end));
+                if (node != null) {
+                    flags |= node.decision;
+                }
+                start = end + 1;
+            }
+            return flags;
+        }
+    }
+
+    /**
+     * 类名后缀树：按字符逆序存储后缀，从类名末尾向前匹配。
+     */
+    private static final class SuffixTrie {
+
+        private final Map<Character, SuffixTrie> children = new HashMap<>();
+        private byte decision;
+
+        void add(String suffix, byte flag) {
+            SuffixTrie node = this;
+            for (int i = suffix.length() - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(suffix.charAt(i), key -> new SuffixTrie());
+            }
+            node.decision |= flag;
+        }
+
+        int match(String simpleName) {
+            int flags = 0;
+            SuffixTrie node = this;
+            for (int i = simpleName.length() - 1; i >= 0 && node != null; i--) {
+                node = node.children.get(simpleName.charAt(i));
+                if (node != null) {
+                    flags |= node.decision;
+                }
+            }
+            return flags;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.oppo.usercenter.test.injector.time;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+/**
+ * 模拟超时的 Answer。
+ * 推进虚拟时钟（未提供时钟时不等待）后抛出 {@link SocketTimeoutException}；
+ * 方法未声明可抛出该异常时包装为 {@link UncheckedIOException}，避免产生未声明的受检异常。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class TimeoutAnswer implements Answer<Object> {
+
+    private final VirtualClock clock;
+    private final Duration timeout;
+
+    /**
+     * 创建超时 Answer。
+     *
+     * @param clock 虚拟时钟，可为 null
+     * @param timeout 超时时长
+     */
+    public TimeoutAnswer(VirtualClock clock, Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+        }
+        this.clock = clock;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Object answer(InvocationOnMock invocation) throws Throwable {
+        if (clock != null) {
+            clock.advance(timeout);
+        }
+        Method method = invocation.getMethod();
+        SocketTimeoutException timeoutException = new SocketTimeoutException(
+                "Read timed out after " + timeout.toMillis() + " ms (simulated): " + method.getName());
+        if (declaresTimeout(method)) {
+            throw timeoutException;
+        }
+        throw new UncheckedIOException(timeoutException);
+    }
+
+    /**
+     * 方法是否声明了可抛出 SocketTimeoutException（含 IOException、Exception 等父类）。
+     *
+     * @param method 方法
+     * @return true 如果已声明
+     */
+    public static boolean declaresTimeout(Method method) {
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            if (exceptionType.isAssignableFrom(SocketTimeoutException.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,161 @@
+package com.oppo.usercenter.test.injector.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 虚拟时钟。
+ * 只有显式推进时才会前进的 {@link Clock}，由注入器持有并注入到需要 {@code Clock} 的被测对象中；
+ * 模拟的延迟与超时推进虚拟时间而不是真实休眠，超时、重试路径在微秒内跑完。
+ * <p>
+ * 虚拟时间是一条全局时间线：并发调用的延迟会累加，需要测量并行度时请使用真实休眠。
+ * {@link #withZone(ZoneId)} 返回的时钟与原时钟共享同一时间线。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public class VirtualClock extends Clock {
+
+    /**
+     * 默认起始时间，固定值使测试结果可复现。
+     */
+    public static final Instant DEFAULT_START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicLong epochNanos;
+    private final ZoneId zone;
+
+    /**
+     * 从 {@link #DEFAULT_START} 开始、时区为 UTC 的虚拟时钟。
+     */
+    public VirtualClock() {
+        this(DEFAULT_START, ZoneOffset.UTC);
+    }
+
+    /**
+     * 从指定时间开始的虚拟时钟。
+     *
+     * @param start 起始时间
+     * @param zone 时区
+     */
+    public VirtualClock(Instant start, ZoneId zone) {
+        this(new AtomicLong(toEpochNanos(start)), zone);
+    }
+
+    private VirtualClock(AtomicLong epochNanos, ZoneId zone) {
+        this.epochNanos = epochNanos;
+        this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new VirtualClock(epochNanos, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        long nanos = epochNanos.get();
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+
+    @Override
+    public long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(epochNanos.get());
+    }
+
+    /**
+     * 虚拟的单调时间（纳秒），可替代 {@code System.nanoTime()}。
+     *
+     * @return 纳秒
+     */
+    public long nanoTime() {
+        return epochNanos.get();
+    }
+
+    /**
+     * 推进虚拟时间。
+     *
+     * @param duration 时长
+     * @return 推进后的时间
+     */
+    public Instant advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Virtual time cannot go backwards: " + duration);
+        }
+        epochNanos.addAndGet(duration.toNanos());
+        return instant();
+    }
+
+    /**
+     * 推进虚拟时间（纳秒）。
+     *
+     * @param nanos 纳秒
+     */
+    public void advanceNanos(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Virtual time cannot go backwards: " + nanos + "ns");
+        }
+        epochNanos.addAndGet(nanos);
+    }
+
+    /**
+     * 代替 {@code Thread.sleep} 的虚拟休眠：立即返回并推进虚拟时间。
+     *
+     * @param duration 时长
+     */
+    public void sleep(Duration duration) {
+        advance(duration);
+    }
+
+    /**
+     * 以 {@code System.nanoTime()} 风格提供时间的函数，注入到接受 {@code LongSupplier} 的被测代码。
+     *
+     * @return 纳秒时间函数
+     */
+    public LongSupplier nanoTimeSupplier() {
+        return this::nanoTime;
+    }
+
+    /**
+     * 以 {@code Instant} 提供时间的函数。
+     *
+     * @return 时间函数
+     */
+    public Supplier<Instant> instantSupplier() {
+        return this::instant;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof VirtualClock)) {
+            return false;
+        }
+        VirtualClock other = (VirtualClock) obj;
+        return epochNanos == other.epochNanos && zone.equals(other.zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(epochNanos) ^ zone.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualClock[" + instant() + "," + zone + "]";
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+}
@@ -0,0 +1,119 @@
+package com.oppo.usercenter.test.injector.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 以 Class 为键、不阻止类卸载的线程安全缓存。
+ * 值存放在键类型自身的 ClassValue 槽位中，缓存只持有 ClassValue，不持有 Class：
+ * 即使值引用了键类型（如构造器、依赖图节点），临时类加载器（热重载、按测试隔离的加载器、生成的测试类）
+ * 不再被使用时仍可被回收，长时间运行的 IDE 与构建守护进程不会累积 Metaspace。
+ * <p>
+ * 首次访问某个类型后，读取无锁且不分配对象。{@link #computeIfAbsent} 在竞争时可能重复计算，
+ * 但只有一个结果被保留；{@link #clear()} 通过替换 ClassValue 实现，旧槽位随 ClassValue 一起被回收。
+ * 不支持遍历，需要遍历的缓存（如已创建的实例）请使用普通 Map 并在测试结束时清空。
+ *
+ * @param <V> 值类型
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+public final class ClassKeyedMap<V> {
+
+    private volatile ClassValue<AtomicReference<V>> slots = newSlots();
+
+    /**
+     * 获取值。
+     *
+     * @param type 类型
+     * @return 值，不存在时返回 null
+     */
+    public V get(Class<?> type) {
+        return slots.get(type).get();
+    }
+
+    /**
+     * 是否存在值。
+     *
+     * @param type 类型
+     * @return true 如果存在
+     */
+    public boolean containsKey(Class<?> type) {
+        return get(type) != null;
+    }
+
+    /**
+     * 设置值。
+     *
+     * @param type 类型
+     * @param value 值，不能为 null
+     * @return 原值，不存在时返回 null
+     */
+    public V put(Class<?> type, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        return slots.get(type).getAndSet(value);
+    }
+
+    /**
+     * 不存在时设置值。
+     *
+     * @param type 类型
+     * @param value 值，不能为 null
+     * @return 已存在的值，设置成功时返回 null
+     */
+    public V putIfAbsent(Class<?> type, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        AtomicReference<V> slot = slots.get(type);
+        return slot.compareAndSet(null, value) ? null : slot.get();
+    }
+
+    /**
+     * 不存在时计算并设置值。
+     * 计算在锁外进行，并发时可能重复计算，返回最终保留的值。
+     *
+     * @param type 类型
+     * @param function 计算函数，返回 null 时不设置
+     * @return 当前值
+     */
+    public V computeIfAbsent(Class<?> type, Function<Class<?>, ? extends V> function) {
+        AtomicReference<V> slot = slots.get(type);
+        V value = slot.get();
+        if (value != null) {
+            return value;
+        }
+        V computed = function.apply(type);
+        if (computed == null) {
+            return null;
+        }
+        return slot.compareAndSet(null, computed) ? computed : slot.get();
+    }
+
+    /**
+     * 移除值。
+     *
+     * @param type 类型
+     * @return 原值，不存在时返回 null
+     */
+    public V remove(Class<?> type) {
+        return slots.get(type).getAndSet(null);
+    }
+
+    /**
+     * 清空全部值。
+     */
+    public void clear() {
+        slots = newSlots();
+    }
+
+    private static <V> ClassValue<AtomicReference<V>> newSlots() {
+        return new ClassValue<AtomicReference<V>>() {
+            @Override
+            protected AtomicReference<V> computeValue(Class<?> type) {
+                return new AtomicReference<>();
+            }
+        };
+    }
+}
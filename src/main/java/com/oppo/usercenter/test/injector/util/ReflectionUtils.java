@@ -5,6 +5,9 @@ import com.oppo.usercenter.test.injector.exception.InjectionException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -19,15 +22,25 @@ import java.util.List;
  */
 public class ReflectionUtils {
 
+    /**
+     * 每个类型选定的构造器。JVM 级共享：选定后不再变化，可被并行测试的各个注入器同时读取，且不阻止类卸载。
+     */
+    private static final ClassKeyedMap<Constructor<?>> SELECTED_CONSTRUCTORS = new ClassKeyedMap<>();
+
     /**
      * 选择最佳构造器。
      * 策略：优先选择 public 构造器中参数最多的，如果没有 public 构造器，则选择所有构造器中参数最多的。
+     * 选择结果按类型缓存，返回的构造器已 setAccessible，调用方不应修改其可访问性。
      *
      * @param clazz 目标类
      * @param <T> 类型参数
      * @return 最佳构造器
      */
     public static <T> Constructor<T> selectBestConstructor(Class<T> clazz) {
+        return (Constructor<T>) SELECTED_CONSTRUCTORS.computeIfAbsent(clazz, ReflectionUtils::doSelectBestConstructor);
+    }
+
+    private static Constructor<?> doSelectBestConstructor(Class<?> clazz) {
         Constructor<?>[] constructors = clazz.getDeclaredConstructors();
 
         if (constructors.length == 0) {
@@ -60,7 +73,7 @@ public class ReflectionUtils {
         }
 
         selected.setAccessible(true);
-        return (Constructor<T>) selected;
+        return selected;
     }
 
     /**
@@ -125,4 +138,47 @@ public class ReflectionUtils {
         int modifiers = clazz.getModifiers();
         return !Modifier.isAbstract(modifiers) && !clazz.isInterface();
     }
+
+    /**
+     * 泛型类型的第一个类型参数对应的类，例如 {@code Supplier<Foo>} → Foo、{@code Provider<? extends Foo>} → Foo。
+     *
+     * @param type 泛型类型
+     * @return 类型参数的原始类型，无法确定（非参数化类型、类型变量等）时返回 null
+     */
+    public static Class<?> firstTypeArgument(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return null;
+        }
+        Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+        return arguments.length == 0 ? null : rawClassOf(arguments[0]);
+    }
+
+    private static Class<?> rawClassOf(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawClassOf(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+            Class<?> bound = upperBounds.length == 0 ? null : rawClassOf(upperBounds[0]);
+            return bound == Object.class ? null : bound;
+        }
+        return null;
+    }
+
+    /**
+     * 按名称加载类，类不存在时返回 null（用于可选依赖或高版本 JDK 才有的类型）。
+     *
+     * @param className 类全限定名
+     * @return 类，不存在返回 null
+     */
+    public static Class<?> loadClassOrNull(String className) {
+        try {
+            return Class.forName(className, false, ReflectionUtils.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
 }
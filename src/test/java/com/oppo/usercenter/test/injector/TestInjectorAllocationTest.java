@@ -0,0 +1,92 @@
+package com.oppo.usercenter.test.injector;
+
+import com.oppo.usercenter.test.injector.testdata.ComplexManager;
+import com.oppo.usercenter.test.injector.testdata.ConfigService;
+import com.oppo.usercenter.test.injector.testdata.SimpleService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * getInstance 热路径的分配回归测试。
+ * 通过 ThreadMXBean 的线程分配计数统计每次调用分配的字节数，缓存命中路径应为 0。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class TestInjectorAllocationTest {
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 100_000;
+
+    /**
+     * 允许的每次调用分配字节数，容纳计数读取本身的少量开销。
+     */
+    private static final double MAX_BYTES_PER_CALL = 0.01;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    private static volatile Object sink;
+
+    @BeforeAll
+    static void checkAllocationCounters() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Thread allocation counters unavailable");
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void should_notAllocate_when_cachedInstancesRequested() {
+        TestInjector injector = TestInjector.builder()
+                .instance(SimpleService.class, mock(SimpleService.class))
+                .buildInjector();
+        injector.getInstance(ComplexManager.class);
+
+        double bytes = allocatedBytesPerCall(() -> {
+            sink = injector.getInstance(ComplexManager.class);
+            sink = injector.getInstance(ConfigService.class);
+            sink = injector.getInstance(SimpleService.class);
+        });
+
+        assertThat(bytes).isLessThan(MAX_BYTES_PER_CALL);
+    }
+
+    @Test
+    void should_notAllocate_when_debugDisabledAndFrozen() {
+        TestInjector injector = new TestInjector();
+        injector.getInstance(ComplexManager.class);
+        injector.freeze();
+
+        double bytes = allocatedBytesPerCall(() -> sink = injector.getInstance(ComplexManager.class));
+
+        assertThat(bytes).isLessThan(MAX_BYTES_PER_CALL);
+    }
+
+    @Test
+    void should_detectAllocation_when_bodyAllocates() {
+        double bytes = allocatedBytesPerCall(() -> sink = new Object[]{sink});
+
+        assertThat(bytes).isGreaterThanOrEqualTo(16.0);
+    }
+
+    private static double allocatedBytesPerCall(Runnable body) {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            body.run();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            body.run();
+        }
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return (after - before) / (double) MEASURED_CALLS;
+    }
+}
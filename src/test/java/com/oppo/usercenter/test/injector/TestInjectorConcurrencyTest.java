@@ -0,0 +1,252 @@
+package com.oppo.usercenter.test.injector;
+
+import com.oppo.usercenter.test.injector.exception.CircularDependencyException;
+import com.oppo.usercenter.test.injector.testdata.ComplexManager;
+import com.oppo.usercenter.test.injector.testdata.SimpleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * TestInjector 多线程测试。
+ * 多个线程同时解析重叠的依赖图，验证每个类型只创建一次、循环依赖正确报错且不会死锁；
+ * 带 benchmark 标签的用例统计不同线程数下 getInstance 的吞吐与尾延迟（mvn test -Pbenchmark）。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class TestInjectorConcurrencyTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    static final AtomicInteger LEAF_CREATED = new AtomicInteger();
+    static final AtomicInteger MIDDLE_CREATED = new AtomicInteger();
+    static final AtomicInteger ROOT_CREATED = new AtomicInteger();
+
+    public static class Leaf {
+        public Leaf() {
+            LEAF_CREATED.incrementAndGet();
+            pause();
+        }
+    }
+
+    public static class Middle {
+        private final Leaf leaf;
+
+        public Middle(Leaf leaf, SimpleService simpleService) {
+            this.leaf = leaf;
+            MIDDLE_CREATED.incrementAndGet();
+            pause();
+        }
+    }
+
+    public static class Root {
+        private final Middle middle;
+        private final Leaf leaf;
+
+        public Root(Middle middle, Leaf leaf) {
+            this.middle = middle;
+            this.leaf = leaf;
+            ROOT_CREATED.incrementAndGet();
+        }
+    }
+
+    public static class CycleA {
+        public CycleA(CycleB b) {
+            pause();
+        }
+    }
+
+    public static class CycleB {
+        public CycleB(CycleA a) {
+            pause();
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @BeforeEach
+    void resetCounters() {
+        LEAF_CREATED.set(0);
+        MIDDLE_CREATED.set(0);
+        ROOT_CREATED.set(0);
+    }
+
+    @Test
+    void should_createEachTypeExactlyOnce_when_resolvedConcurrently() throws Exception {
+        int rounds = 20;
+        for (int round = 0; round < rounds; round++) {
+            TestInjector injector = new TestInjector();
+            List<Class<?>> order = Arrays.asList(Root.class, Middle.class, Leaf.class);
+            List<Object[]> results = runConcurrently(THREADS, index -> {
+                Object[] resolved = new Object[order.size()];
+                for (int i = 0; i < order.size(); i++) {
+                    int k = (i + index) % order.size();
+                    resolved[k] = injector.getInstance(order.get(k));
+                }
+                return resolved;
+            });
+
+            for (Object[] resolved : results) {
+                assertThat(resolved).containsExactly(results.get(0));
+            }
+            Root root = (Root) results.get(0)[0];
+            assertThat(root.middle).isSameAs(results.get(0)[1]);
+            assertThat(root.leaf).isSameAs(root.middle.leaf);
+        }
+
+        assertThat(ROOT_CREATED.get()).isEqualTo(rounds);
+        assertThat(MIDDLE_CREATED.get()).isEqualTo(rounds);
+        assertThat(LEAF_CREATED.get()).isEqualTo(rounds);
+    }
+
+    @Test
+    void should_constructOnceAndShareSpy_when_spiedWhileResolvedConcurrently() throws Exception {
+        int rounds = 20;
+        for (int round = 0; round < rounds; round++) {
+            TestInjector injector = new TestInjector();
+            List<Object> results = runConcurrently(THREADS, index -> index == 0
+                    ? injector.createSpy(Middle.class) : injector.getInstance(Middle.class));
+
+            Object cached = injector.getInstance(Middle.class);
+            for (Object resolved : results.subList(1, results.size())) {
+                assertThat(resolved).isSameAs(cached);
+            }
+            if (Mockito.mockingDetails(cached).isSpy()) {
+                assertThat(results.get(0)).isSameAs(cached);
+            }
+        }
+
+        assertThat(MIDDLE_CREATED.get()).isEqualTo(rounds);
+    }
+
+    @Test
+    void should_reportCircularDependency_when_cycleResolvedFromManyThreads() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int round = 0; round < 20; round++) {
+                TestInjector injector = new TestInjector();
+                List<Throwable> errors = runConcurrently(THREADS, index -> {
+                    try {
+                        Class<?> type = index % 2 == 0 ? CycleA.class : CycleB.class;
+                        injector.getInstance(type);
+                        return null;
+                    } catch (Throwable t) {
+                        return t;
+                    }
+                });
+
+                for (Throwable error : errors) {
+                    assertThat(error).isInstanceOf(CircularDependencyException.class);
+                }
+            }
+        });
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark_getInstanceThroughput_when_threadCountScales(TestReporter reporter) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        reporter.publishEntry("columns", String.format("%-8s %14s %10s %10s %10s",
+                "threads", "ops/s", "p50(ns)", "p99(ns)", "p99.9(ns)"));
+        for (int threads : threadCounts) {
+            TestInjector injector = new TestInjector();
+            injector.getInstance(ComplexManager.class);
+            long durationNanos = TimeUnit.MILLISECONDS.toNanos(500);
+            int samplesPerThread = 200_000;
+
+            List<long[]> samples = runConcurrently(threads, index -> {
+                long[] latencies = new long[samplesPerThread];
+                int count = 0;
+                long deadline = System.nanoTime() + durationNanos;
+                Class<?>[] types = {ComplexManager.class, SimpleService.class, Root.class, Leaf.class};
+                long operations = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    injector.getInstance(types[(int) (operations++ & 3)]);
+                    long elapsed = System.nanoTime() - start;
+                    if (count < samplesPerThread) {
+                        latencies[count++] = elapsed;
+                    }
+                }
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = operations;
+                return result;
+            });
+
+            long totalOperations = 0;
+            List<Long> all = new ArrayList<>();
+            for (long[] perThread : samples) {
+                totalOperations += perThread[perThread.length - 1];
+                for (int i = 0; i < perThread.length - 1; i++) {
+                    all.add(perThread[i]);
+                }
+            }
+            long[] sorted = all.stream().mapToLong(Long::longValue).sorted().toArray();
+            reporter.publishEntry("threads=" + threads, String.format("%-8d %14.0f %10d %10d %10d", threads,
+                    totalOperations / (durationNanos / 1e9),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999)));
+            assertThat(totalOperations).isPositive();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+
+    /**
+     * 在 N 个线程中同时执行任务（CyclicBarrier 对齐起跑），按线程序号返回结果。
+     */
+    private static <R> List<R> runConcurrently(int threads, IndexedTask<R> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return task.run(index);
+                }));
+            }
+            List<R> results = new ArrayList<>();
+            for (Future<R> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask<R> {
+        R run(int index) throws Exception;
+    }
+}
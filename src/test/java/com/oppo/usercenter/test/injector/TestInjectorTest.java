@@ -1,12 +1,18 @@
 package com.oppo.usercenter.test.injector;
 
 import com.oppo.usercenter.test.injector.exception.CircularDependencyException;
+import com.oppo.usercenter.test.injector.exception.InjectionException;
+import com.oppo.usercenter.test.injector.graph.NodeKind;
 import com.oppo.usercenter.test.injector.testdata.ComplexManager;
 import com.oppo.usercenter.test.injector.testdata.ConfigService;
 import com.oppo.usercenter.test.injector.testdata.SimpleManager;
 import com.oppo.usercenter.test.injector.testdata.SimpleService;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
@@ -19,6 +25,109 @@ import static org.mockito.Mockito.*;
  */
 class TestInjectorTest {
 
+    public static class HeavyReport {
+        static final AtomicInteger CONSTRUCTIONS = new AtomicInteger();
+
+        public HeavyReport() {
+            CONSTRUCTIONS.incrementAndGet();
+        }
+    }
+
+    public static class ReportController {
+        private final Supplier<HeavyReport> report;
+        private final Optional<ConfigService> configService;
+        private final Optional<SimpleService> simpleService;
+
+        public ReportController(Supplier<HeavyReport> report, Optional<ConfigService> configService,
+                                Optional<SimpleService> simpleService) {
+            this.report = report;
+            this.configService = configService;
+            this.simpleService = simpleService;
+        }
+    }
+
+    public static class ChickenService {
+        private final Supplier<EggService> eggService;
+
+        public ChickenService(Supplier<EggService> eggService) {
+            this.eggService = eggService;
+        }
+    }
+
+    public static class EggService {
+        private final ChickenService chickenService;
+
+        public EggService(ChickenService chickenService) {
+            this.chickenService = chickenService;
+        }
+    }
+
+    public interface RateSource {
+        double rate();
+    }
+
+    public static class AuditTrail {
+    }
+
+    public static class Pricing {
+        private final RateSource rateSource;
+
+        public Pricing(RateSource rateSource) {
+            this.rateSource = rateSource;
+        }
+    }
+
+    public static class Checkout {
+        private final Pricing pricing;
+        private final AuditTrail auditTrail;
+
+        public Checkout(Pricing pricing, AuditTrail auditTrail) {
+            this.pricing = pricing;
+            this.auditTrail = auditTrail;
+        }
+    }
+
+    public static class FlakyGateway {
+        static volatile boolean failing;
+
+        public FlakyGateway() {
+            if (failing) {
+                throw new IllegalStateException("gateway unavailable");
+            }
+        }
+    }
+
+    public static class Billing {
+        private final FlakyGateway gateway;
+
+        public Billing(FlakyGateway gateway) {
+            this.gateway = gateway;
+        }
+    }
+
+    public static class Invoicing {
+        private final Billing billing;
+
+        public Invoicing(Billing billing) {
+            this.billing = billing;
+        }
+    }
+
+    public static class OrderFlow {
+        public OrderFlow(StockFlow stockFlow) {
+        }
+    }
+
+    public static class StockFlow {
+        public StockFlow(PaymentFlow paymentFlow) {
+        }
+    }
+
+    public static class PaymentFlow {
+        public PaymentFlow(OrderFlow orderFlow) {
+        }
+    }
+
     @Test
     void should_createSimpleInstance_when_usingStaticMethod() {
         SimpleManager manager = TestInjector.createInstance(SimpleManager.class);
@@ -126,8 +235,32 @@ class TestInjectorTest {
 
     @Test
     void should_throwCircularDependencyException_when_circularDetected() {
-        // 由于我们的测试数据没有循环依赖，这里创建一个特殊场景
-        // 暂时跳过此测试，在有循环依赖的测试数据时再测试
+        TestInjector injector = new TestInjector();
+
+        assertThatThrownBy(() -> injector.getInstance(OrderFlow.class))
+                .isInstanceOfSatisfying(CircularDependencyException.class, e -> assertThat(e.getDependencyPath())
+                        .containsExactly(OrderFlow.class, StockFlow.class, PaymentFlow.class, OrderFlow.class));
+        // 失败后创建中标记已释放，再次解析报告同样的循环而不是残留路径
+        assertThatThrownBy(() -> injector.getInstance(StockFlow.class))
+                .isInstanceOfSatisfying(CircularDependencyException.class, e -> assertThat(e.getDependencyPath())
+                        .containsExactly(StockFlow.class, PaymentFlow.class, OrderFlow.class, StockFlow.class));
+    }
+
+    @Test
+    void should_retryWholeChain_when_deepDependencyFailedBefore() {
+        TestInjector injector = new TestInjector();
+        FlakyGateway.failing = true;
+        try {
+            assertThatThrownBy(() -> injector.getInstance(Invoicing.class))
+                    .isInstanceOf(InjectionException.class)
+                    .hasMessageContaining(FlakyGateway.class.getName());
+        } finally {
+            FlakyGateway.failing = false;
+        }
+
+        Invoicing invoicing = injector.getInstance(Invoicing.class);
+
+        assertThat(invoicing.billing.gateway).isSameAs(injector.getInstance(FlakyGateway.class));
     }
 
     @Test
@@ -154,4 +287,139 @@ class TestInjectorTest {
         assertThat(result).contains("Config Value");
         assertThat(result).contains("Service Data");
     }
+
+    @Test
+    void should_serveResolvedInstances_when_frozen() {
+        TestInjector injector = new TestInjector();
+        SimpleManager manager = injector.getInstance(SimpleManager.class);
+
+        injector.freeze();
+
+        assertThat(injector.isFrozen()).isTrue();
+        assertThat(injector.getInstance(SimpleManager.class)).isSameAs(manager);
+        assertThat(injector.getInstance(SimpleService.class)).isSameAs(manager.getSimpleService());
+    }
+
+    @Test
+    void should_rejectUnresolvedTypeAndMutation_when_frozen() {
+        TestInjector injector = new TestInjector();
+        injector.getInstance(SimpleManager.class);
+        injector.freeze();
+
+        assertThatThrownBy(() -> injector.getInstance(ComplexManager.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(ComplexManager.class.getName());
+        assertThatThrownBy(() -> injector.registerInstanceInternal(ConfigService.class, mock(ConfigService.class)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void should_unfreeze_when_reset() {
+        TestInjector.Builder builder = TestInjector.builder();
+        TestInjector injector = builder.buildInjector().freeze();
+
+        assertThatThrownBy(() -> builder.mock(SimpleService.class)).isInstanceOf(IllegalStateException.class);
+
+        injector.reset();
+
+        assertThat(injector.isFrozen()).isFalse();
+        assertThat(injector.getInstance(ComplexManager.class)).isNotNull();
+    }
+
+    @Test
+    void should_clearMockStateAndCaches_when_released() {
+        ConfigService sharedConfig = mock(ConfigService.class);
+        when(sharedConfig.getConfig()).thenReturn("Shared");
+        TestInjector injector = TestInjector.builder()
+                .instance(ConfigService.class, sharedConfig)
+                .buildInjector();
+        ComplexManager manager = injector.getInstance(ComplexManager.class);
+        SimpleService service = manager.getSimpleService();
+        when(service.getData()).thenReturn("Data");
+        manager.execute();
+
+        injector.release();
+
+        // 注入器创建的 Mock 被重置，用户注册的 Mock 只清除调用记录
+        assertThat(service.getData()).isNull();
+        assertThat(mockingDetails(sharedConfig).getInvocations()).isEmpty();
+        assertThat(sharedConfig.getConfig()).isEqualTo("Shared");
+        assertThat(injector.ownedInstances()).isEmpty();
+        assertThat(injector.getInstance(ComplexManager.class)).isNotSameAs(manager);
+    }
+
+    @Test
+    void should_deferConstruction_when_dependencyRequestedThroughSupplier() {
+        TestInjector injector = TestInjector.builder().mock(ConfigService.class).buildInjector();
+        int before = HeavyReport.CONSTRUCTIONS.get();
+
+        ReportController controller = injector.getInstance(ReportController.class);
+
+        assertThat(HeavyReport.CONSTRUCTIONS.get()).isEqualTo(before);
+        assertThat(controller.report.get()).isSameAs(injector.getInstance(HeavyReport.class));
+        assertThat(HeavyReport.CONSTRUCTIONS.get()).isEqualTo(before + 1);
+        // Optional 只在类型已配置时非空
+        assertThat(controller.configService).containsSame(injector.getInstance(ConfigService.class));
+        assertThat(controller.simpleService).isEmpty();
+    }
+
+    @Test
+    void should_breakConstructorCycle_when_oneSideUsesSupplier() {
+        TestInjector injector = new TestInjector();
+
+        ChickenService chicken = injector.getInstance(ChickenService.class);
+
+        assertThat(chicken.eggService.get().chickenService).isSameAs(chicken);
+    }
+
+    @Test
+    void should_rebuildOnlyDependents_when_bindingReplaced() {
+        TestInjector injector = new TestInjector();
+        Checkout before = injector.getInstance(Checkout.class);
+        RateSource replacement = mock(RateSource.class);
+
+        assertThat(injector.rebind(RateSource.class, replacement))
+                .containsExactly(RateSource.class, Pricing.class, Checkout.class);
+        Checkout after = injector.getInstance(Checkout.class);
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.pricing.rateSource).isSameAs(replacement);
+        assertThat(after.auditTrail).isSameAs(before.auditTrail);
+    }
+
+    @Test
+    void should_replaceCachedInstanceAndRewireDependents_when_spyingResolvedType() {
+        TestInjector injector = new TestInjector();
+        ComplexManager before = injector.getInstance(ComplexManager.class);
+        SimpleManager real = injector.getInstance(SimpleManager.class);
+
+        SimpleManager spy = injector.createSpy(SimpleManager.class);
+
+        assertThat(mockingDetails(spy).isSpy()).isTrue();
+        assertThat(injector.getInstance(SimpleManager.class)).isSameAs(spy);
+        assertThat(injector.createSpy(SimpleManager.class)).isSameAs(spy);
+        assertThat(spy.getSimpleService()).isSameAs(real.getSimpleService());
+        // 依赖方失效后重建，拿到的是 Spy 而不是原来的真实对象
+        ComplexManager after = injector.getInstance(ComplexManager.class);
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getSimpleManager()).isSameAs(spy);
+        doReturn("stubbed").when(spy).process();
+        assertThat(after.getSimpleManager().process()).isEqualTo("stubbed");
+        verify(spy).process();
+        assertThat(injector.dependencyGraph(SimpleManager.class).getNode(SimpleManager.class).getKind())
+                .isEqualTo(NodeKind.SPY);
+    }
+
+    @Test
+    void should_recreateTypeAndDependents_when_invalidated() {
+        TestInjector injector = new TestInjector();
+        Checkout before = injector.getInstance(Checkout.class);
+
+        assertThat(injector.invalidate(AuditTrail.class)).containsExactly(AuditTrail.class, Checkout.class);
+        Checkout after = injector.getInstance(Checkout.class);
+
+        assertThat(after.auditTrail).isNotSameAs(before.auditTrail);
+        assertThat(after.pricing).isSameAs(before.pricing);
+        assertThat(injector.invalidate(Checkout.class)).containsExactly(Checkout.class);
+    }
 }
@@ -0,0 +1,215 @@
+package com.oppo.usercenter.test.injector.annotation;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.exception.InjectionException;
+import com.oppo.usercenter.test.injector.testdata.ComplexManager;
+import com.oppo.usercenter.test.injector.testdata.ConfigService;
+import com.oppo.usercenter.test.injector.testdata.SimpleManager;
+import com.oppo.usercenter.test.injector.testdata.SimpleService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.listeners.MockCreationListener;
+
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AnnotationProcessor 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class AnnotationProcessorTest {
+
+    static class ParallelFixture {
+
+        @Mock
+        private SimpleService simpleService;
+
+        @Mock
+        private ConfigService configService;
+
+        @Spy
+        private List<String> spyList = new ArrayList<>();
+
+        @Spy
+        private SimpleManager spyManager;
+
+        @InjectMocks
+        private ComplexManager manager;
+    }
+
+    public static class CountingManager {
+        static final AtomicInteger CONSTRUCTIONS = new AtomicInteger();
+        static volatile CountingManager lastConstructed;
+
+        private final SimpleService simpleService;
+
+        public CountingManager(SimpleService simpleService) {
+            CONSTRUCTIONS.incrementAndGet();
+            lastConstructed = this;
+            this.simpleService = simpleService;
+        }
+
+        public SimpleService getSimpleService() {
+            return simpleService;
+        }
+    }
+
+    static class SpyFixture {
+
+        @Mock
+        private SimpleService simpleService;
+
+        @Spy
+        private CountingManager countingManager;
+    }
+
+    static final class FinalType {
+    }
+
+    static final class AnotherFinalType {
+    }
+
+    static class FailingFixture {
+
+        @Mock
+        private SimpleService simpleService;
+
+        @Mock
+        private FinalType first;
+
+        @Mock
+        private AnotherFinalType second;
+    }
+
+    static class SinglePassFixture {
+
+        @Mock(name = "primary")
+        private SimpleService simpleService;
+
+        @Mock
+        private ConfigService configService;
+
+        @Captor
+        private ArgumentCaptor<List<String>> listCaptor;
+
+        @InjectMocks
+        private ComplexManager manager;
+    }
+
+    static class InjectMocksFixture {
+
+        @InjectMocks
+        private SimpleManager manager;
+
+        void mockParameter(@Mock SimpleService simpleService) {
+        }
+
+        void mockAfterTarget(@Injected SimpleManager manager, @Mock SimpleService simpleService) {
+        }
+    }
+
+    @Test
+    void should_createEachMockOnce_when_processingAnnotations() {
+        AtomicInteger created = new AtomicInteger();
+        MockCreationListener listener = (mock, settings) -> created.incrementAndGet();
+        Mockito.framework().addListener(listener);
+        SinglePassFixture fixture = new SinglePassFixture();
+        try {
+            new AnnotationProcessor(new TestInjector()).processAnnotations(fixture);
+        } finally {
+            Mockito.framework().removeListener(listener);
+        }
+
+        assertThat(created.get()).isEqualTo(2);
+        assertThat(fixture.manager.getSimpleService()).isSameAs(fixture.simpleService);
+        assertThat(fixture.manager.getSimpleManager().getSimpleService()).isSameAs(fixture.simpleService);
+        assertThat(Mockito.mockingDetails(fixture.simpleService).getMockCreationSettings().getMockName().toString())
+                .isEqualTo("primary");
+        assertThat(fixture.listCaptor).isNotNull();
+    }
+
+    @Test
+    void should_injectAllFields_when_parallelEnabled() {
+        ParallelFixture fixture = new ParallelFixture();
+
+        new AnnotationProcessor(new TestInjector()).enableParallel().processAnnotations(fixture);
+
+        assertThat(Mockito.mockingDetails(fixture.simpleService).isMock()).isTrue();
+        assertThat(Mockito.mockingDetails(fixture.spyList).isSpy()).isTrue();
+        assertThat(Mockito.mockingDetails(fixture.spyManager).isSpy()).isTrue();
+        assertThat(fixture.spyManager.getSimpleService()).isSameAs(fixture.simpleService);
+        assertThat(fixture.manager.getSimpleService()).isSameAs(fixture.simpleService);
+        assertThat(fixture.manager.getConfigService()).isSameAs(fixture.configService);
+        assertThat(fixture.manager.getSimpleManager()).isSameAs(fixture.spyManager);
+    }
+
+    @Test
+    void should_constructSpyOnceAndCacheOnlySpy_when_fieldIsNull() {
+        TestInjector injector = new TestInjector();
+        SpyFixture fixture = new SpyFixture();
+        int before = CountingManager.CONSTRUCTIONS.get();
+
+        new AnnotationProcessor(injector).processAnnotations(fixture);
+
+        assertThat(CountingManager.CONSTRUCTIONS.get() - before).isEqualTo(1);
+        // 构造器直接作用于 Spy，构造期间泄漏出去的 this 就是 Spy 本身
+        assertThat(CountingManager.lastConstructed).isSameAs(fixture.countingManager);
+        assertThat(Mockito.mockingDetails(fixture.countingManager).isSpy()).isTrue();
+        assertThat(fixture.countingManager.getSimpleService()).isSameAs(fixture.simpleService);
+        assertThat(injector.getInstance(CountingManager.class)).isSameAs(fixture.countingManager);
+        assertThat(injector.ownedInstances()).filteredOn(CountingManager.class::isInstance).hasSize(1);
+    }
+
+    @Test
+    void should_reportFirstFailureInDeclarationOrder_when_parallelCreationFails() {
+        FailingFixture fixture = new FailingFixture();
+        AnnotationProcessor processor = new AnnotationProcessor(new TestInjector()).enableParallel();
+
+        assertThatThrownBy(() -> processor.processAnnotations(fixture))
+                .isInstanceOf(InjectionException.class)
+                .hasMessageContaining("first")
+                .satisfies(e -> assertThat(e.getSuppressed()).hasSize(1));
+        assertThat(fixture.simpleService).isNull();
+    }
+
+    @Test
+    void should_rejectMockParameter_when_injectMocksFieldAlreadyBuilt() throws NoSuchMethodException {
+        InjectMocksFixture fixture = new InjectMocksFixture();
+        AnnotationProcessor processor = new AnnotationProcessor(new TestInjector());
+        processor.processAnnotations(fixture);
+        Parameter parameter = InjectMocksFixture.class
+                .getDeclaredMethod("mockParameter", SimpleService.class).getParameters()[0];
+
+        assertThatThrownBy(() -> processor.resolveParameter(parameter))
+                .isInstanceOf(InjectionException.class)
+                .hasMessageContaining("@Mock")
+                .hasMessageContaining("SimpleManager");
+    }
+
+    @Test
+    void should_rejectMockParameter_when_declaredAfterItsDependent() throws NoSuchMethodException {
+        AnnotationProcessor processor = new AnnotationProcessor(new TestInjector());
+        Parameter[] parameters = InjectMocksFixture.class
+                .getDeclaredMethod("mockAfterTarget", SimpleManager.class, SimpleService.class).getParameters();
+
+        Object manager = processor.resolveParameter(parameters[0]);
+
+        assertThat(manager).isInstanceOf(SimpleManager.class);
+        assertThatThrownBy(() -> processor.resolveParameter(parameters[1]))
+                .isInstanceOf(InjectionException.class)
+                .hasMessageContaining("SimpleService")
+                .hasMessageContaining("SimpleManager");
+    }
+}
@@ -0,0 +1,205 @@
+package com.oppo.usercenter.test.injector.fault;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.config.CommonMockConfigs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.oppo.usercenter.test.injector.mock.MethodMatcher.nameLike;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * FaultProfile / FaultAnswer 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class FaultProfileTest {
+
+    public interface InventoryClient {
+        String stock(String sku);
+
+        String fetch(String sku) throws IOException;
+
+        int reserve(String sku);
+    }
+
+    public interface UserDao {
+        boolean saveUser(String name);
+
+        int deleteUser(String name);
+
+        String findUser(String name);
+    }
+
+    public interface UserCache {
+        String get(String key);
+
+        boolean exists(String key);
+    }
+
+    public static class RetryingInventory {
+        private final InventoryClient inventoryClient;
+
+        public RetryingInventory(InventoryClient inventoryClient) {
+            this.inventoryClient = inventoryClient;
+        }
+
+        public String stockWithRetry(String sku, int attempts) {
+            for (int i = 0; i < attempts; i++) {
+                try {
+                    String stock = inventoryClient.stock(sku);
+                    if (stock != null) {
+                        return stock;
+                    }
+                } catch (RuntimeException e) {
+                    // 重试
+                }
+            }
+            return "fallback";
+        }
+    }
+
+    @Test
+    void should_injectFaultsAtConfiguredRates_when_calledManyTimes() {
+        FaultProfile profile = FaultProfile.create()
+                .errorRate(0.10, IOException.class)
+                .nullRate(0.20)
+                .seed(7);
+        TestInjector injector = TestInjector.builder()
+                .mockWith(InventoryClient.class, profile, client -> when(client.stock("a")).thenReturn("10"))
+                .buildInjector();
+        InventoryClient client = injector.getInstance(InventoryClient.class);
+
+        int errors = 0;
+        int nulls = 0;
+        int stubbed = 0;
+        for (int i = 0; i < 100_000; i++) {
+            try {
+                String stock = client.stock("a");
+                if (stock == null) {
+                    nulls++;
+                } else if (stock.equals("10")) {
+                    stubbed++;
+                }
+            } catch (UncheckedIOException e) {
+                errors++;
+            }
+        }
+
+        assertThat(errors / 100_000.0).isCloseTo(0.10, within(0.01));
+        assertThat(nulls / 100_000.0).isCloseTo(0.20, within(0.01));
+        assertThat(errors + nulls + stubbed).isEqualTo(100_000);
+        assertThat(FaultAnswer.of(client).getInjectedErrors()).isEqualTo(errors);
+        verify(client, atLeast(100_000)).stock("a");
+    }
+
+    @Test
+    void should_reproduceSameFaultSequence_when_seedIsFixed() {
+        FaultProfile profile = FaultProfile.create().errorRate(0.3, IllegalStateException.class).seed(42);
+
+        assertThat(outcomes(profile)).isEqualTo(outcomes(profile));
+        assertThat(outcomes(profile)).isNotEqualTo(outcomes(profile.seed(43)));
+    }
+
+    @Test
+    void should_exerciseRetryAndFallback_when_faultsMixed() {
+        FaultProfile flaky = FaultProfile.create()
+                .errorRate(0.3, IOException.class, IllegalStateException.class)
+                .timeoutRate(0.2, Duration.ofSeconds(2))
+                .nullRate(0.1);
+        TestInjector injector = TestInjector.builder()
+                .mockWith(InventoryClient.class, flaky, client -> when(client.stock("a")).thenReturn("10"))
+                .buildInjector();
+        RetryingInventory inventory = injector.getInstance(RetryingInventory.class);
+        long before = injector.getVirtualClock().nanoTime();
+
+        int fallbacks = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (inventory.stockWithRetry("a", 3).equals("fallback")) {
+                fallbacks++;
+            }
+        }
+
+        // 每次尝试失败概率 0.6，三次都失败约 21.6%
+        assertThat(fallbacks / 10_000.0).isCloseTo(0.216, within(0.02));
+        FaultAnswer faults = FaultAnswer.of(injector.getInstance(InventoryClient.class));
+        assertThat(faults.getInjectedTimeouts()).isPositive();
+        assertThat(injector.getVirtualClock().nanoTime() - before)
+                .isEqualTo(faults.getInjectedTimeouts() * Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void should_wrapUndeclaredCheckedFaults_when_methodDoesNotDeclareThem() {
+        TestInjector injector = TestInjector.builder()
+                .faults(InventoryClient.class, FaultProfile.create().errorRate(1.0, IOException.class)
+                        .forMethods(nameLike("stock", "fetch")))
+                .buildInjector();
+        InventoryClient client = injector.getInstance(InventoryClient.class);
+
+        assertThatThrownBy(() -> client.fetch("a")).isExactlyInstanceOf(IOException.class);
+        assertThatThrownBy(() -> client.stock("a")).isInstanceOf(UncheckedIOException.class);
+        assertThat(client.reserve("a")).isZero();
+    }
+
+    @Test
+    void should_timeOutInVirtualTime_when_timeoutRateConfigured() {
+        TestInjector injector = TestInjector.builder()
+                .faults(InventoryClient.class, FaultProfile.create().timeoutRate(1.0, Duration.ofSeconds(5)))
+                .buildInjector();
+        InventoryClient client = injector.getInstance(InventoryClient.class);
+        long before = injector.getVirtualClock().nanoTime();
+
+        assertThatThrownBy(() -> client.fetch("a")).isInstanceOf(SocketTimeoutException.class);
+        assertThat(injector.getVirtualClock().nanoTime() - before).isEqualTo(Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void should_rejectRatesAboveOne_when_combined() {
+        assertThatThrownBy(() -> FaultProfile.create().errorRate(0.6, IOException.class).nullRate(0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_returnFailureValues_when_databaseFailureAndCacheMissApplied() {
+        TestInjector.Builder builder = TestInjector.builder();
+        CommonMockConfigs.combine(CommonMockConfigs.databaseFailure(), CommonMockConfigs.cacheMiss()).apply(builder);
+        TestInjector injector = builder.buildInjector();
+        UserDao dao = injector.getInstance(UserDao.class);
+        UserCache cache = injector.getInstance(UserCache.class);
+
+        assertThat(dao.saveUser("a")).isFalse();
+        assertThat(dao.deleteUser("a")).isZero();
+        assertThat(dao.findUser("a")).isNull();
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.exists("a")).isFalse();
+    }
+
+    private static List<Boolean> outcomes(FaultProfile profile) {
+        InventoryClient client = TestInjector.builder()
+                .faults(InventoryClient.class, profile)
+                .buildInjector()
+                .getInstance(InventoryClient.class);
+        List<Boolean> outcomes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            try {
+                client.reserve("a");
+                outcomes.add(true);
+            } catch (IllegalStateException e) {
+                outcomes.add(false);
+            }
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,105 @@
+package com.oppo.usercenter.test.injector.fixture;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 录制与回放测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class FixtureRecordReplayTest {
+
+    static final AtomicInteger REAL_CALLS = new AtomicInteger();
+
+    public static class PriceService {
+
+        public long price(String sku) {
+            REAL_CALLS.incrementAndGet();
+            return sku.length() * 100L;
+        }
+
+        public List<String> tags(String... values) {
+            REAL_CALLS.incrementAndGet();
+            return Arrays.asList(values);
+        }
+
+        public String load(String key) throws IOException {
+            REAL_CALLS.incrementAndGet();
+            throw new IOException("unavailable: " + key);
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void should_replayRecordedResponses_when_fixtureRecorded() {
+        Path fixture = tempDir.resolve("price.fixture");
+        TestInjector recording = TestInjector.builder().record(PriceService.class, fixture).buildInjector();
+        PriceService recorded = recording.getInstance(PriceService.class);
+        assertThat(recorded.price("abc")).isEqualTo(300L);
+        assertThat(recorded.tags("a", "b")).containsExactly("a", "b");
+        recording.closeRecordings();
+
+        int realCallsAfterRecording = REAL_CALLS.get();
+        PriceService replayed = TestInjector.builder()
+                .replay(PriceService.class, fixture)
+                .buildInjector()
+                .getInstance(PriceService.class);
+
+        assertThat(replayed.price("abc")).isEqualTo(300L);
+        assertThat(replayed.tags("a", "b")).containsExactly("a", "b");
+        assertThat(REAL_CALLS.get()).isEqualTo(realCallsAfterRecording);
+        assertThatThrownBy(() -> replayed.price("missing"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No recorded response");
+    }
+
+    @Test
+    void should_rethrowRecordedException_when_realCallFailed() throws IOException {
+        Path fixture = tempDir.resolve("load.fixture");
+        FixtureRecorder recorder = new FixtureRecorder(fixture);
+        PriceService recorded = recorder.wrap(PriceService.class, new PriceService());
+        assertThatThrownBy(() -> recorded.load("k1")).isInstanceOf(IOException.class);
+        recorder.close();
+
+        PriceService replayed = FixtureStore.open(fixture).replay(PriceService.class);
+
+        assertThatThrownBy(() -> replayed.load("k1"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("unavailable: k1");
+    }
+
+    @Test
+    void should_indexAllEntries_when_manyCallsRecorded() {
+        Path fixture = tempDir.resolve("bulk.fixture");
+        FixtureRecorder recorder = new FixtureRecorder(fixture);
+        PriceService recorded = recorder.wrap(PriceService.class, new PriceService());
+        for (int i = 0; i < 5000; i++) {
+            recorded.price("sku-" + i);
+        }
+        // 重复调用覆盖同一条记录
+        recorded.price("sku-0");
+        recorder.close();
+
+        FixtureStore store = FixtureStore.open(fixture);
+        PriceService replayed = store.replay(PriceService.class);
+
+        assertThat(store.size()).isEqualTo(5000);
+        for (int i = 0; i < 5000; i += 97) {
+            assertThat(replayed.price("sku-" + i)).isEqualTo(("sku-" + i).length() * 100L);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.oppo.usercenter.test.injector.graph;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DependencyGraph 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class DependencyGraphTest {
+
+    public interface PaymentGateway {
+        boolean charge(long amount);
+    }
+
+    public static class Clock {
+    }
+
+    public static class SlowRepository {
+        public SlowRepository(Clock clock) {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static class AuditLog {
+        public AuditLog(Clock clock) {
+        }
+    }
+
+    public static class ReportService {
+    }
+
+    public static class OrderService {
+        public OrderService(SlowRepository repository, PaymentGateway gateway, AuditLog auditLog,
+                            Supplier<ReportService> reports) {
+        }
+    }
+
+    @Test
+    void should_recordKindsEdgesAndCosts_when_graphExported() {
+        AuditLog auditLog = new AuditLog(new Clock());
+        TestInjector injector = TestInjector.builder()
+                .instance(AuditLog.class, auditLog)
+                .buildInjector();
+
+        DependencyGraph graph = injector.dependencyGraph(OrderService.class);
+
+        assertThat(graph.getNodes().keySet()).containsExactly(OrderService.class, SlowRepository.class,
+                Clock.class, PaymentGateway.class, AuditLog.class, ReportService.class);
+        assertThat(graph.getNode(OrderService.class).getKind()).isEqualTo(NodeKind.REAL);
+        assertThat(graph.getNode(PaymentGateway.class).getKind()).isEqualTo(NodeKind.MOCK);
+        assertThat(graph.getNode(PaymentGateway.class).getMockCreationNanos()).isPositive();
+        assertThat(graph.getNode(AuditLog.class).getKind()).isEqualTo(NodeKind.USER_INSTANCE);
+        assertThat(graph.getNode(ReportService.class).getKind()).isEqualTo(NodeKind.UNRESOLVED);
+        assertThat(graph.getNode(OrderService.class).getLazyDependencies()).containsExactly(ReportService.class);
+
+        long slow = graph.getNode(SlowRepository.class).getConstructionNanos();
+        assertThat(slow).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThat(graph.getSubtreeNanos(SlowRepository.class))
+                .isEqualTo(slow + graph.getNode(Clock.class).getSelfNanos());
+        assertThat(graph.getTotalNanos()).isGreaterThanOrEqualTo(graph.getSubtreeNanos(SlowRepository.class));
+    }
+
+    @Test
+    void should_countSharedDependencyOnce_when_computingSubtree() {
+        TestInjector injector = TestInjector.builder().real(AuditLog.class).buildInjector();
+        injector.getInstance(AuditLog.class);
+
+        DependencyGraph graph = injector.dependencyGraph(OrderService.class);
+
+        long sum = 0;
+        for (DependencyNode node : graph.getNodes().values()) {
+            sum += node.getSelfNanos();
+        }
+        // Clock 被 SlowRepository 与 AuditLog 共享，但只计一次
+        assertThat(graph.getTotalNanos()).isEqualTo(sum);
+    }
+
+    @Test
+    void should_exportDotAndJson_when_requested() {
+        DependencyGraph graph = new TestInjector().dependencyGraph(OrderService.class);
+
+        String dot = graph.toDot();
+        assertThat(dot).startsWith("digraph dependencies {")
+                .contains("\"" + OrderService.class.getName() + "\" -> \"" + PaymentGateway.class.getName() + "\";")
+                .contains("\"" + OrderService.class.getName() + "\" -> \"" + ReportService.class.getName()
+                        + "\" [style=dashed];")
+                .contains("fillcolor=\"lightblue\"");
+
+        String json = graph.toJson();
+        assertThat(json).startsWith("{\"root\":\"" + OrderService.class.getName() + "\"")
+                .contains("\"kind\":\"MOCK\"")
+                .contains("\"lazyDependencies\":[\"" + ReportService.class.getName() + "\"]");
+    }
+}
@@ -0,0 +1,106 @@
+package com.oppo.usercenter.test.injector.junit;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.testdata.ComplexManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * LeakDetector 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class LeakDetectorTest {
+
+    private static final List<Object> STATIC_HOLDER = new ArrayList<>();
+
+    /**
+     * 等待哨兵对象被回收的最长时间。
+     */
+    private static final long GC_TIMEOUT_MILLIS = 10_000;
+
+    static class Payload {
+    }
+
+    @AfterEach
+    void clearHolder() {
+        STATIC_HOLDER.clear();
+    }
+
+    @Test
+    void should_reportTest_when_objectStillReachable() {
+        LeakDetector detector = new LeakDetector();
+        Payload leaked = new Payload();
+        STATIC_HOLDER.add(leaked);
+        detector.track("leakingTest", Collections.singletonList(leaked));
+
+        List<String> leaks = detector.check();
+
+        assertThat(leaks).hasSize(1);
+        assertThat(leaks.get(0)).contains("leakingTest").contains(Payload.class.getName());
+        assertThat(detector.leaks()).isEqualTo(leaks);
+    }
+
+    @Test
+    void should_reportNothing_when_graphCollected() throws InterruptedException {
+        LeakDetector detector = new LeakDetector();
+        detector.track("cleanTest", Collections.singletonList(new Payload()));
+        assumeTrue(awaitGc(), "JVM did not collect garbage within the timeout");
+
+        assertThat(detector.check()).isEmpty();
+        // 已检查的对象图不会重复报告
+        assertThat(detector.check()).isEmpty();
+    }
+
+    @Test
+    void should_reportNothing_when_frozenInjectorReleased() throws InterruptedException {
+        LeakDetector detector = new LeakDetector();
+        trackFrozenGraph(detector);
+        assumeTrue(awaitGc(), "JVM did not collect garbage within the timeout");
+
+        assertThat(detector.check()).isEmpty();
+    }
+
+    /**
+     * 分配内存直到哨兵对象被回收：System.gc() 只是提示，在 -XX:+DisableExplicitGC 下不起作用，
+     * 靠分配压力触发 GC 才可靠。超时仍未回收时返回 false，由调用方跳过测试。
+     */
+    private static boolean awaitGc() throws InterruptedException {
+        WeakReference<Object> sentinel = new WeakReference<>(new Object());
+        List<byte[]> pressure = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GC_TIMEOUT_MILLIS);
+        while (sentinel.get() != null && System.nanoTime() - deadline < 0) {
+            pressure.add(new byte[1 << 20]);
+            if (pressure.size() > 16) {
+                pressure.clear();
+            }
+            System.gc();
+            Thread.sleep(10);
+        }
+        return sentinel.get() == null;
+    }
+
+    /**
+     * 在独立方法中构建，返回后栈上不再持有对象图。
+     */
+    private static void trackFrozenGraph(LeakDetector detector) {
+        TestInjector injector = new TestInjector();
+        injector.getInstance(ComplexManager.class);
+        injector.freeze();
+        injector.getInstance(ComplexManager.class);
+        List<Object> graph = new ArrayList<Object>(injector.ownedInstances());
+        graph.add(injector);
+        detector.track("frozenTest", graph);
+        injector.release();
+    }
+}
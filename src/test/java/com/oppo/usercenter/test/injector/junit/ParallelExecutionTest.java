@@ -0,0 +1,98 @@
+package com.oppo.usercenter.test.injector.junit;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.testdata.ComplexManager;
+import com.oppo.usercenter.test.injector.testdata.ConfigService;
+import com.oppo.usercenter.test.injector.testdata.SimpleManager;
+import com.oppo.usercenter.test.injector.testdata.SimpleService;
+import com.oppo.usercenter.test.injector.util.ReflectionUtils;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * 并行执行下的 TestInjectorExtension 集成测试：每个测试调用的对象图相互隔离。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+@ExtendWith(TestInjectorExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class ParallelExecutionTest {
+
+    @Mock
+    private SimpleService simpleService;
+
+    @Mock
+    private ConfigService configService;
+
+    @InjectMocks
+    private SimpleManager manager;
+
+    @RepeatedTest(64)
+    void should_wireIsolatedGraph_when_testsRunConcurrently(RepetitionInfo repetition) {
+        String data = "data-" + repetition.getCurrentRepetition();
+        when(simpleService.getData()).thenReturn(data);
+
+        assertThat(manager.getSimpleService()).isSameAs(simpleService);
+        assertThat(manager.process()).isEqualTo("Processed: " + data);
+    }
+
+    /**
+     * 只在本测试中使用，保证预热时构造器选择尚未缓存。
+     */
+    public static class WarmUpTarget {
+        public WarmUpTarget(SimpleService simpleService) {
+        }
+
+        public WarmUpTarget(SimpleService simpleService, ConfigService configService) {
+        }
+    }
+
+    @Test
+    void should_shareSelectedConstructor_when_warmedUpFromManyThreads() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        Set<Constructor<?>> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            List<Future<Constructor<?>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    TestInjector.warmUp(WarmUpTarget.class, ComplexManager.class);
+                    return ReflectionUtils.selectBestConstructor(WarmUpTarget.class);
+                }));
+            }
+            for (Future<Constructor<?>> future : futures) {
+                selected.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 并发预热时可能重复计算，但所有线程拿到的是同一个被保留的构造器对象
+        assertThat(selected).hasSize(1);
+        assertThat(selected.iterator().next()).isSameAs(ReflectionUtils.selectBestConstructor(WarmUpTarget.class));
+        assertThat(selected.iterator().next().getParameterCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,55 @@
+package com.oppo.usercenter.test.injector.junit;
+
+import com.oppo.usercenter.test.injector.annotation.Injected;
+import com.oppo.usercenter.test.injector.testdata.ConfigService;
+import com.oppo.usercenter.test.injector.testdata.SimpleManager;
+import com.oppo.usercenter.test.injector.testdata.SimpleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TestInjectorExtension 参数解析集成测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+@ExtendWith(TestInjectorExtension.class)
+class ParameterResolverTest {
+
+    private ConfigService configService;
+
+    @BeforeEach
+    void setUp(@Injected ConfigService configService) {
+        this.configService = configService;
+    }
+
+    @Test
+    void should_injectMockParameter_when_targetDeclaredAfterIt(@Mock SimpleService simpleService,
+                                                                @Injected SimpleManager manager) {
+        when(simpleService.getData()).thenReturn("Test Data");
+
+        assertThat(manager.process()).isEqualTo("Processed: Test Data");
+        assertThat(manager.getSimpleService()).isSameAs(simpleService);
+    }
+
+    @Test
+    void should_shareInstancesWithLifecycleMethods_when_sameTest(@Injected ConfigService configService) {
+        assertThat(configService).isSameAs(this.configService);
+        assertThat(Mockito.mockingDetails(configService).isMock()).isTrue();
+    }
+
+    @Test
+    void should_createSpy_when_requested(@Injected(spy = true) SimpleManager manager) {
+        manager.process();
+
+        assertThat(Mockito.mockingDetails(manager).isSpy()).isTrue();
+        verify(manager).process();
+    }
+}
@@ -0,0 +1,51 @@
+package com.oppo.usercenter.test.injector.junit;
+
+import com.oppo.usercenter.test.injector.testdata.SimpleManager;
+import com.oppo.usercenter.test.injector.testdata.SimpleService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 并行执行下共享 static 注解字段的测试类由扩展自动串行执行。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+@ExtendWith(TestInjectorExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class SharedFieldsParallelTest {
+
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+    private static final AtomicInteger MAX_ACTIVE = new AtomicInteger();
+
+    @Mock
+    private static SimpleService sharedService;
+
+    @InjectMocks
+    private SimpleManager manager;
+
+    @AfterAll
+    static void checkSerialized() {
+        assertThat(MAX_ACTIVE.get()).isEqualTo(1);
+    }
+
+    @RepeatedTest(16)
+    void should_serializeTests_when_annotatedFieldIsStatic() throws InterruptedException {
+        MAX_ACTIVE.accumulateAndGet(ACTIVE.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(5);
+            assertThat(manager.getSimpleService()).isSameAs(sharedService);
+        } finally {
+            ACTIVE.decrementAndGet();
+        }
+    }
+}
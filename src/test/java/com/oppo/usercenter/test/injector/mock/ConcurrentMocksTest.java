@@ -0,0 +1,155 @@
+package com.oppo.usercenter.test.injector.mock;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.perf.LatencyModel;
+import com.oppo.usercenter.test.injector.perf.LoadHarness;
+import com.oppo.usercenter.test.injector.perf.LoadReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * ConcurrentMocks 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class ConcurrentMocksTest {
+
+    public interface PriceClient {
+        long price(String sku);
+
+        int nextId();
+
+        String join(String separator, String... parts);
+    }
+
+    public static class RateTable {
+        public double rate(String currency) {
+            return 1.0;
+        }
+    }
+
+    public static class CheckoutService {
+        private final PriceClient priceClient;
+        private final RateTable rateTable;
+
+        public CheckoutService(PriceClient priceClient, RateTable rateTable) {
+            this.priceClient = priceClient;
+            this.rateTable = rateTable;
+        }
+
+        public double total(String sku, String currency) {
+            return priceClient.price(sku) * rateTable.rate(currency);
+        }
+    }
+
+    @Test
+    void should_followMockitoStubbingSemantics_when_compiled() {
+        PriceClient client = ConcurrentMocks.create(PriceClient.class, mock -> {
+            when(mock.price(anyString())).thenReturn(1L);
+            when(mock.price("a")).thenReturn(10L);
+            when(mock.price("boom")).thenThrow(new IllegalStateException("boom"));
+            when(mock.nextId()).thenReturn(1, 2, 3);
+            when(mock.join(eq("-"), anyString(), anyString())).thenAnswer(inv -> inv.getArgument(1) + "-" + inv.getArgument(2));
+        });
+
+        assertThat(client.price("a")).isEqualTo(10L);
+        assertThat(client.price("b")).isEqualTo(1L);
+        assertThatThrownBy(() -> client.price("boom")).hasMessage("boom");
+        assertThat(Arrays.asList(client.nextId(), client.nextId(), client.nextId(), client.nextId()))
+                .containsExactly(1, 2, 3, 3);
+        assertThat(client.join("-", "x", "y")).isEqualTo("x-y");
+        assertThat(client.join("+", "x", "y")).isNull();
+        assertThat(ConcurrentMocks.calls(client, "nextId")).isEqualTo(4);
+        assertThat(client).isEqualTo(client).hasToString(client.toString());
+    }
+
+    @Test
+    void should_bypassMockitoLocks_when_stubsCompiled() {
+        PriceClient client = ConcurrentMocks.create(PriceClient.class, mock -> {
+            when(mock.price("a")).thenReturn(10L);
+            when(mock.nextId()).thenReturn(1, 2);
+            when(mock.join(eq("-"), anyString())).thenThrow(new IllegalStateException("boom"));
+        });
+        RateTable table = ConcurrentMocks.create(RateTable.class, mock -> when(mock.rate("EUR")).thenReturn(1.1));
+
+        // Mockito 升级导致无法读取 Stub 的 Answer 时，这里会失败，而不是悄悄退化为加锁路径
+        assertThat(ConcurrentMocks.isLockFree(client)).isTrue();
+        assertThat(ConcurrentMocks.isLockFree(table)).isFalse();
+        assertThatThrownBy(() -> ConcurrentMocks.isLockFree(new Object())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_countEveryCall_when_hammeredFromManyThreads() {
+        PriceClient client = ConcurrentMocks.create(PriceClient.class,
+                mock -> when(mock.price("a")).thenReturn(10L));
+
+        LoadReport report = LoadHarness.of(client)
+                .threads(16)
+                .operations(160_000)
+                .run(target -> {
+                    if (target.price("a") != 10L) {
+                        throw new AssertionError("wrong stub");
+                    }
+                });
+
+        assertThat(report.getErrors()).isZero();
+        assertThat(ConcurrentMocks.calls(client, "price")).isEqualTo(160_000);
+        assertThat(ConcurrentMocks.totalCalls(client)).isEqualTo(160_000);
+    }
+
+    @Test
+    void should_fallBackToStubOnlyMock_when_typeIsClass() {
+        RateTable table = ConcurrentMocks.create(RateTable.class, mock -> when(mock.rate("EUR")).thenReturn(1.1));
+
+        assertThat(table.rate("EUR")).isEqualTo(1.1);
+        assertThat(table.rate("USD")).isZero();
+        assertThat(ConcurrentMocks.isConcurrentMock(table)).isTrue();
+        assertThat(ConcurrentMocks.calls(table, "rate")).isEqualTo(2);
+    }
+
+    @Test
+    void should_injectConcurrentMocksAndResetCounts_when_builtThroughBuilder() {
+        TestInjector injector = TestInjector.builder()
+                .concurrentMockWith(PriceClient.class, mock -> when(mock.price("a")).thenReturn(10L))
+                .concurrentMockWith(RateTable.class, mock -> when(mock.rate("EUR")).thenReturn(2.0))
+                .buildInjector();
+        CheckoutService service = injector.getInstance(CheckoutService.class);
+        PriceClient client = injector.getInstance(PriceClient.class);
+
+        assertThat(service.total("a", "EUR")).isEqualTo(20.0);
+        assertThat(ConcurrentMocks.calls(client, "price")).isEqualTo(1);
+
+        injector.release();
+
+        assertThat(ConcurrentMocks.calls(client, "price")).isZero();
+        assertThatThrownBy(() -> ConcurrentMocks.calls(service, "total"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_applyLatencyAndDefaults_when_configuredAfterConcurrentMock() {
+        TestInjector injector = TestInjector.builder()
+                .enableVirtualTime()
+                .concurrentMockWith(PriceClient.class, mock -> when(mock.price("a")).thenReturn(10L))
+                .latency(PriceClient.class, LatencyModel.fixed(Duration.ofMillis(50)))
+                .rules(StubRules.create().when(MethodMatcher.nameLike("next*")).thenReturn(7))
+                .enableSmartMock()
+                .buildInjector();
+        PriceClient client = injector.getInstance(PriceClient.class);
+        long before = injector.getVirtualClock().nanoTime();
+
+        assertThat(client.price("a")).isEqualTo(10L);
+        assertThat(injector.getVirtualClock().nanoTime() - before).isEqualTo(Duration.ofMillis(50).toNanos());
+        assertThat(client.nextId()).isEqualTo(7);
+        assertThat(client.join(",", "x")).isEmpty();
+    }
+}
@@ -0,0 +1,160 @@
+package com.oppo.usercenter.test.injector.mock;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.config.CommonMockConfigs;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.oppo.usercenter.test.injector.mock.MethodMatcher.annotatedWith;
+import static com.oppo.usercenter.test.injector.mock.MethodMatcher.nameLike;
+import static com.oppo.usercenter.test.injector.mock.MethodMatcher.returns;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * StubRules 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class StubRulesTest {
+
+    interface UserRepository {
+        boolean save(String user);
+        int updateAll();
+        void deleteAll();
+        Optional<String> findName(long id);
+        List<String> findAll();
+        String findRaw();
+        @Deprecated
+        String legacy();
+        boolean exists(long id);
+    }
+
+    private static final StubRules RULES = StubRules.create()
+            .when(nameLike("save*", "update*")).thenReturn(true)
+            .when(nameLike("find*")).thenReturnEmpty()
+            .when(annotatedWith(Deprecated.class)).thenThrow(new UnsupportedOperationException("legacy"));
+
+    private static UserRepository mockWith(StubRules rules) {
+        return mock(UserRepository.class,
+                withSettings().defaultAnswer(rules.toAnswer(UserRepository.class, SmartAnswer.INSTANCE)));
+    }
+
+    @Test
+    void should_matchByNamePattern_when_returnTypeCompatible() {
+        UserRepository repository = mockWith(RULES);
+
+        assertThat(repository.save("alice")).isTrue();
+        // int 返回值与 true 不兼容，回退到 SmartAnswer
+        assertThat(repository.updateAll()).isEqualTo(0);
+        repository.deleteAll();
+    }
+
+    @Test
+    void should_returnEmptyValues_when_thenReturnEmpty() {
+        UserRepository repository = mockWith(RULES);
+
+        assertThat(repository.findName(1L)).isEmpty();
+        assertThat(repository.findAll()).isEmpty();
+        assertThat(repository.findRaw()).isEqualTo("");
+    }
+
+    @Test
+    void should_throw_when_annotatedMethodMatched() {
+        UserRepository repository = mockWith(RULES);
+
+        assertThatThrownBy(repository::legacy).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void should_preferExplicitStubbing_when_ruleAlsoMatches() {
+        UserRepository repository = mockWith(RULES);
+        when(repository.save("bob")).thenReturn(false);
+
+        assertThat(repository.save("bob")).isFalse();
+        assertThat(repository.save("alice")).isTrue();
+    }
+
+    @Test
+    void should_applyFirstMatchingRule_when_rulesOverlap() {
+        StubRules rules = StubRules.create()
+                .when(returns(boolean.class)).thenReturn(false)
+                .and(StubRules.create().when(nameLike("*")).thenReturn(true));
+        UserRepository repository = mockWith(rules);
+
+        assertThat(repository.exists(1L)).isFalse();
+    }
+
+    @Test
+    void should_matchGlobPatterns() {
+        assertThat(MethodMatcher.globMatches("save*", "saveUser")).isTrue();
+        assertThat(MethodMatcher.globMatches("*ById", "findById")).isTrue();
+        assertThat(MethodMatcher.globMatches("find*By*", "findUserByName")).isTrue();
+        assertThat(MethodMatcher.globMatches("find*By*", "findUser")).isFalse();
+        assertThat(MethodMatcher.globMatches("get", "getX")).isFalse();
+    }
+
+    @Test
+    void should_applyGlobalRules_when_configuredInBuilder() {
+        TestInjector injector = TestInjector.builder()
+                .rules(RULES)
+                .buildInjector();
+
+        UserRepository repository = injector.getInstance(UserRepository.class);
+
+        assertThat(repository.save("alice")).isTrue();
+        assertThat(repository.findAll()).isEmpty();
+    }
+
+    @Test
+    void should_stubBooleanMethods_when_usingCommonConfig() {
+        TestInjector.Builder builder = TestInjector.builder();
+        CommonMockConfigs.databaseSuccess()
+                .andThen(CommonMockConfigs.alwaysTrue(UserRepository.class))
+                .apply(builder);
+
+        UserRepository repository = builder.buildInjector().getInstance(UserRepository.class);
+
+        assertThat(repository.exists(1L)).isTrue();
+        assertThat(repository.updateAll()).isEqualTo(1);
+        assertThat(repository.findName(1L)).isEmpty();
+    }
+
+    @Test
+    void should_collectDiscardedRules_when_answerNoLongerReachable() throws InterruptedException {
+        WeakReference<StubRules> rules = discardedRulesAfterUse();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<byte[]> pressure = new ArrayList<>();
+        while (rules.get() != null && System.nanoTime() < deadline) {
+            // System.gc() 只是提示，分配压力保证在禁用显式 GC 时也会回收
+            pressure.add(new byte[1 << 20]);
+            if (pressure.size() > 16) {
+                pressure.clear();
+            }
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(rules.get()).isNull();
+    }
+
+    /**
+     * 在独立方法中编译分发表，返回后栈上不再持有规则集与 Answer。
+     * 不经过 Mock 调用：Mockito 会在线程上保留最近一次调用，干扰可达性判断。
+     */
+    private static WeakReference<StubRules> discardedRulesAfterUse() {
+        StubRules rules = StubRules.create().when(nameLike("find*")).thenReturn(Optional.of(new byte[1024]));
+        assertThat(rules.toAnswer(UserRepository.class, SmartAnswer.INSTANCE)).isNotNull();
+        return new WeakReference<>(rules);
+    }
+}
@@ -0,0 +1,189 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.annotation.AnnotationProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ConstructionBudget 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class ConstructionBudgetTest {
+
+    public static class SlowClient {
+        public SlowClient() throws InterruptedException {
+            Thread.sleep(60);
+        }
+    }
+
+    public static class FastClient {
+    }
+
+    public static class Service {
+        private final SlowClient slowClient;
+        private final FastClient fastClient;
+
+        public Service(SlowClient slowClient, FastClient fastClient) {
+            this.slowClient = slowClient;
+            this.fastClient = fastClient;
+        }
+    }
+
+    public static class SlowService {
+        private final FastClient fastClient;
+
+        public SlowService(FastClient fastClient) throws InterruptedException {
+            Thread.sleep(60);
+            this.fastClient = fastClient;
+        }
+    }
+
+    public static class SometimesSlowClient {
+        static volatile long delayMillis;
+
+        public SometimesSlowClient() throws InterruptedException {
+            Thread.sleep(delayMillis);
+        }
+    }
+
+    public static class SometimesSlowService {
+        private final SometimesSlowClient client;
+
+        public SometimesSlowService(SometimesSlowClient client) {
+            this.client = client;
+        }
+    }
+
+    static class SlowServiceTest {
+        @InjectMocks
+        SlowService service;
+    }
+
+    @Test
+    void should_flagSlowConstructor_when_budgetExceeded() {
+        ConstructionBudget budget = new ConstructionBudget(Duration.ofMillis(20));
+
+        Service service = TestInjector.builder()
+                .constructionBudget(budget)
+                .autoCreate(Service.class)
+                .build();
+
+        assertThat(Mockito.mockingDetails(service.slowClient).isMock()).isFalse();
+        assertThat(budget.isSlow(SlowClient.class)).isTrue();
+        // 构造器计时不含依赖解析，Service 本身不应被标记
+        assertThat(budget.isSlow(Service.class)).isFalse();
+        assertThat(budget.isSlow(FastClient.class)).isFalse();
+        assertThat(budget.report()).contains(SlowClient.class.getName());
+    }
+
+    @Test
+    void should_mockSlowType_when_autoMockEnabled() {
+        ConstructionBudget budget = new ConstructionBudget(Duration.ofMillis(20)).autoMock();
+        TestInjector.builder().constructionBudget(budget).autoCreate(Service.class).build();
+
+        Service service = TestInjector.builder()
+                .constructionBudget(budget)
+                .autoCreate(Service.class)
+                .build();
+
+        assertThat(Mockito.mockingDetails(service.slowClient).isMock()).isTrue();
+        assertThat(Mockito.mockingDetails(service.fastClient).isMock()).isFalse();
+    }
+
+    @Test
+    void should_keepRealInstance_when_typeForcedReal() {
+        ConstructionBudget budget = new ConstructionBudget(Duration.ofMillis(20)).autoMock();
+        TestInjector.builder().constructionBudget(budget).autoCreate(Service.class).build();
+
+        Service service = TestInjector.builder()
+                .constructionBudget(budget)
+                .real(SlowClient.class)
+                .autoCreate(Service.class)
+                .build();
+
+        assertThat(Mockito.mockingDetails(service.slowClient).isMock()).isFalse();
+    }
+
+    @Test
+    void should_mockFromFirstResolution_when_decisionPersisted(@TempDir Path dir) {
+        Path file = dir.resolve("construction-budget.properties");
+        ConstructionBudget firstRun = new ConstructionBudget(Duration.ofMillis(20)).persistTo(file);
+        TestInjector.builder().constructionBudget(firstRun).autoCreate(Service.class).build();
+        firstRun.save();
+
+        ConstructionBudget nextRun = new ConstructionBudget(Duration.ofMillis(20)).autoMock().persistTo(file);
+        Service service = TestInjector.builder()
+                .constructionBudget(nextRun)
+                .autoCreate(Service.class)
+                .build();
+
+        assertThat(Mockito.mockingDetails(service.slowClient).isMock()).isTrue();
+        assertThat(nextRun.report()).contains("from previous run");
+    }
+
+    @Test
+    void should_retimePersistedType_when_recordExpires(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("construction-budget.properties");
+        SometimesSlowClient.delayMillis = 60;
+        ConstructionBudget firstRun = new ConstructionBudget(Duration.ofMillis(20)).autoMock().persistTo(file);
+        assertThat(Mockito.mockingDetails(buildWith(firstRun).client).isMock()).isFalse();
+        firstRun.save();
+
+        // 构造器已变快，但在记录有效期内仍被 Mock 替代，不会重新计时
+        SometimesSlowClient.delayMillis = 0;
+        ConstructionBudget secondRun = budgetReading(file);
+        assertThat(Mockito.mockingDetails(buildWith(secondRun).client).isMock()).isTrue();
+        secondRun.save();
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1))
+                .contains(SometimesSlowClient.class.getName() + "=").contains(",1");
+
+        // 记录到期，重新构造计时后发现不再超出预算，从文件中移除
+        ConstructionBudget thirdRun = budgetReading(file);
+        assertThat(Mockito.mockingDetails(buildWith(thirdRun).client).isMock()).isFalse();
+        assertThat(thirdRun.isSlow(SometimesSlowClient.class)).isFalse();
+        thirdRun.save();
+
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1))
+                .doesNotContain(SometimesSlowClient.class.getName());
+        assertThat(budgetReading(file).report()).isEmpty();
+    }
+
+    private static ConstructionBudget budgetReading(Path file) {
+        return new ConstructionBudget(Duration.ofMillis(20)).autoMock().recheckAfterRuns(1).persistTo(file);
+    }
+
+    private static SometimesSlowService buildWith(ConstructionBudget budget) {
+        return TestInjector.builder().constructionBudget(budget).autoCreate(SometimesSlowService.class).build();
+    }
+
+    @Test
+    void should_keepRequestedTypeReal_when_itIsSlow() {
+        ConstructionBudget budget = new ConstructionBudget(Duration.ofMillis(20)).autoMock();
+        TestInjector.builder().constructionBudget(budget).autoCreate(SlowService.class).build();
+        assertThat(budget.isSlow(SlowService.class)).isTrue();
+
+        SlowServiceTest fixture = new SlowServiceTest();
+        new AnnotationProcessor(TestInjector.builder().constructionBudget(budget).buildInjector())
+                .processAnnotations(fixture);
+        SlowService created = TestInjector.builder()
+                .constructionBudget(budget)
+                .autoCreate(SlowService.class)
+                .build();
+
+        assertThat(Mockito.mockingDetails(fixture.service).isMock()).isFalse();
+        assertThat(fixture.service.fastClient).isNotNull();
+        assertThat(Mockito.mockingDetails(created).isMock()).isFalse();
+    }
+}
@@ -0,0 +1,156 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.graph.DependencyGraph;
+import com.oppo.usercenter.test.injector.graph.NodeKind;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.mockito.Mockito;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 合成大图的扩展性测试。
+ * 默认只运行小图的冒烟用例；带 benchmark 标签的用例统计节点数从 10 增长到 10,000 时的构建耗时、
+ * 内存与 Mock 类生成耗时，并检查单节点耗时没有随图规模超线性增长（mvn test -Pbenchmark）。
+ * 图的形状可通过 -Dbenchmark.graph.width / depth / interfaceRatio 调整。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class GraphScalingTest {
+
+    private static final int WIDTH = Integer.getInteger("benchmark.graph.width", 4);
+    private static final int DEPTH = Integer.getInteger("benchmark.graph.depth", 8);
+    private static final double INTERFACE_RATIO =
+            Double.parseDouble(System.getProperty("benchmark.graph.interfaceRatio", "0.3"));
+
+    /**
+     * 最大规模与 1,000 节点相比，单节点热构建耗时允许的最大倍数。
+     */
+    private static final double MAX_PER_NODE_GROWTH = 4.0;
+
+    /**
+     * 深链测试线程的栈大小，递归解析每层依赖占用多个栈帧，远不足以容纳 3,000 层。
+     */
+    private static final long SMALL_STACK_BYTES = 256 * 1024;
+
+    @Test
+    void should_resolveEveryNode_when_syntheticGraphBuilt() {
+        SyntheticGraph graph = SyntheticGraph.generate(200, 3, 5, 0.3, 42L);
+        TestInjector injector = new TestInjector();
+
+        for (Class<?> type : graph.getTypes()) {
+            Object instance = injector.getInstance(type);
+            assertThat(Mockito.mockingDetails(instance).isMock()).isEqualTo(type.isInterface());
+        }
+
+        assertThat(graph.getTypes()).hasSize(200);
+        assertThat(graph.getInterfaces()).isNotEmpty();
+        Class<?> root = graph.getRoots().get(0);
+        DependencyGraph dependencies = injector.dependencyGraph(root);
+        assertThat(dependencies.getNode(root).getKind()).isEqualTo(root.isInterface() ? NodeKind.MOCK : NodeKind.REAL);
+        assertThat(dependencies.getNodes().size()).isLessThanOrEqualTo(200);
+    }
+
+    @Test
+    void should_resolveDeepChain_when_stackIsSmall() throws InterruptedException {
+        SyntheticGraph chain = SyntheticGraph.generate(3_000, 1, 3_000, 0.0, 7L);
+        List<Class<?>> types = chain.getTypes();
+        TestInjector injector = new TestInjector();
+        AtomicReference<Object> root = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread resolver = new Thread(null, () -> {
+            try {
+                root.set(injector.getInstance(types.get(0)));
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "deep-chain-resolver", SMALL_STACK_BYTES);
+        resolver.start();
+        resolver.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(root.get()).isInstanceOf(types.get(0));
+        Object leaf = injector.getInstance(types.get(types.size() - 1));
+        assertThat(injector.dependencyGraph(types.get(types.size() - 2)).getNode(types.get(types.size() - 2))
+                .getDependencies()).containsExactly(leaf.getClass());
+        assertThat(injector.dependencyGraph(types.get(0)).getNodes()).hasSize(3_000);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark_buildTime_when_graphGrowsTo10000Nodes(TestReporter reporter) {
+        reporter.publishEntry("shape", String.format("width=%d depth=%d interfaceRatio=%.2f",
+                WIDTH, DEPTH, INTERFACE_RATIO));
+        reporter.publishEntry("columns", String.format("%-8s %12s %12s %12s %12s %12s %14s %14s", "nodes",
+                "generate(ms)", "cold(ms)", "mockGen(ms)", "warm(ms)", "warm(us/node)", "heap(B/node)",
+                "metaspace(KB)"));
+
+        double perNodeAt1000 = 0;
+        double perNodeAtMax = 0;
+        for (int nodes : new int[]{10, 100, 1_000, 10_000}) {
+            long metaspaceBefore = metaspaceUsed();
+            SyntheticGraph graph = SyntheticGraph.generate(nodes, WIDTH, DEPTH, INTERFACE_RATIO, nodes);
+
+            long heapBefore = heapUsedAfterGc();
+            TestInjector cold = new TestInjector();
+            long coldNanos = build(cold, graph);
+            long heapAfter = heapUsedAfterGc();
+            long mockNanos = 0;
+            for (Class<?> type : graph.getInterfaces()) {
+                mockNanos += cold.dependencyGraph(type).getNode(type).getMockCreationNanos();
+            }
+            long metaspaceAfter = metaspaceUsed();
+
+            // Mock 类与构造器选择已缓存，热构建只包含实例化与装配
+            long warmNanos = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                warmNanos = Math.min(warmNanos, build(new TestInjector(), graph));
+            }
+            double perNode = warmNanos / 1e3 / nodes;
+            if (nodes == 1_000) {
+                perNodeAt1000 = perNode;
+            }
+            perNodeAtMax = perNode;
+
+            reporter.publishEntry("nodes=" + nodes, String.format("%-8d %12.1f %12.1f %12.1f %12.1f %12.2f %14d %14d",
+                    nodes, graph.getGenerationNanos() / 1e6, coldNanos / 1e6, mockNanos / 1e6, warmNanos / 1e6, perNode,
+                    Math.max(0, heapAfter - heapBefore) / nodes, Math.max(0, metaspaceAfter - metaspaceBefore) / 1024));
+            cold.release();
+        }
+
+        assertThat(perNodeAtMax).isLessThanOrEqualTo(perNodeAt1000 * MAX_PER_NODE_GROWTH);
+    }
+
+    private static long build(TestInjector injector, SyntheticGraph graph) {
+        long start = System.nanoTime();
+        for (Class<?> type : graph.getTypes()) {
+            injector.getInstance(type);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long heapUsedAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long metaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,75 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.annotation.AnnotationProcessor;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * InteractionProfiler 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class InteractionProfilerTest {
+
+    public interface UserDao {
+        String findById(long id);
+
+        void flush();
+    }
+
+    public static class UserService {
+        private final UserDao userDao;
+
+        public UserService(UserDao userDao) {
+            this.userDao = userDao;
+        }
+
+        public void loadAll(int users, int distinctIds) {
+            for (int i = 0; i < users; i++) {
+                userDao.findById(i % distinctIds);
+            }
+            userDao.flush();
+        }
+    }
+
+    static class AnnotatedTest {
+        @Mock
+        UserDao userDao;
+    }
+
+    @Test
+    void should_countCallsAndEstimateCardinality_when_mockCalledInLoop() {
+        TestInjector injector = TestInjector.builder().profileInteractions().buildInjector();
+
+        injector.getInstance(UserService.class).loadAll(5000, 50);
+
+        List<InteractionProfiler.Interaction> chatty = injector.getInteractionProfiler().chattyInteractions(100);
+        assertThat(chatty).hasSize(1);
+        assertThat(chatty.get(0).describeMethod()).isEqualTo("UserDao.findById(long)");
+        assertThat(chatty.get(0).getCalls()).isEqualTo(5000);
+        assertThat(chatty.get(0).getDistinctArguments()).isBetween(40L, 60L);
+        assertThat(injector.getInteractionProfiler().summary(100)).contains("5000 calls");
+        assertThat(injector.getInteractionProfiler().summary(10_000)).isEmpty();
+    }
+
+    @Test
+    void should_profileAnnotatedMocks_when_profilingEnabled() {
+        TestInjector injector = TestInjector.builder().profileInteractions().buildInjector();
+        AnnotatedTest testInstance = new AnnotatedTest();
+        new AnnotationProcessor(injector).processAnnotations(testInstance);
+
+        testInstance.userDao.flush();
+        testInstance.userDao.flush();
+
+        List<InteractionProfiler.Interaction> interactions = injector.getInteractionProfiler().interactions();
+        assertThat(interactions).hasSize(1);
+        assertThat(interactions.get(0).getCalls()).isEqualTo(2);
+        assertThat(interactions.get(0).getDistinctArguments()).isZero();
+    }
+}
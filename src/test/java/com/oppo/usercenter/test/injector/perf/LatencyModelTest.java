@@ -0,0 +1,151 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.oppo.usercenter.test.injector.mock.MethodMatcher.nameLike;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * LatencyModel / LatencySimulator 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class LatencyModelTest {
+
+    public interface PriceClient {
+        long price(String sku);
+
+        long cachedPrice(String sku);
+    }
+
+    public static class QuoteService {
+        private final PriceClient priceClient;
+
+        public QuoteService(PriceClient priceClient) {
+            this.priceClient = priceClient;
+        }
+
+        public long serialQuote(String... skus) {
+            long total = 0;
+            for (String sku : skus) {
+                total += priceClient.price(sku);
+            }
+            return total;
+        }
+
+        public long parallelQuote(ExecutorService executor, String... skus) {
+            List<CompletableFuture<Long>> futures = Arrays.stream(skus)
+                    .map(sku -> CompletableFuture.supplyAsync(() -> priceClient.price(sku), executor))
+                    .collect(Collectors.toList());
+            return futures.stream().mapToLong(CompletableFuture::join).sum();
+        }
+    }
+
+    @Test
+    void should_revealSerializedRemoteCalls_when_latencySimulated() {
+        QuoteService service = TestInjector.builder()
+                .latency(PriceClient.class, LatencyModel.fixed(Duration.ofMillis(40)))
+                .autoCreate(QuoteService.class)
+                .build();
+        String[] skus = {"a", "b", "c", "d", "e"};
+        ExecutorService executor = Executors.newFixedThreadPool(skus.length);
+        try {
+            long serialMillis = elapsedMillis(() -> service.serialQuote(skus));
+            long parallelMillis = elapsedMillis(() -> service.parallelQuote(executor, skus));
+
+            assertThat(serialMillis).isGreaterThanOrEqualTo(200);
+            assertThat(parallelMillis).isLessThan(150);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_delayStubbedCalls_when_mockConfiguredWithLatency() {
+        TestInjector injector = TestInjector.builder()
+                .mockWith(PriceClient.class, LatencyModel.fixed(Duration.ofMillis(5)),
+                        client -> when(client.price("a")).thenReturn(10L))
+                .latency(PriceClient.class, nameLike("cached*"), LatencyModel.fixed(Duration.ZERO))
+                .buildInjector();
+        PriceClient client = injector.getInstance(PriceClient.class);
+        long before = injector.getLatencySimulator().getDelayedCalls();
+
+        assertThat(client.price("a")).isEqualTo(10L);
+        client.cachedPrice("a");
+
+        // 方法级配置优先于类型级配置，cachedPrice 不产生延迟
+        assertThat(injector.getLatencySimulator().getDelayedCalls() - before).isEqualTo(1);
+    }
+
+    @Test
+    void should_sampleAroundMedian_when_logNormal() {
+        long[] samples = sample(LatencyModel.logNormal(Duration.ofMillis(50), 0.3), 20_000);
+
+        assertThat(percentile(samples, 0.5)).isBetween(ms(47), ms(53));
+        assertThat(percentile(samples, 0.99)).isGreaterThan(ms(90));
+    }
+
+    @Test
+    void should_followRecordedPercentiles_when_interpolating() {
+        Map<Double, Duration> quantiles = new HashMap<>();
+        quantiles.put(0.5, Duration.ofMillis(20));
+        quantiles.put(0.9, Duration.ofMillis(60));
+        quantiles.put(0.99, Duration.ofMillis(180));
+        long[] samples = sample(LatencyModel.percentiles(quantiles), 20_000);
+
+        assertThat(percentile(samples, 0.5)).isBetween(ms(19), ms(21));
+        assertThat(percentile(samples, 0.9)).isBetween(ms(55), ms(65));
+        assertThat(samples[samples.length - 1]).isLessThanOrEqualTo(ms(180));
+        assertThat(samples[0]).isGreaterThanOrEqualTo(ms(20));
+    }
+
+    @Test
+    void should_stayWithinBounds_when_uniform() {
+        long[] samples = sample(LatencyModel.uniform(Duration.ofMillis(10), Duration.ofMillis(30)), 10_000);
+
+        assertThat(samples[0]).isGreaterThanOrEqualTo(ms(10));
+        assertThat(samples[samples.length - 1]).isLessThanOrEqualTo(ms(30));
+        assertThatThrownBy(() -> LatencyModel.uniform(Duration.ofMillis(30), Duration.ofMillis(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] sample(LatencyModel model, int count) {
+        Random random = new Random(42);
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = model.sampleNanos(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[(int) (sorted.length * quantile)];
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static long elapsedMillis(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,127 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.util.ReflectionUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * LoadHarness / LatencyHistogram 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class LoadHarnessTest {
+
+    public interface InventoryClient {
+        int stock(String sku);
+    }
+
+    public static class InventoryService {
+        private final InventoryClient inventoryClient;
+
+        public InventoryService(InventoryClient inventoryClient) {
+            this.inventoryClient = inventoryClient;
+        }
+
+        public boolean available(String sku) {
+            return inventoryClient.stock(sku) >= 0;
+        }
+
+        public synchronized boolean availableSerialized(String sku) {
+            return available(sku);
+        }
+    }
+
+    @Test
+    void should_scaleWithThreads_when_dependencyLatencyOverlaps() {
+        TestInjector injector = TestInjector.builder()
+                .latency(InventoryClient.class, LatencyModel.fixed(Duration.ofMillis(2)))
+                .buildInjector();
+
+        LoadReport parallel = injector.loadHarness(InventoryService.class)
+                .threads(8)
+                .operations(400)
+                .run(service -> service.available("sku"));
+        LoadReport serialized = injector.loadHarness(InventoryService.class)
+                .threads(8)
+                .operations(100)
+                .run(service -> service.availableSerialized("sku"));
+
+        assertThat(parallel.getOperations()).isEqualTo(400);
+        assertThat(parallel.getErrors()).isZero();
+        assertThat(parallel.latencyAt(50)).isGreaterThanOrEqualTo(Duration.ofMillis(2));
+        // synchronized 方法把 8 个线程串行化，吞吐量明显下降
+        assertThat(parallel.getThroughput()).isGreaterThan(serialized.getThroughput() * 3);
+        assertThat(serialized.latencyAt(99)).isGreaterThan(parallel.latencyAt(99));
+    }
+
+    @Test
+    void should_countErrorsAndStopOnTime_when_durationConfigured() {
+        InventoryService service = new InventoryService(sku -> {
+            throw new IllegalStateException("down");
+        });
+
+        LoadReport report = LoadHarness.of(service)
+                .threads(2)
+                .warmup(10)
+                .duration(Duration.ofMillis(100))
+                .run(target -> target.available("sku"));
+
+        assertThat(report.getElapsed()).isBetween(Duration.ofMillis(100), Duration.ofSeconds(2));
+        assertThat(report.getErrors()).isEqualTo(report.getOperations()).isPositive();
+        assertThat(report.getFirstError()).hasMessage("down");
+        assertThat(report.summary()).contains("errors=" + report.getErrors());
+    }
+
+    @Test
+    void should_splitOperationsAcrossThreads_when_countNotDivisible() {
+        Map<Thread, Integer> perThread = new ConcurrentHashMap<>();
+
+        LoadReport report = LoadHarness.of(new InventoryService(sku -> 1))
+                .threads(3)
+                .operations(10)
+                .run(service -> perThread.merge(Thread.currentThread(), 1, Integer::sum));
+
+        assertThat(report.getOperations()).isEqualTo(10);
+        assertThat(perThread.values()).containsExactlyInAnyOrder(4, 3, 3);
+    }
+
+    @Test
+    void should_runOnVirtualThreadsOrFallBack_when_virtualThreadsRequested() {
+        LoadReport report = LoadHarness.of(new InventoryService(sku -> 1))
+                .threads(100)
+                .virtualThreads()
+                .operations(1_000)
+                .run(service -> service.available("sku"));
+
+        assertThat(report.getOperations()).isEqualTo(1_000);
+        assertThat(report.isVirtualThreads())
+                .isEqualTo(ReflectionUtils.loadClassOrNull("java.lang.Thread$Builder") != null);
+    }
+
+    @Test
+    void should_reportPercentilesWithinBucketError_when_valuesRecorded() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(7);
+        histogram.merge(other);
+
+        assertThat(histogram.getCount()).isEqualTo(100_001);
+        assertThat(histogram.getMin()).isEqualTo(7);
+        assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(50_000_000.0, within(1_600_000.0));
+        assertThat((double) histogram.valueAtPercentile(99)).isCloseTo(99_000_000.0, within(3_100_000.0));
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(histogram.getMax());
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isEqualTo(1887);
+    }
+}
@@ -0,0 +1,154 @@
+package com.oppo.usercenter.test.injector.perf;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ByteArrayClassLoader;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 测试时用 ByteBuddy 生成的合成依赖图。
+ * 节点分为 depth 层，每个类节点的构造器依赖下一层中随机选取的 width 个节点，
+ * 按 interfaceRatio 的比例生成接口（由注入器 Mock，没有依赖）。
+ * 每个图在独立的类加载器中加载，Mockito 需要为其中的接口重新生成 Mock 类。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+final class SyntheticGraph {
+
+    private static final AtomicInteger GRAPH_IDS = new AtomicInteger();
+
+    private final List<Class<?>> types;
+    private final List<Class<?>> roots;
+    private final List<Class<?>> interfaces;
+    private final long generationNanos;
+
+    private SyntheticGraph(List<Class<?>> types, List<Class<?>> roots, List<Class<?>> interfaces,
+                           long generationNanos) {
+        this.types = types;
+        this.roots = roots;
+        this.interfaces = interfaces;
+        this.generationNanos = generationNanos;
+    }
+
+    /**
+     * 生成并加载合成依赖图。
+     *
+     * @param nodes 节点数
+     * @param width 每个类节点的依赖数（不超过下一层节点数）
+     * @param depth 层数
+     * @param interfaceRatio 接口节点比例
+     * @param seed 随机种子
+     * @return 合成依赖图
+     */
+    static SyntheticGraph generate(int nodes, int width, int depth, double interfaceRatio, long seed) {
+        long start = System.nanoTime();
+        int layers = Math.max(1, Math.min(depth, nodes));
+        String prefix = "synthetic.g" + GRAPH_IDS.incrementAndGet() + ".N";
+        Random random = new Random(seed);
+
+        // 从最深层开始生成，类节点的构造器参数引用尚未加载的下一层类型
+        List<List<TypeDescription>> descriptions = new ArrayList<>(Collections.nCopies(layers, null));
+        Map<String, byte[]> bytecode = new HashMap<>();
+        for (int layer = layers - 1; layer >= 0; layer--) {
+            int size = nodes / layers + (layer < nodes % layers ? 1 : 0);
+            List<TypeDescription> next = layer + 1 < layers ? descriptions.get(layer + 1) : Collections.emptyList();
+            List<TypeDescription> current = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String name = prefix + layer + "_" + i;
+                DynamicType.Unloaded<?> type = random.nextDouble() < interfaceRatio
+                        ? makeInterface(name)
+                        : makeClass(name, pick(next, width, random));
+                bytecode.put(name, type.getBytes());
+                current.add(type.getTypeDescription());
+            }
+            descriptions.set(layer, current);
+        }
+
+        ClassLoader loader = new ByteArrayClassLoader(SyntheticGraph.class.getClassLoader(), bytecode);
+        List<Class<?>> types = new ArrayList<>(nodes);
+        List<Class<?>> roots = new ArrayList<>();
+        List<Class<?>> interfaces = new ArrayList<>();
+        try {
+            for (int layer = 0; layer < layers; layer++) {
+                for (TypeDescription description : descriptions.get(layer)) {
+                    Class<?> type = Class.forName(description.getName(), false, loader);
+                    types.add(type);
+                    if (layer == 0) {
+                        roots.add(type);
+                    }
+                    if (type.isInterface()) {
+                        interfaces.add(type);
+                    }
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Generated type cannot be loaded", e);
+        }
+        return new SyntheticGraph(types, roots, interfaces, System.nanoTime() - start);
+    }
+
+    private static DynamicType.Unloaded<?> makeInterface(String name) {
+        return new ByteBuddy()
+                .makeInterface()
+                .name(name)
+                .defineMethod("call", int.class, Visibility.PUBLIC)
+                .withoutCode()
+                .make();
+    }
+
+    private static DynamicType.Unloaded<?> makeClass(String name, List<TypeDescription> dependencies) {
+        DynamicType.Builder<Object> builder = new ByteBuddy()
+                .subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .name(name);
+        Implementation.Composable constructor;
+        try {
+            constructor = MethodCall.invoke(Object.class.getConstructor());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        for (int i = 0; i < dependencies.size(); i++) {
+            builder = builder.defineField("d" + i, dependencies.get(i), Visibility.PRIVATE);
+            constructor = constructor.andThen(FieldAccessor.ofField("d" + i).setsArgumentAt(i));
+        }
+        return builder.defineConstructor(Visibility.PUBLIC)
+                .withParameters(dependencies)
+                .intercept(constructor)
+                .make();
+    }
+
+    private static List<TypeDescription> pick(List<TypeDescription> candidates, int width, Random random) {
+        List<TypeDescription> shuffled = new ArrayList<>(candidates);
+        Collections.shuffle(shuffled, random);
+        return shuffled.subList(0, Math.min(width, shuffled.size()));
+    }
+
+    List<Class<?>> getTypes() {
+        return types;
+    }
+
+    List<Class<?>> getRoots() {
+        return roots;
+    }
+
+    List<Class<?>> getInterfaces() {
+        return interfaces;
+    }
+
+    long getGenerationNanos() {
+        return generationNanos;
+    }
+}
@@ -0,0 +1,131 @@
+package com.oppo.usercenter.test.injector.policy;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.testdata.ComplexManager;
+import com.oppo.usercenter.test.injector.testdata.SimpleManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockPolicy 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class MockPolicyTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Remote {
+    }
+
+    public static class UserDao {
+    }
+
+    public static class PaymentClient {
+    }
+
+    @Remote
+    public static class RiskService {
+    }
+
+    public static class OrderConverter {
+    }
+
+    public static class OrderService {
+        private final UserDao userDao;
+        private final PaymentClient paymentClient;
+        private final RiskService riskService;
+        private final OrderConverter orderConverter;
+
+        public OrderService(UserDao userDao, PaymentClient paymentClient, RiskService riskService,
+                            OrderConverter orderConverter) {
+            this.userDao = userDao;
+            this.paymentClient = paymentClient;
+            this.riskService = riskService;
+            this.orderConverter = orderConverter;
+        }
+    }
+
+    @Test
+    void should_decideBySuffixAndAnnotation_when_rulesMatch() {
+        MockPolicy policy = MockPolicy.create()
+                .mockSuffixes("*Dao", "Client")
+                .mockAnnotatedWith(Remote.class);
+
+        assertThat(policy.decide(UserDao.class)).isTrue();
+        assertThat(policy.decide(PaymentClient.class)).isTrue();
+        assertThat(policy.decide(RiskService.class)).isTrue();
+        assertThat(policy.decide(OrderConverter.class)).isNull();
+    }
+
+    @Test
+    void should_matchWholePackageSegments_when_prefixRuleUsed() {
+        MockPolicy policy = MockPolicy.create().mockPackages("java.util.concurrent");
+
+        assertThat(policy.decide(ConcurrentHashMap.class)).isTrue();
+        assertThat(policy.decide(java.util.concurrent.atomic.AtomicLong.class)).isTrue();
+        assertThat(policy.decide(ArrayList.class)).isNull();
+        assertThat(MockPolicy.create().mockPackages("java.util.conc").decide(ConcurrentHashMap.class)).isNull();
+    }
+
+    @Test
+    void should_preferMock_when_mockAndRealRulesBothMatch() {
+        MockPolicy policy = MockPolicy.create()
+                .realPackages("com.oppo.usercenter")
+                .mockSuffixes("Client")
+                .and(MockPolicy.create().realSuffixes("*Converter"));
+
+        assertThat(policy.decide(PaymentClient.class)).isTrue();
+        assertThat(policy.decide(OrderConverter.class)).isFalse();
+        assertThat(policy.decide(UserDao.class)).isFalse();
+    }
+
+    @Test
+    void should_mockIoLayers_when_policyConfiguredInBuilder() {
+        OrderService service = TestInjector.builder()
+                .policy(MockPolicy.create().mockSuffixes("*Dao", "*Client"))
+                .policy(MockPolicy.create().mockAnnotatedWith(Remote.class.getName()))
+                .autoCreate(OrderService.class)
+                .build();
+
+        assertThat(Mockito.mockingDetails(service.userDao).isMock()).isTrue();
+        assertThat(Mockito.mockingDetails(service.paymentClient).isMock()).isTrue();
+        assertThat(Mockito.mockingDetails(service.riskService).isMock()).isTrue();
+        assertThat(Mockito.mockingDetails(service.orderConverter).isMock()).isFalse();
+    }
+
+    @Test
+    void should_keepExplicitTypes_when_policyDisagrees() {
+        ComplexManager manager = TestInjector.builder()
+                .policy(MockPolicy.create().mockPackages("com.oppo.usercenter.test.injector.testdata"))
+                .real(ComplexManager.class, SimpleManager.class)
+                .autoCreate(ComplexManager.class)
+                .build();
+
+        assertThat(Mockito.mockingDetails(manager).isMock()).isFalse();
+        assertThat(Mockito.mockingDetails(manager.getSimpleManager()).isMock()).isFalse();
+        assertThat(Mockito.mockingDetails(manager.getSimpleService()).isMock()).isTrue();
+    }
+
+    @Test
+    void should_keepRequestedTypeReal_when_policyWouldMockIt() {
+        MockPolicy policy = MockPolicy.create().mockSuffixes("*Service", "*Dao");
+
+        OrderService service = TestInjector.builder().policy(policy).buildInjector().getInstance(OrderService.class);
+        OrderService target = TestInjector.builder().policy(policy).autoCreate(OrderService.class).build();
+
+        assertThat(Mockito.mockingDetails(service).isMock()).isFalse();
+        assertThat(Mockito.mockingDetails(target).isMock()).isFalse();
+        // 作为依赖时仍按策略 Mock
+        assertThat(Mockito.mockingDetails(service.userDao).isMock()).isTrue();
+        assertThat(Mockito.mockingDetails(service.riskService).isMock()).isTrue();
+        assertThat(Mockito.mockingDetails(target.riskService).isMock()).isTrue();
+    }
+}
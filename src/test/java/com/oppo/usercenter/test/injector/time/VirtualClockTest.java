@@ -0,0 +1,177 @@
+package com.oppo.usercenter.test.injector.time;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import com.oppo.usercenter.test.injector.config.CommonMockConfigs;
+import com.oppo.usercenter.test.injector.perf.LatencyModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * VirtualClock 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class VirtualClockTest {
+
+    public interface RemoteApi {
+        String fetch(String key) throws IOException;
+
+        String describe();
+    }
+
+    public static class RetryingClient {
+        private final Clock clock;
+        private final RemoteApi remoteApi;
+
+        public RetryingClient(Clock clock, RemoteApi remoteApi) {
+            this.clock = clock;
+            this.remoteApi = remoteApi;
+        }
+
+        public int fetchWithRetry(String key, Duration deadline) {
+            Instant giveUpAt = clock.instant().plus(deadline);
+            int attempts = 0;
+            while (clock.instant().isBefore(giveUpAt)) {
+                attempts++;
+                try {
+                    remoteApi.fetch(key);
+                    return attempts;
+                } catch (IOException e) {
+                    // 重试
+                }
+            }
+            return attempts;
+        }
+    }
+
+    public static class TokenIssuer {
+        private final Supplier<Instant> now;
+
+        public TokenIssuer(Supplier<Instant> now) {
+            this.now = now;
+        }
+
+        public Instant expiresAt(Duration ttl) {
+            return now.get().plus(ttl);
+        }
+    }
+
+    public static class Stopwatch {
+        private final LongSupplier nanoTime;
+        private final long start;
+
+        public Stopwatch(LongSupplier nanoTime) {
+            this.nanoTime = nanoTime;
+            this.start = nanoTime.getAsLong();
+        }
+
+        public long elapsedNanos() {
+            return nanoTime.getAsLong() - start;
+        }
+    }
+
+    @Test
+    void should_runTimeoutAndRetryPathInstantly_when_virtualTimeEnabled() {
+        TestInjector.Builder builder = TestInjector.builder();
+        CommonMockConfigs.httpTimeout(RemoteApi.class, Duration.ofSeconds(3)).apply(builder);
+        TestInjector injector = builder.buildInjector();
+        Instant start = injector.getVirtualClock().instant();
+
+        long wallStart = System.nanoTime();
+        int attempts = injector.getInstance(RetryingClient.class).fetchWithRetry("k", Duration.ofSeconds(10));
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - wallStart);
+
+        assertThat(attempts).isEqualTo(4);
+        assertThat(Duration.between(start, injector.getVirtualClock().instant())).isEqualTo(Duration.ofSeconds(12));
+        assertThat(wallMillis).isLessThan(1000);
+    }
+
+    @Test
+    void should_wrapTimeout_when_methodDoesNotDeclareIoException() {
+        TestInjector.Builder builder = TestInjector.builder();
+        CommonMockConfigs.httpTimeout(RemoteApi.class, Duration.ofSeconds(1)).apply(builder);
+        RemoteApi api = builder.buildInjector().getInstance(RemoteApi.class);
+
+        assertThatThrownBy(() -> api.fetch("k")).isInstanceOf(SocketTimeoutException.class);
+        assertThatThrownBy(api::describe)
+                .isInstanceOf(UncheckedIOException.class)
+                .hasCauseInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    void should_onlyTimeOutIoMethods_when_globalHttpTimeoutApplied() {
+        TestInjector.Builder builder = TestInjector.builder();
+        CommonMockConfigs.httpTimeout().apply(builder);
+        RemoteApi api = builder.buildInjector().getInstance(RemoteApi.class);
+
+        assertThatThrownBy(() -> api.fetch("k")).isInstanceOf(SocketTimeoutException.class);
+        assertThat(api.describe()).isNull();
+    }
+
+    @Test
+    void should_advanceVirtualTimeInsteadOfSleeping_when_latencySimulated() {
+        TestInjector injector = TestInjector.builder()
+                .latency(RemoteApi.class, LatencyModel.fixed(Duration.ofSeconds(2)))
+                .enableVirtualTime()
+                .buildInjector();
+        RemoteApi api = injector.getInstance(RemoteApi.class);
+        VirtualClock clock = injector.getVirtualClock();
+        long before = clock.nanoTime();
+
+        long wallStart = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            api.describe();
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - wallStart)).isLessThan(1000);
+        assertThat(clock.nanoTime() - before).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+        assertThat(injector.getInstance(Clock.class)).isSameAs(clock);
+    }
+
+    @Test
+    void should_shareTimeline_when_zoneChanged() {
+        VirtualClock clock = new VirtualClock();
+        Clock shanghai = clock.withZone(ZoneId.of("Asia/Shanghai"));
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(shanghai.instant()).isEqualTo(VirtualClock.DEFAULT_START.plus(Duration.ofMinutes(5)));
+        assertThat(clock.millis()).isEqualTo(clock.instant().toEpochMilli());
+        assertThatThrownBy(() -> clock.advance(Duration.ofSeconds(-1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_injectVirtualInstantSupplier_when_virtualTimeEnabled() {
+        TestInjector injector = TestInjector.builder().enableVirtualTime().buildInjector();
+        TokenIssuer issuer = injector.getInstance(TokenIssuer.class);
+
+        injector.getVirtualClock().advance(Duration.ofHours(1));
+
+        assertThat(issuer.expiresAt(Duration.ofMinutes(5)))
+                .isEqualTo(VirtualClock.DEFAULT_START.plus(Duration.ofHours(1)).plus(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void should_injectVirtualNanoTime_when_longSupplierRequested() {
+        TestInjector injector = TestInjector.builder().enableVirtualTime().buildInjector();
+        Stopwatch stopwatch = injector.getInstance(Stopwatch.class);
+
+        injector.getVirtualClock().advance(Duration.ofSeconds(3));
+
+        assertThat(stopwatch.elapsedNanos()).isEqualTo(Duration.ofSeconds(3).toNanos());
+    }
+}
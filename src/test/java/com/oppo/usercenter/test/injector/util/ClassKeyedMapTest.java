@@ -0,0 +1,144 @@
+package com.oppo.usercenter.test.injector.util;
+
+import com.oppo.usercenter.test.injector.TestInjector;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClassKeyedMap 单元测试。
+ *
+ * @author zhourui(V33215020)
+ * @since 2026/10/18
+ */
+class ClassKeyedMapTest {
+
+    public static class Unloadable {
+        public Unloadable() {
+        }
+    }
+
+    public static class DependsOnJdkType {
+        public DependsOnJdkType(Executor executor) {
+        }
+    }
+
+    @Test
+    void should_behaveLikeConcurrentMap_when_accessed() {
+        ClassKeyedMap<String> map = new ClassKeyedMap<>();
+
+        assertThat(map.get(String.class)).isNull();
+        assertThat(map.computeIfAbsent(String.class, Class::getSimpleName)).isEqualTo("String");
+        assertThat(map.computeIfAbsent(String.class, type -> "other")).isEqualTo("String");
+        assertThat(map.putIfAbsent(String.class, "other")).isEqualTo("String");
+        assertThat(map.put(String.class, "replaced")).isEqualTo("String");
+        assertThat(map.putIfAbsent(Integer.class, "int")).isNull();
+        assertThat(map.remove(String.class)).isEqualTo("replaced");
+        assertThat(map.containsKey(String.class)).isFalse();
+
+        map.clear();
+
+        assertThat(map.containsKey(Integer.class)).isFalse();
+    }
+
+    @Test
+    void should_allowClassUnloading_when_valueReferencesKey() throws Exception {
+        ClassKeyedMap<Object> map = new ClassKeyedMap<>();
+        WeakReference<ClassLoader> loader = cacheClassFromThrowawayLoader(map);
+
+        for (int attempt = 0; attempt < 10 && loader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(loader.get()).isNull();
+    }
+
+    @Test
+    void should_notPinResolvedClasses_when_longLivedInjectorReleased() throws Exception {
+        TestInjector injector = new TestInjector();
+        WeakReference<ClassLoader> loader = resolveClassFromThrowawayLoader(injector);
+
+        injector.release();
+        for (int attempt = 0; attempt < 10 && loader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(loader.get()).isNull();
+        assertThat(injector.getInstance(Unloadable.class)).isNotNull();
+    }
+
+    @Test
+    void should_notPinDependentClasses_when_dependencyIsJdkType() throws Exception {
+        TestInjector injector = new TestInjector();
+        WeakReference<ClassLoader> loader = resolveDependentFromThrowawayLoader(injector);
+
+        injector.release();
+        for (int attempt = 0; attempt < 10 && loader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        // 反向依赖边的键是 JDK 类型，若存进其 ClassValue，会一直钉住依赖它的测试类
+        assertThat(loader.get()).isNull();
+    }
+
+    private static WeakReference<ClassLoader> resolveDependentFromThrowawayLoader(TestInjector injector)
+            throws Exception {
+        ThrowawayLoader loader = new ThrowawayLoader();
+        Class<?> type = loader.define(DependsOnJdkType.class.getName());
+        assertThat(injector.getInstance(type)).isNotNull();
+        assertThat(injector.dependencyGraph(type).getNode(type).getDependencies()).isNotEmpty();
+        return new WeakReference<>(loader);
+    }
+
+    private static WeakReference<ClassLoader> resolveClassFromThrowawayLoader(TestInjector injector)
+            throws Exception {
+        ThrowawayLoader loader = new ThrowawayLoader();
+        Class<?> type = loader.define(Unloadable.class.getName());
+        assertThat(injector.getInstance(type)).isNotNull();
+        assertThat(injector.dependencyGraph(type).getNodes()).containsKey(type);
+        return new WeakReference<>(loader);
+    }
+
+    private static WeakReference<ClassLoader> cacheClassFromThrowawayLoader(ClassKeyedMap<Object> map)
+            throws Exception {
+        ThrowawayLoader loader = new ThrowawayLoader();
+        Class<?> type = loader.define(Unloadable.class.getName());
+        // 值引用键类型本身
+        map.put(type, type.getConstructor());
+        assertThat(map.get(type)).isNotNull();
+        assertThat(type.getClassLoader()).isSameAs(loader);
+        return new WeakReference<>(loader);
+    }
+
+    /**
+     * 从测试类路径读取字节码，在独立的加载器中重新定义类。
+     */
+    private static final class ThrowawayLoader extends ClassLoader {
+
+        private ThrowawayLoader() {
+            super(ClassKeyedMapTest.class.getClassLoader());
+        }
+
+        private Class<?> define(String name) throws IOException {
+            String resource = "/" + name.replace('.', '/') + ".class";
+            try (InputStream in = ClassKeyedMapTest.class.getResourceAsStream(resource)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+                return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+            }
+        }
+    }
+}
@@ -4,7 +4,10 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -118,4 +121,20 @@ class ReflectionUtilsTest {
     void should_returnTrue_when_concreteClass() {
         assertThat(ReflectionUtils.isInstantiable(NoArgClass.class)).isTrue();
     }
+
+    static class GenericHolder {
+        public GenericHolder(Supplier<? extends CharSequence> supplier,
+                             Optional<List<String>> nested, Optional<?> unbounded) {
+        }
+    }
+
+    @Test
+    void should_resolveFirstTypeArgument_when_parameterized() {
+        Type[] types = GenericHolder.class.getConstructors()[0].getGenericParameterTypes();
+
+        assertThat(ReflectionUtils.firstTypeArgument(types[0])).isEqualTo(CharSequence.class);
+        assertThat(ReflectionUtils.firstTypeArgument(types[1])).isEqualTo(List.class);
+        assertThat(ReflectionUtils.firstTypeArgument(types[2])).isNull();
+        assertThat(ReflectionUtils.firstTypeArgument(String.class)).isNull();
+    }
 }